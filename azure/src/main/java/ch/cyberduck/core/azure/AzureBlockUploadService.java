@@ -0,0 +1,325 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.BytecountStreamListener;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.DirectoryDelimiterPathContainerService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.UUIDRandomStringService;
+import ch.cyberduck.core.concurrency.Interruptibles;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.ChecksumComputeFactory;
+import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
+import ch.cyberduck.core.transfer.SegmentRetryCallable;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.lang3.concurrent.ConcurrentUtils;
+import org.apache.http.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.DecoderException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.BlockSearchMode;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+/**
+ * Upload block blob with blocks staged concurrently using Put Block and committed with Put Block List. Blocks
+ * staged but not committed by a previous attempt are reused when resuming.
+ */
+public class AzureBlockUploadService implements Upload<Void> {
+    private static final Logger log = LogManager.getLogger(AzureBlockUploadService.class);
+
+    /**
+     * Maximum number of blocks in a block blob
+     */
+    public static final int MAXIMUM_BLOCKS = 50000;
+    /**
+     * Maximum size of a single block
+     */
+    public static final long MAXIMUM_BLOCK_SIZE = 100L * 1024L * 1024L;
+
+    private final AzureSession session;
+    private final OperationContext context;
+    private final PathContainerService containerService
+        = new DirectoryDelimiterPathContainerService();
+
+    private final Long blocksize;
+    private final Integer concurrency;
+    private final boolean md5;
+
+    public AzureBlockUploadService(final AzureSession session, final OperationContext context) {
+        this(session, context, new HostPreferences(session.getHost()).getLong("azure.upload.block.size"),
+            new HostPreferences(session.getHost()).getInteger("azure.upload.block.concurrency"));
+    }
+
+    public AzureBlockUploadService(final AzureSession session, final OperationContext context, final Long blocksize, final Integer concurrency) {
+        this.session = session;
+        this.context = context;
+        this.blocksize = blocksize;
+        this.concurrency = concurrency;
+        this.md5 = new HostPreferences(session.getHost()).getBoolean("azure.upload.md5");
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            // Full size of file
+            final long size = status.getOffset() + status.getLength();
+            final Map<String, Long> uncommitted = new HashMap<>();
+            if(status.isAppend()) {
+                uncommitted.putAll(this.list(blob, size));
+            }
+            if(status.isExists()) {
+                if(new HostPreferences(session.getHost()).getBoolean("azure.upload.snapshot")) {
+                    blob.createSnapshot();
+                }
+            }
+            // Identifies blocks of this upload. Reuse identifier of blocks staged by interrupted upload
+            final String nonce = uncommitted.isEmpty() ? new UUIDRandomStringService().random()
+                : toNonce(uncommitted.keySet().iterator().next(), size);
+            final long length = toBlockSize(size, blocksize);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Upload %s in blocks of %d bytes with nonce %s", file, length, nonce));
+            }
+            // Block list in order of blocks in blob
+            final List<Future<BlockEntry>> blocks = new ArrayList<>();
+            long offset = 0;
+            for(int blockNumber = 0; offset < size; blockNumber++) {
+                final long remaining = Math.min(length, size - offset);
+                final String id = toBlockId(size, nonce, blockNumber);
+                if(uncommitted.containsKey(id) && uncommitted.get(id) == remaining) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip staged block %d", blockNumber));
+                    }
+                    blocks.add(ConcurrentUtils.constantFuture(new BlockEntry(id, BlockSearchMode.UNCOMMITTED)));
+                }
+                else {
+                    blocks.add(this.submit(pool, file, blob, local, throttle, listener, status, id, offset, remaining));
+                }
+                offset += remaining;
+            }
+            final List<BlockEntry> staged = Interruptibles.awaitAll(blocks);
+            if(md5 && Checksum.NONE == status.getChecksum()) {
+                // Content MD5 of blob is not calculated for blocks committed
+                status.setChecksum(ChecksumComputeFactory.get(HashAlgorithm.md5).compute(local.getInputStream(),
+                    new TransferStatus().withLength(size)));
+            }
+            new AzureWriteFeature(session, context).configure(blob, status);
+            blob.commitBlockList(staged, AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Committed %d blocks for %s", staged.size(), file));
+            }
+            // Mark parent status as complete
+            status.setComplete();
+            return null;
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
+        }
+    }
+
+    private Future<BlockEntry> submit(final PartThreadPool pool, final Path file, final CloudBlockBlob blob, final Local local,
+                                      final BandwidthThrottle throttle, final StreamListener listener,
+                                      final TransferStatus overall, final String id, final long offset, final long length) throws ConnectionCanceledException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit block %s of %s to queue with offset %d and length %d", id, file, offset, length));
+        }
+        final BytecountStreamListener counter = new BytecountStreamListener(listener);
+        return pool.execute(new SegmentRetryCallable<>(session.getHost(), new BackgroundExceptionCallable<BlockEntry>() {
+            @Override
+            public BlockEntry call() throws BackgroundException {
+                overall.validate();
+                final BlobRequestOptions options = new BlobRequestOptions();
+                options.setUseTransactionalContentMD5(md5);
+                try(InputStream in = new ProxyInputStream(new ThrottledInputStream(new BoundedInputStream(
+                    StreamCopier.skip(local.getInputStream(), offset), length), throttle)) {
+                    @Override
+                    protected void afterRead(final int n) {
+                        if(n > 0) {
+                            counter.sent(n);
+                        }
+                    }
+                }) {
+                    blob.uploadBlock(id, in, length, AccessCondition.generateEmptyCondition(), options, context);
+                }
+                catch(StorageException e) {
+                    throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map(e);
+                }
+                return new BlockEntry(id, BlockSearchMode.UNCOMMITTED);
+            }
+        }, overall, counter), length);
+    }
+
+    /**
+     * @param size Size of blob
+     * @return Blocks staged for blob of given size and not yet committed mapped to their size. Only blocks of the
+     * upload with most bytes staged are returned.
+     */
+    private Map<String, Long> list(final CloudBlockBlob blob, final long size) throws StorageException {
+        // Blocks staged by nonce of upload
+        final Map<String, Map<String, Long>> uploads = new HashMap<>();
+        try {
+            for(BlockEntry block : blob.downloadBlockList(BlockListingFilter.UNCOMMITTED,
+                AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context)) {
+                final String nonce = toNonce(block.getId(), size);
+                if(null != nonce) {
+                    uploads.computeIfAbsent(nonce, k -> new HashMap<>()).put(block.getId(), block.getSize());
+                }
+            }
+        }
+        catch(StorageException e) {
+            switch(e.getHttpStatusCode()) {
+                case HttpStatus.SC_NOT_FOUND:
+                    // No blocks staged
+                case HttpStatus.SC_CONFLICT:
+                    // Existing blob is not a block blob
+                    return Collections.emptyMap();
+            }
+            throw e;
+        }
+        return uploads.values().stream().max(Comparator.comparingLong(
+            staged -> staged.values().stream().mapToLong(Long::longValue).sum())).orElse(Collections.emptyMap());
+    }
+
+    @Override
+    public Write.Append append(final Path file, final TransferStatus status) throws BackgroundException {
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            final Map<String, Long> staged = this.list(blob, status.getOffset() + status.getLength());
+            if(!staged.isEmpty()) {
+                final long size = staged.values().stream().mapToLong(Long::longValue).sum();
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Found %d staged blocks with %d bytes for %s", staged.size(), size, file));
+                }
+                return new Write.Append(true).withStatus(status).withSize(size);
+            }
+            return Write.override;
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param size    Size of blob
+     * @param minimum Preferred block size
+     * @return Block size not exceeding the maximum number of blocks for blob size
+     */
+    protected static long toBlockSize(final long size, final long minimum) {
+        return Math.min(MAXIMUM_BLOCK_SIZE, Math.max(minimum, (size + MAXIMUM_BLOCKS - 1) / MAXIMUM_BLOCKS));
+    }
+
+    /**
+     * Block identifiers must be of equal length for all blocks of a blob. Identifiers include the size of the blob
+     * and a nonce of the upload to only reuse staged blocks when resuming upload of the same file and not mix
+     * blocks with concurrent uploads to the same blob.
+     *
+     * @param size        Size of blob
+     * @param nonce       UUID identifying upload
+     * @param blockNumber Zero based index of block in blob
+     * @return Base64 encoded block identifier ordered by block number
+     */
+    protected static String toBlockId(final long size, final String nonce, final int blockNumber) {
+        return Base64.toBase64String(String.format("%019d-%s-%05d", size, nonce, blockNumber).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param id   Base64 encoded block identifier
+     * @param size Size of blob
+     * @return Nonce of upload or null if block is not staged for blob of given size
+     */
+    protected static String toNonce(final String id, final long size) {
+        final String decoded;
+        try {
+            decoded = new String(Base64.decode(id), StandardCharsets.US_ASCII);
+        }
+        catch(DecoderException e) {
+            // Block staged by other client
+            return null;
+        }
+        final String prefix = String.format("%019d-", size);
+        if(!decoded.startsWith(prefix)) {
+            return null;
+        }
+        final int end = decoded.lastIndexOf('-');
+        if(end <= prefix.length()) {
+            return null;
+        }
+        return decoded.substring(prefix.length(), end);
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        // Blocks are staged without write feature
+        return this;
+    }
+}
@@ -29,6 +29,7 @@ import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.io.input.NullInputStream;
 import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.lang3.StringUtils;
@@ -51,6 +52,11 @@ import com.microsoft.azure.storage.core.SR;
 public class AzureReadFeature implements Read {
     private static final Logger log = LogManager.getLogger(AzureReadFeature.class);
 
+    /**
+     * Minimum number of bytes allowed to read with a single request
+     */
+    private static final int MINIMUM_READ_SIZE = 16 * 1024;
+
     private final AzureSession session;
 
     private final OperationContext context;
@@ -73,17 +79,24 @@ public class AzureReadFeature implements Read {
             }
             final BlobRequestOptions options = new BlobRequestOptions();
             options.setConcurrentRequestCount(1);
+            if(status.isSegment()) {
+                // Limit range requested with each read to length of segment
+                blob.setStreamMinimumReadSizeInBytes((int) Math.max(MINIMUM_READ_SIZE,
+                        Math.min(status.getLength(), blob.getStreamMinimumReadSizeInBytes())));
+            }
             final BlobInputStream in = blob.openInputStream(AccessCondition.generateEmptyCondition(), options, context);
             if(status.isAppend()) {
                 try {
-                    return StreamCopier.skip(in, status.getOffset());
+                    // Only moves read position without request
+                    StreamCopier.skip(in, status.getOffset());
                 }
                 catch(IndexOutOfBoundsException e) {
                     // If offset is invalid
                     throw new DefaultExceptionMappingService().map(e);
                 }
             }
-            return new ProxyInputStream(in) {
+            // Segment of ranged download ends before end of blob
+            return new ProxyInputStream(status.isSegment() ? new BoundedInputStream(in, status.getLength()) : in) {
                 @Override
                 protected void handleIOException(final IOException e) throws IOException {
                     if(StringUtils.equals(SR.STREAM_CLOSED, e.getMessage())) {
@@ -0,0 +1,112 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.blob.BlobType;
+
+/**
+ * Upload files exceeding threshold with blocks staged concurrently when block blobs are configured
+ */
+public class AzureThresholdUploadService implements Upload<Void> {
+    private static final Logger log = LogManager.getLogger(AzureThresholdUploadService.class);
+
+    private final AzureSession session;
+    private final OperationContext context;
+    private final Long threshold;
+    private final BlobType type;
+
+    private Write<Void> writer;
+
+    public AzureThresholdUploadService(final AzureSession session, final OperationContext context) {
+        this(session, context, new HostPreferences(session.getHost()).getLong("azure.upload.block.threshold"),
+            BlobType.valueOf(new HostPreferences(session.getHost()).getProperty("azure.upload.blobtype")));
+    }
+
+    public AzureThresholdUploadService(final AzureSession session, final OperationContext context, final Long threshold, final BlobType type) {
+        this.session = session;
+        this.context = context;
+        this.threshold = threshold;
+        this.type = type;
+        this.writer = new AzureWriteFeature(session, context);
+    }
+
+    @Override
+    public Write.Append append(final Path file, final TransferStatus status) throws BackgroundException {
+        if(this.isBlockUpload(file, status)) {
+            return new AzureBlockUploadService(session, context).append(file, status);
+        }
+        return writer.append(file, status);
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(this.isBlockUpload(file, status)) {
+            return new AzureBlockUploadService(session, context).upload(file, local, throttle, listener, status, callback);
+        }
+        return new DefaultUploadFeature<>(writer).upload(file, local, throttle, listener, status, callback);
+    }
+
+    /**
+     * @return False for files below threshold, when configured to upload append blobs, for existing append blobs
+     * or when writing with other feature
+     */
+    private boolean isBlockUpload(final Path file, final TransferStatus status) throws BackgroundException {
+        if(BlobType.BLOCK_BLOB != type) {
+            return false;
+        }
+        if(!(writer instanceof AzureWriteFeature)) {
+            // Blocks must be written with write feature such as for encryption
+            return false;
+        }
+        if(status.getOffset() + status.getLength() < threshold) {
+            return false;
+        }
+        if(status.isExists()) {
+            final PathAttributes attr = new AzureAttributesFinderFeature(session, context).find(file);
+            if(BlobType.APPEND_BLOB == BlobType.valueOf(attr.getCustom().get(AzureAttributesFinderFeature.KEY_BLOB_TYPE))) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Write to existing append blob %s", file));
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        this.writer = writer;
+        return this;
+    }
+}
@@ -0,0 +1,87 @@
+package ch.cyberduck.core.azure;
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.BytecountStreamListener;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.UUIDRandomStringService;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import com.microsoft.azure.storage.OperationContext;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class AzureBlockUploadServiceTest extends AbstractAzureTest {
+
+    @Test
+    public void testUploadMultipleBlocks() throws Exception {
+        final OperationContext context
+            = new OperationContext();
+        final AzureBlockUploadService service = new AzureBlockUploadService(session, context, 1024L, 2);
+        final Path container = new Path("cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final String name = new AlphanumericRandomStringService().random();
+        final Path test = new Path(container, name, EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), name);
+        final byte[] content = RandomUtils.nextBytes(2500);
+        IOUtils.write(content, local.getOutputStream(false));
+        final TransferStatus status = new TransferStatus();
+        status.setLength(content.length);
+        status.setMime("text/plain");
+        final BytecountStreamListener count = new BytecountStreamListener();
+        service.upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), count, status, new DisabledConnectionCallback());
+        assertEquals(content.length, count.getSent());
+        assertTrue(status.isComplete());
+        assertEquals(content.length, new AzureAttributesFinderFeature(session, context).find(test).getSize());
+        assertEquals("text/plain", new AzureMetadataFeature(session, context).getMetadata(test).get("Content-Type"));
+        final byte[] buffer = new byte[content.length];
+        try(InputStream in = new AzureReadFeature(session, context).read(test, new TransferStatus(), new DisabledConnectionCallback())) {
+            IOUtils.readFully(in, buffer);
+        }
+        assertArrayEquals(content, buffer);
+        // Read segment
+        final byte[] segment = new byte[1000];
+        try(InputStream in = new AzureReadFeature(session, context).read(test, new TransferStatus().segment(true).append(true)
+            .withOffset(1000L).withLength(1000L), new DisabledConnectionCallback())) {
+            IOUtils.readFully(in, segment);
+            assertEquals(-1, in.read());
+        }
+        final byte[] expected = new byte[1000];
+        System.arraycopy(content, 1000, expected, 0, 1000);
+        assertArrayEquals(expected, segment);
+        new AzureDeleteFeature(session, context).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+    }
+
+    @Test
+    public void testBlockSize() {
+        assertEquals(8388608L, AzureBlockUploadService.toBlockSize(1024L, 8388608L));
+        // Exceeding maximum number of blocks
+        assertEquals(20000000L, AzureBlockUploadService.toBlockSize(1000000000000L, 8388608L));
+        assertEquals(AzureBlockUploadService.MAXIMUM_BLOCK_SIZE, AzureBlockUploadService.toBlockSize(Long.MAX_VALUE / 2, 8388608L));
+    }
+
+    @Test
+    public void testBlockId() {
+        final String nonce = new UUIDRandomStringService().random();
+        assertEquals(AzureBlockUploadService.toBlockId(1L, nonce, 0).length(), AzureBlockUploadService.toBlockId(Long.MAX_VALUE, nonce, 49999).length());
+        assertNotEquals(AzureBlockUploadService.toBlockId(1L, nonce, 0), AzureBlockUploadService.toBlockId(2L, nonce, 0));
+        assertNotEquals(AzureBlockUploadService.toBlockId(1L, nonce, 0), AzureBlockUploadService.toBlockId(1L, new UUIDRandomStringService().random(), 0));
+        assertEquals(nonce, AzureBlockUploadService.toNonce(AzureBlockUploadService.toBlockId(1L, nonce, 0), 1L));
+        assertNull(AzureBlockUploadService.toNonce(AzureBlockUploadService.toBlockId(1L, nonce, 0), 2L));
+    }
+}
@@ -22,6 +22,7 @@ import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.concurrency.Interruptibles;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.io.Checksum;
@@ -29,8 +30,8 @@ import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultRetryCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.logging.log4j.LogManager;
@@ -77,7 +78,7 @@ public class B2LargeCopyFeature implements Copy {
 
     @Override
     public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback, final StreamListener listener) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("largeupload", concurrency);
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
         try {
             final Map<String, String> fileinfo = new HashMap<>(status.getMetadata());
             if(null != status.getTimestamp()) {
@@ -142,10 +143,10 @@ public class B2LargeCopyFeature implements Copy {
         }
     }
 
-    private Future<B2UploadPartResponse> submit(final ThreadPool pool, final Path file, final String largeFileId,
+    private Future<B2UploadPartResponse> submit(final PartThreadPool pool, final Path file, final String largeFileId,
                                                 final TransferStatus overall,
                                                 final int partNumber, final Long offset, final Long length,
-                                                final ConnectionCallback callback) {
+                                                final ConnectionCallback callback) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -165,6 +166,6 @@ public class B2LargeCopyFeature implements Copy {
                     throw new DefaultIOExceptionMappingService().map(e);
                 }
             }
-        }, overall));
+        }, overall), length);
     }
 }
@@ -23,6 +23,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.concurrency.Interruptibles;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
@@ -31,8 +32,8 @@ import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.SegmentRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -96,7 +97,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                                  final StreamListener listener,
                                  final TransferStatus status,
                                  final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("largeupload", concurrency);
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
         try {
             // Get the results of the uploads in the order they were submitted
             // this is important for building the manifest, and is not a problem in terms of performance
@@ -197,11 +198,11 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
         }
     }
 
-    private Future<B2UploadPartResponse> submit(final ThreadPool pool, final Path file, final Local local,
+    private Future<B2UploadPartResponse> submit(final PartThreadPool pool, final Path file, final Local local,
                                                 final BandwidthThrottle throttle, final StreamListener listener,
                                                 final TransferStatus overall,
                                                 final String fileId, final int partNumber,
-                                                final Long offset, final Long length, final ConnectionCallback callback) {
+                                                final Long offset, final Long length, final ConnectionCallback callback) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -222,7 +223,7 @@ public class B2LargeUploadService extends HttpUploadFeature<BaseB2Response, Mess
                 status.setPart(partNumber);
                 return (B2UploadPartResponse) B2LargeUploadService.super.upload(file, local, throttle, counter, status, overall, status, callback);
             }
-        }, overall, counter));
+        }, overall, counter), length);
     }
 
     @Override
@@ -0,0 +1,117 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DefaultPathPredicate;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.NullFilter;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.ui.comparator.FilenameComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Populating, searching, filtering and sorting directory listings
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttributedListBenchmark {
+
+    @Param({"100", "10000", "100000", "500000"})
+    public int size;
+
+    private List<Path> files;
+    private AttributedList<Path> list;
+
+    private final Filter<Path> hidden = new NullFilter<Path>() {
+        @Override
+        public boolean accept(final Path file) {
+            return !file.getName().startsWith(".");
+        }
+
+        @Override
+        public Pattern toPattern() {
+            return Pattern.compile("\\..*");
+        }
+    };
+
+    @Setup
+    public void setup() {
+        final Path directory = new Path("/container/directory", EnumSet.of(Path.Type.directory));
+        files = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            files.add(new Path(directory, String.format("%sfile-%d.txt", i % 10 == 0 ? "." : "", i), EnumSet.of(Path.Type.file)));
+        }
+        // Listings are usually not returned in natural order
+        Collections.shuffle(files);
+        list = new AttributedList<>(files);
+    }
+
+    @Benchmark
+    public AttributedList<Path> add() {
+        final AttributedList<Path> children = new AttributedList<>();
+        for(Path file : files) {
+            children.add(file);
+        }
+        return children;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return new AttributedList<>(files).contains(files.get(files.size() / 2));
+    }
+
+    @Benchmark
+    public Path find() {
+        return list.find(new DefaultPathPredicate(files.get(files.size() / 2)));
+    }
+
+    @Benchmark
+    public AttributedList<Path> filter() {
+        return list.filter(hidden);
+    }
+
+    @Benchmark
+    public AttributedList<Path> sort() {
+        return list.filter(new FilenameComparator(true));
+    }
+
+    @Benchmark
+    public AttributedList<Path> filterSort() {
+        return list.filter(new FilenameComparator(true), hidden);
+    }
+}
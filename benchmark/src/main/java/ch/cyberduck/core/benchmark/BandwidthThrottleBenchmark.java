@@ -0,0 +1,65 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.io.BandwidthThrottle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requesting bandwidth from a throttle shared by concurrent transfers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BandwidthThrottleBenchmark {
+
+    private BandwidthThrottle unlimited;
+    private BandwidthThrottle limited;
+
+    @Setup
+    public void setup() {
+        unlimited = new BandwidthThrottle(BandwidthThrottle.UNLIMITED);
+        limited = new BandwidthThrottle(Float.MAX_VALUE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int requestUnlimited() {
+        return unlimited.request(32768);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int requestLimited() {
+        // Single byte requests never exhaust the bytes available per tick
+        return limited.request(1);
+    }
+}
@@ -0,0 +1,122 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.cryptomator.CryptoInputStream;
+import ch.cyberduck.core.cryptomator.CryptoOutputStream;
+import ch.cyberduck.core.cryptomator.random.RandomNonceGenerator;
+import ch.cyberduck.core.io.BufferPool;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.cryptomator.cryptolib.api.Cryptor;
+import org.cryptomator.cryptolib.api.CryptorProvider;
+import org.cryptomator.cryptolib.api.FileHeader;
+import org.cryptomator.cryptolib.api.Masterkey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption and decryption of file content in vaults with sequential and parallel processing of chunks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoStreamBenchmark {
+
+    /**
+     * Nonce size for SIV_GCM cipher combo
+     */
+    private static final int NONCE_SIZE = 12;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    @Param({"8388608"})
+    public int length;
+
+    private Cryptor cryptor;
+    private FileHeader header;
+    private ThreadPool pool;
+    private byte[] cleartext;
+    private byte[] ciphertext;
+
+    @Setup
+    public void setup() throws IOException {
+        final SecureRandom random = new SecureRandom();
+        cryptor = CryptorProvider.forScheme(CryptorProvider.Scheme.SIV_GCM).provide(Masterkey.generate(random), random);
+        header = cryptor.fileHeaderCryptor().create();
+        pool = parallelism > 1 ? ThreadPoolFactory.get("cryptomator", parallelism,
+                ThreadPool.Priority.norm, new LinkedBlockingQueue<>()) : null;
+        cleartext = RandomUtils.nextBytes(length);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(length + length / 10);
+        try (OutputStream stream = this.encrypt(out)) {
+            stream.write(cleartext);
+        }
+        ciphertext = out.toByteArray();
+    }
+
+    @TearDown
+    public void shutdown() {
+        if(pool != null) {
+            pool.shutdown(false);
+        }
+    }
+
+    @Benchmark
+    public void encrypt() throws IOException {
+        try (OutputStream stream = this.encrypt(NullOutputStream.NULL_OUTPUT_STREAM)) {
+            stream.write(cleartext);
+        }
+    }
+
+    @Benchmark
+    public long decrypt() throws IOException {
+        try (InputStream stream = new CryptoInputStream(new ByteArrayInputStream(ciphertext), cryptor.fileContentCryptor(), header, 0L,
+                pool, parallelism, new BufferPool(2L * parallelism * cryptor.fileContentCryptor().ciphertextChunkSize()))) {
+            return IOUtils.copyLarge(stream, NullOutputStream.NULL_OUTPUT_STREAM);
+        }
+    }
+
+    private OutputStream encrypt(final OutputStream proxy) {
+        return new CryptoOutputStream(proxy, cryptor.fileContentCryptor(), header, new RandomNonceGenerator(NONCE_SIZE), 0L,
+                pool, parallelism, new BufferPool(2L * parallelism * cryptor.fileContentCryptor().cleartextChunkSize()));
+    }
+}
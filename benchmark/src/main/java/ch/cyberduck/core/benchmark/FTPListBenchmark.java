@@ -0,0 +1,88 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ftp.FTPParserSelector;
+import ch.cyberduck.core.ftp.list.FTPInvalidListException;
+import ch.cyberduck.core.ftp.list.FTPListResponseReader;
+import ch.cyberduck.core.ftp.list.FTPMlsdListResponseReader;
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of directory listings returned by <code>LIST</code> and <code>MLSD</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FTPListBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private final Path directory = new Path("/directory", EnumSet.of(Path.Type.directory));
+
+    private FTPFileEntryParser parser;
+    private List<String> list;
+    private List<String> mlsd;
+
+    @Setup
+    public void setup() {
+        parser = new FTPParserSelector().getParser("UNIX");
+        list = new ArrayList<>(size);
+        mlsd = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            list.add(String.format("-rw-r--r--    1 ftp      ftp      %10d Mar 15  2004 file-%d.txt", i * 1024L, i));
+            mlsd.add(String.format("type=file;size=%d;modify=20090210192929;perm=adfrw;unix.mode=0644; file-%d.txt", i * 1024L, i));
+        }
+    }
+
+    @Benchmark
+    public FTPFile parseEntry() {
+        return parser.parseFTPEntry(list.get(size / 2));
+    }
+
+    @Benchmark
+    public AttributedList<Path> readList() throws FTPInvalidListException {
+        return new FTPListResponseReader(parser).read(directory, list);
+    }
+
+    @Benchmark
+    public AttributedList<Path> readMlsd() throws FTPInvalidListException {
+        return new FTPMlsdListResponseReader().read(directory, mlsd);
+    }
+}
@@ -0,0 +1,100 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DefaultPathPredicate;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of cached directory listings and files by reference
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathCacheBenchmark {
+
+    @Param({"100", "1000"})
+    public int directories;
+
+    @Param({"100"})
+    public int children;
+
+    private PathCache cache;
+    private List<Path> folders;
+    private List<Path> files;
+
+    @Setup
+    public void setup() {
+        cache = new PathCache(directories);
+        folders = new ArrayList<>(directories);
+        files = new ArrayList<>(directories * children);
+        final Path root = new Path("/", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        for(int d = 0; d < directories; d++) {
+            final Path directory = new Path(root, String.format("directory-%d", d), EnumSet.of(Path.Type.directory));
+            final AttributedList<Path> list = new AttributedList<>();
+            for(int c = 0; c < children; c++) {
+                final Path file = new Path(directory, String.format("file-%d", c), EnumSet.of(Path.Type.file));
+                list.add(file);
+                files.add(file);
+            }
+            cache.put(directory, list);
+            folders.add(directory);
+        }
+    }
+
+    @Benchmark
+    public AttributedList<Path> get() {
+        return cache.get(folders.get(ThreadLocalRandom.current().nextInt(folders.size())));
+    }
+
+    @Benchmark
+    public boolean isCached() {
+        return cache.isCached(folders.get(ThreadLocalRandom.current().nextInt(folders.size())));
+    }
+
+    @Benchmark
+    public AttributedList<Path> put() {
+        final Path directory = folders.get(ThreadLocalRandom.current().nextInt(folders.size()));
+        return cache.put(directory, cache.get(directory));
+    }
+
+    @Benchmark
+    public Path lookup() {
+        return cache.lookup(new DefaultPathPredicate(files.get(ThreadLocalRandom.current().nextInt(files.size()))));
+    }
+}
@@ -0,0 +1,83 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+import ch.cyberduck.core.DefaultPathPredicate;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.unicode.NFCNormalizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of cache references and path normalization
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathReferenceBenchmark {
+
+    private Path file;
+    private Path versioned;
+
+    private final NFCNormalizer normalizer = new NFCNormalizer();
+
+    @Setup
+    public void setup() {
+        file = new Path("/container/directory/file.txt", EnumSet.of(Path.Type.file));
+        versioned = new Path("/container/directory/file.txt", EnumSet.of(Path.Type.file));
+        versioned.attributes().setVersionId("3HL4kqtJlcpXroDTDmJ+rmSpXd3dIbrHY+MTRCxf3vjVBH40Nr8X8gdRQBpUMLUo");
+        versioned.attributes().setFileId("1");
+    }
+
+    @Benchmark
+    public DefaultPathPredicate predicate() {
+        return new DefaultPathPredicate(file);
+    }
+
+    @Benchmark
+    public DefaultPathPredicate predicateVersioned() {
+        return new DefaultPathPredicate(versioned);
+    }
+
+    @Benchmark
+    public int hashCodeMemoized() {
+        return file.hashCode();
+    }
+
+    @Benchmark
+    public CharSequence normalizeAscii() {
+        return normalizer.normalize("/container/directory/file.txt");
+    }
+
+    @Benchmark
+    public CharSequence normalizeDecomposed() {
+        return normalizer.normalize("/container/directory/fu\u0308r.txt");
+    }
+}
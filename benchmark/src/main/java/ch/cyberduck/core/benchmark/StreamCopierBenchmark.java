@@ -0,0 +1,88 @@
+package ch.cyberduck.core.benchmark;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copy of in-memory content with varying chunk size with and without bandwidth throttle
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamCopierBenchmark {
+
+    @Param({"8192", "32768", "131072"})
+    public int chunksize;
+
+    @Param({"16777216"})
+    public int length;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        content = RandomUtils.nextBytes(length);
+    }
+
+    @Benchmark
+    public void transfer() throws BackgroundException {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).withChunksize(chunksize).withLimit((long) length)
+                .transfer(new ByteArrayInputStream(content), NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+
+    @Benchmark
+    public void transferThrottled() throws BackgroundException {
+        final TransferStatus status = new TransferStatus();
+        // Rate high enough to only measure the overhead of requesting bandwidth
+        new StreamCopier(status, status).withChunksize(chunksize).withLimit((long) length)
+                .transfer(new ThrottledInputStream(new ByteArrayInputStream(content), new BandwidthThrottle(Float.MAX_VALUE)),
+                        NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+
+    @Benchmark
+    public void transferUnlimited() throws BackgroundException {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).withChunksize(chunksize).withLimit((long) length)
+                .transfer(new ThrottledInputStream(new ByteArrayInputStream(content), new BandwidthThrottle(BandwidthThrottle.UNLIMITED)),
+                        NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+}
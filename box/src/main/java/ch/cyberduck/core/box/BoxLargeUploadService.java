@@ -25,6 +25,7 @@ import ch.cyberduck.core.box.io.swagger.client.model.UploadPart;
 import ch.cyberduck.core.box.io.swagger.client.model.UploadSession;
 import ch.cyberduck.core.concurrency.Interruptibles;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
@@ -33,8 +34,8 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.SegmentRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -77,7 +78,7 @@ public class BoxLargeUploadService extends HttpUploadFeature<File, MessageDigest
     @Override
     public File upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                        final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
         try {
             final List<Future<File>> parts = new ArrayList<>();
             long offset = 0;
@@ -106,9 +107,9 @@ public class BoxLargeUploadService extends HttpUploadFeature<File, MessageDigest
         }
     }
 
-    private Future<File> submit(final ThreadPool pool, final Path file, final Local local,
+    private Future<File> submit(final PartThreadPool pool, final Path file, final Local local,
                                 final BandwidthThrottle throttle, final StreamListener listener,
-                                final TransferStatus overall, final String uploadSessionId, final int partNumber, final long offset, final long length, final ConnectionCallback callback) {
+                                final TransferStatus overall, final String uploadSessionId, final int partNumber, final long offset, final long length, final ConnectionCallback callback) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit %s to queue with offset %d and length %d", file, offset, length));
         }
@@ -135,7 +136,7 @@ public class BoxLargeUploadService extends HttpUploadFeature<File, MessageDigest
                 }
                 return response;
             }
-        }, overall, counter));
+        }, overall, counter), length);
     }
 
     @Override
@@ -28,6 +28,7 @@ import ch.cyberduck.core.brick.io.swagger.client.model.FileUploadPartEntity;
 import ch.cyberduck.core.brick.io.swagger.client.model.FilesPathBody;
 import ch.cyberduck.core.concurrency.Interruptibles;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
@@ -35,8 +36,8 @@ import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.SegmentRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -81,7 +82,7 @@ public class BrickUploadFeature extends HttpUploadFeature<FileEntity, MessageDig
     @Override
     public FileEntity upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                              final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
         try {
             // Full size of file
             final long size = status.getLength() + status.getOffset();
@@ -150,10 +151,10 @@ public class BrickUploadFeature extends HttpUploadFeature<FileEntity, MessageDig
         }
     }
 
-    private Future<TransferStatus> submit(final ThreadPool pool, final Path file, final Local local,
+    private Future<TransferStatus> submit(final PartThreadPool pool, final Path file, final Local local,
                                           final BandwidthThrottle throttle, final StreamListener listener,
                                           final TransferStatus overall, final String url, final Integer partNumber,
-                                          final long offset, final long length, final ConnectionCallback callback) {
+                                          final long offset, final long length, final ConnectionCallback callback) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -177,6 +178,6 @@ public class BrickUploadFeature extends HttpUploadFeature<FileEntity, MessageDig
                 }
                 return status;
             }
-        }, overall, counter));
+        }, overall, counter), length);
     }
 }
@@ -31,6 +31,7 @@ import ch.cyberduck.core.editor.EditorFactory;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.filter.UploadRegexFilter;
 import ch.cyberduck.core.ftp.FTPProtocol;
 import ch.cyberduck.core.ftp.FTPTLSProtocol;
 import ch.cyberduck.core.googledrive.DriveProtocol;
@@ -41,9 +42,13 @@ import ch.cyberduck.core.irods.IRODSProtocol;
 import ch.cyberduck.core.local.Application;
 import ch.cyberduck.core.local.ApplicationFinder;
 import ch.cyberduck.core.local.ApplicationFinderFactory;
+import ch.cyberduck.core.local.CoalescingFileWatcherListener;
+import ch.cyberduck.core.local.FileWatcher;
+import ch.cyberduck.core.local.FileWatcherListener;
 import ch.cyberduck.core.local.TemporaryFileServiceFactory;
 import ch.cyberduck.core.logging.LoggerPrintStream;
 import ch.cyberduck.core.manta.MantaProtocol;
+import ch.cyberduck.core.metrics.PerformanceMetrics;
 import ch.cyberduck.core.nextcloud.NextcloudProtocol;
 import ch.cyberduck.core.nio.LocalProtocol;
 import ch.cyberduck.core.onedrive.OneDriveProtocol;
@@ -67,12 +72,14 @@ import ch.cyberduck.core.threading.DisconnectBackgroundAction;
 import ch.cyberduck.core.threading.SessionBackgroundAction;
 import ch.cyberduck.core.transfer.CopyTransfer;
 import ch.cyberduck.core.transfer.DisabledTransferPrompt;
+import ch.cyberduck.core.transfer.SyncTransfer;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferAction;
 import ch.cyberduck.core.transfer.TransferItem;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPrompt;
 import ch.cyberduck.core.transfer.TransferSpeedometer;
+import ch.cyberduck.core.transfer.UploadTransfer;
 import ch.cyberduck.core.vault.LoadingVaultLookupListener;
 import ch.cyberduck.core.vault.VaultRegistryFactory;
 import ch.cyberduck.core.worker.AttributesWorker;
@@ -94,12 +101,17 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.util.concurrent.Uninterruptibles;
 
@@ -265,6 +277,14 @@ public class Terminal {
             return Exit.failure;
         }
         this.configure(input);
+        final TerminalMetricsPrinter metrics;
+        if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+            metrics = new TerminalMetricsPrinter(PerformanceMetrics.get()).start(
+                    NumberUtils.toLong(input.getOptionValue(TerminalOptionsBuilder.Params.metrics.name()), preferences.getLong("metrics.print.interval")));
+        }
+        else {
+            metrics = null;
+        }
         SessionPool source = SessionPool.DISCONNECTED;
         SessionPool destination = SessionPool.DISCONNECTED;
         try {
@@ -360,9 +380,12 @@ public class Terminal {
                 case download:
                 case upload:
                 case synchronize:
-                    return this.transfer(login, new TerminalTransferFactory().create(input, host, remote,
-                                    new ArrayList<>(new SingleTransferItemFinder().find(input, action, remote))),
-                            source, SessionPool.DISCONNECTED);
+                    final Transfer transfer = new TerminalTransferFactory().create(input, host, remote,
+                            new ArrayList<>(new SingleTransferItemFinder().find(input, action, remote)));
+                    if(input.hasOption(TerminalOptionsBuilder.Params.watch.name())) {
+                        return this.watch(login, (SyncTransfer) transfer, source);
+                    }
+                    return this.transfer(login, transfer, source, SessionPool.DISCONNECTED);
                 case copy:
                     final Host target = new CommandLineUriParser(input).parse(input.getOptionValues(action.name())[1]);
                     destination = SessionPoolFactory.create(connect, transcript, target,
@@ -384,6 +407,9 @@ public class Terminal {
         finally {
             this.disconnect(source);
             this.disconnect(destination);
+            if(metrics != null) {
+                metrics.shutdown();
+            }
         }
     }
 
@@ -416,12 +442,19 @@ public class Terminal {
                     String.valueOf(NumberUtils.toInt(input.getOptionValue(TerminalOptionsBuilder.Params.parallel.name()), 2)));
         }
         preferences.setDefault("connection.login.keychain", String.valueOf(!input.hasOption(TerminalOptionsBuilder.Params.nokeychain.name())));
+        if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+            preferences.setDefault("metrics.enable", String.valueOf(true));
+        }
     }
 
     protected Exit transfer(final LoginCallback login, final Transfer transfer, final SessionPool source, final SessionPool destination) {
+        return this.transfer(login, transfer, source, destination, cache, this.prompt(transfer));
+    }
+
+    protected Exit transfer(final LoginCallback login, final Transfer transfer, final SessionPool source, final SessionPool destination,
+                            final Cache<Path> cache, final TransferPrompt prompt) {
         // Transfer
         final TransferSpeedometer meter = new TransferSpeedometer(transfer);
-        final TransferPrompt prompt;
         final Host host = transfer.getSource();
         if(input.hasOption(TerminalOptionsBuilder.Params.parallel.name())) {
             host.setTransfer(Host.TransferType.concurrent);
@@ -429,6 +462,23 @@ public class Terminal {
         else {
             host.setTransfer(Host.TransferType.newconnection);
         }
+        final TerminalTransferBackgroundAction action = new TerminalTransferBackgroundAction(controller,
+                source, destination,
+                transfer.withCache(cache), new TransferOptions().reload(true), prompt, login, new TerminalTransferErrorCallback(reader), meter,
+                input.hasOption(TerminalOptionsBuilder.Params.quiet.name())
+                        ? new DisabledStreamListener() : new TerminalStreamListener(meter)
+        );
+        try {
+            this.execute(action);
+        }
+        catch(TerminalBackgroundException e) {
+            return Exit.failure;
+        }
+        return Exit.success;
+    }
+
+    private TransferPrompt prompt(final Transfer transfer) {
+        final TransferPrompt prompt;
         if(input.hasOption(TerminalOptionsBuilder.Params.existing.name())) {
             prompt = new DisabledTransferPrompt() {
                 @Override
@@ -448,19 +498,191 @@ public class Terminal {
         else {
             prompt = new TerminalTransferPrompt(transfer.getType());
         }
-        final TerminalTransferBackgroundAction action = new TerminalTransferBackgroundAction(controller,
-                source, destination,
-                transfer.withCache(cache), new TransferOptions().reload(true), prompt, login, new TerminalTransferErrorCallback(reader), meter,
-                input.hasOption(TerminalOptionsBuilder.Params.quiet.name())
-                        ? new DisabledStreamListener() : new TerminalStreamListener(meter)
-        );
+        return prompt;
+    }
+
+    /**
+     * Synchronize folder and continue to upload or delete files changed in local folder until interrupted. Listings
+     * of remote folders are kept in the cache and connections are reused. All files are compared again when events
+     * from the file system were lost.
+     */
+    protected Exit watch(final LoginCallback login, final SyncTransfer transfer, final SessionPool source) {
+        final Console console = new Console();
+        final Cache<Path> retained = new RetainingCache<>(cache);
+        final TransferItem root = transfer.getRoot();
+        if(Exit.failure == this.transfer(login, transfer, source, SessionPool.DISCONNECTED, retained, this.prompt(transfer))) {
+            return Exit.failure;
+        }
+        final TransferAction action = transfer.getAction();
+        if(TransferAction.cancel.equals(action)) {
+            return Exit.success;
+        }
+        if(TransferAction.download.equals(action)) {
+            console.printf("%nWatching for changes requires action %s or %s%n", TransferAction.upload.name(), TransferAction.mirror.name());
+            return Exit.failure;
+        }
+        final CoalescingFileWatcherListener listener = new CoalescingFileWatcherListener();
+        final FileWatcher watcher = new FileWatcher();
         try {
-            this.execute(action);
+            this.register(watcher, root.local, listener);
+            final long quiet = preferences.getLong("queue.sync.watch.quiet.ms");
+            final long delay = preferences.getLong("queue.sync.watch.delay.max.ms");
+            final long interval = TimeUnit.SECONDS.toMillis(preferences.getLong("queue.sync.watch.compare.interval"));
+            // Compare all files periodically after events were lost
+            boolean fallback = false;
+            while(true) {
+                if(!input.hasOption(TerminalOptionsBuilder.Params.quiet.name())) {
+                    console.printf("%nWatching %s for changes…", root.local.getAbsolute());
+                }
+                final CoalescingFileWatcherListener.Changes changes = listener.await(quiet, delay, fallback ? interval : Long.MAX_VALUE);
+                if(changes.isOverflow() || changes.isEmpty()) {
+                    // Compare all files with fresh listings
+                    cache.clear();
+                    this.transfer(login, new SyncTransfer(transfer.getSource(), root, action), source, SessionPool.DISCONNECTED, retained,
+                            new DisabledTransferPrompt() {
+                                @Override
+                                public TransferAction prompt(final TransferItem file) {
+                                    return action;
+                                }
+                            });
+                    // Register folders created while events were lost
+                    this.register(watcher, root.local, listener);
+                    fallback = changes.isOverflow();
+                }
+                else {
+                    this.synchronize(login, transfer.getSource(), root, changes.getFiles(), TransferAction.mirror.equals(action),
+                            watcher, listener, source, retained);
+                }
+            }
         }
-        catch(TerminalBackgroundException e) {
+        catch(IOException e) {
+            console.printf("%nFailure watching %s. %s%n", root.local.getAbsolute(), e.getMessage());
             return Exit.failure;
         }
-        return Exit.success;
+        catch(InterruptedException e) {
+            return Exit.success;
+        }
+        finally {
+            watcher.close();
+        }
+    }
+
+    /**
+     * Upload or delete files changed in local folder
+     *
+     * @param files  Files with file system events
+     * @param delete Delete files on server for files deleted locally
+     */
+    private void synchronize(final LoginCallback login, final Host host, final TransferItem root, final Set<Local> files, final boolean delete,
+                             final FileWatcher watcher, final FileWatcherListener listener,
+                             final SessionPool source, final Cache<Path> retained) throws IOException {
+        final Filter<Local> filter = new UploadRegexFilter();
+        final List<TransferItem> uploads = new ArrayList<>();
+        final List<Path> deletes = new ArrayList<>();
+        for(Local file : files) {
+            if(!file.isChild(root.local)) {
+                continue;
+            }
+            if(!filter.accept(file)) {
+                continue;
+            }
+            final Path remote = this.toRemote(root, file);
+            if(file.exists()) {
+                if(file.isDirectory()) {
+                    this.register(watcher, file, listener);
+                    final AttributedList<Path> siblings = cache.isValid(remote.getParent()) ? cache.get(remote.getParent()) : null;
+                    if(siblings != null && siblings.find(new SimplePathPredicate(remote)) != null) {
+                        // Modified contents of existing folder
+                        continue;
+                    }
+                }
+                uploads.add(new TransferItem(remote, file));
+            }
+            else if(delete) {
+                if(!file.getParent().exists()) {
+                    // Deleted with parent folder
+                    continue;
+                }
+                // Type of deleted file is only known from server
+                final Path found = this.lookup(source, remote);
+                if(found != null) {
+                    deletes.add(found);
+                }
+            }
+        }
+        if(!uploads.isEmpty()) {
+            this.transfer(login, new UploadTransfer(host, uploads), source, SessionPool.DISCONNECTED, retained,
+                    new DisabledTransferPrompt() {
+                        @Override
+                        public TransferAction prompt(final TransferItem file) {
+                            return TransferAction.comparison;
+                        }
+                    });
+            for(TransferItem item : uploads) {
+                cache.invalidate(item.remote.getParent());
+            }
+        }
+        if(!deletes.isEmpty()) {
+            try {
+                this.execute(new TerminalBackgroundAction<>(controller, source, new DeleteWorker(new TerminalLoginCallback(reader), deletes, progress)));
+            }
+            catch(TerminalBackgroundException e) {
+                // Continue watching
+            }
+            for(Path file : deletes) {
+                cache.remove(file);
+                cache.invalidate(file.getParent());
+            }
+        }
+    }
+
+    /**
+     * @param remote File with possibly wrong type
+     * @return File in listing of parent folder with same name or null if not found
+     */
+    private Path lookup(final SessionPool source, final Path remote) {
+        final AttributedList<Path> siblings;
+        try {
+            siblings = this.execute(new TerminalBackgroundAction<>(controller, source,
+                    new SessionListWorker(cache, remote.getParent(), new DisabledListProgressListener())));
+        }
+        catch(TerminalBackgroundException e) {
+            return null;
+        }
+        return siblings.find(f -> StringUtils.equals(f.getName(), remote.getName()));
+    }
+
+    /**
+     * Register folder and all its subfolders for file system events
+     */
+    private void register(final FileWatcher watcher, final Local folder, final FileWatcherListener listener) throws IOException {
+        watcher.register(folder, new NullFilter<>(), listener);
+        try {
+            for(Local f : folder.list()) {
+                if(f.isDirectory() && !f.isSymbolicLink()) {
+                    this.register(watcher, f, listener);
+                }
+            }
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure listing %s. %s", folder, e.getMessage()));
+        }
+    }
+
+    /**
+     * @param file Child of local folder
+     * @return Path on server for file in local folder. Type is file for deleted folders.
+     */
+    private Path toRemote(final TransferItem root, final Local file) {
+        final Deque<String> names = new ArrayDeque<>();
+        for(Local f = file; !f.equals(root.local); f = f.getParent()) {
+            names.push(f.getName());
+        }
+        Path remote = root.remote;
+        while(names.size() > 1) {
+            remote = new Path(remote, names.pop(), EnumSet.of(Path.Type.directory));
+        }
+        return new Path(remote, names.pop(), file.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
     }
 
     protected Exit list(final SessionPool session, final Path remote, final boolean verbose) {
@@ -0,0 +1,61 @@
+package ch.cyberduck.cli;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.metrics.PerformanceMetrics;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Print metrics as JSON to standard error periodically and when finished
+ */
+public final class TerminalMetricsPrinter {
+
+    private final PerformanceMetrics metrics;
+    private final PrintStream out;
+    private final ScheduledThreadPool timer = new ScheduledThreadPool();
+
+    public TerminalMetricsPrinter(final PerformanceMetrics metrics) {
+        this(metrics, System.err);
+    }
+
+    public TerminalMetricsPrinter(final PerformanceMetrics metrics, final PrintStream out) {
+        this.metrics = metrics;
+        this.out = out;
+    }
+
+    /**
+     * @param interval Seconds between printing metrics
+     */
+    public TerminalMetricsPrinter start(final long interval) {
+        timer.repeat(this::print, interval, interval, TimeUnit.SECONDS);
+        return this;
+    }
+
+    public void print() {
+        out.println(metrics.getSnapshot());
+    }
+
+    /**
+     * Stop printing periodically and print final metrics
+     */
+    public void shutdown() {
+        timer.shutdown();
+        this.print();
+    }
+}
@@ -147,6 +147,9 @@ public final class TerminalOptionsBuilder {
         options.addOption(Option.builder()
             .longOpt(Params.nokeychain.name())
             .desc("Do not save passwords in keychain").build());
+        options.addOption(Option.builder()
+            .longOpt(Params.watch.name())
+            .desc("Continue to synchronize changes in local folder until interrupted").build());
         options.addOption(Option.builder()
             .longOpt(Params.vault.name())
             .desc("Unlock vault")
@@ -178,6 +181,10 @@ public final class TerminalOptionsBuilder {
         options.addOption(Option.builder()
             .longOpt(Params.debug.name())
             .desc("Print debug output").build());
+        options.addOption(Option.builder()
+            .longOpt(Params.metrics.name())
+            .desc("Print performance metrics as JSON to standard error")
+            .hasArg().optionalArg(true).argName("interval in seconds").build());
         options.addOption(Option.builder("q")
             .longOpt(Params.quiet.name())
             .desc("Suppress progress messages").build());
@@ -215,6 +222,8 @@ public final class TerminalOptionsBuilder {
         application,
         chmod,
         profile,
-        debug
+        debug,
+        metrics,
+        watch
     }
 }
@@ -99,6 +99,19 @@ public class TerminalOptionsInputValidator {
                     break;
             }
         }
+        if(input.hasOption(TerminalOptionsBuilder.Params.watch.name())) {
+            if(action != TerminalAction.synchronize) {
+                console.printf("Option %s is only supported with %s%n",
+                    TerminalOptionsBuilder.Params.watch.name(), TerminalAction.synchronize.name());
+                return false;
+            }
+            if(input.hasOption(TerminalOptionsBuilder.Params.existing.name())
+                && TransferAction.download.equals(TransferAction.forName(input.getOptionValue(TerminalOptionsBuilder.Params.existing.name())))) {
+                console.printf("Option %s requires action %s or %s%n",
+                    TerminalOptionsBuilder.Params.watch.name(), TransferAction.upload.name(), TransferAction.mirror.name());
+                return false;
+            }
+        }
         // Validate arguments
         switch(action) {
             case list:
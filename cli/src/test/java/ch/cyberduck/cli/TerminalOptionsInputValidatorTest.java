@@ -24,6 +24,8 @@ import ch.cyberduck.core.ftp.FTPProtocol;
 import ch.cyberduck.core.openstack.SwiftProtocol;
 import ch.cyberduck.core.serializer.impl.dd.ProfilePlistReader;
 
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -87,4 +89,23 @@ public class TerminalOptionsInputValidatorTest {
         assertFalse(new TerminalOptionsInputValidator(new ProtocolFactory(list)).validate("rackspace://"));
         assertTrue(new TerminalOptionsInputValidator(new ProtocolFactory(list)).validate("rackspace:///"));
     }
+
+    @Test
+    public void testWatch() throws Exception {
+        final ProtocolFactory factory = new ProtocolFactory(Collections.singleton(new FTPProtocol() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+        }));
+        final CommandLine sync = new DefaultParser().parse(TerminalOptionsBuilder.options(),
+                new String[]{"--synchronize", "ftp://cdn.duck.sh/d/", "/tmp/d", "--watch"});
+        assertTrue(new TerminalOptionsInputValidator(factory).validate(sync));
+        final CommandLine download = new DefaultParser().parse(TerminalOptionsBuilder.options(),
+                new String[]{"--synchronize", "ftp://cdn.duck.sh/d/", "/tmp/d", "--watch", "--existing", "download"});
+        assertFalse(new TerminalOptionsInputValidator(factory).validate(download));
+        final CommandLine upload = new DefaultParser().parse(TerminalOptionsBuilder.options(),
+                new String[]{"--upload", "ftp://cdn.duck.sh/d/", "/tmp/d", "--watch"});
+        assertFalse(new TerminalOptionsInputValidator(factory).validate(upload));
+    }
 }
@@ -36,7 +36,7 @@ public class NSObjectPathReference implements CacheReference<Path> {
 
     public static NSObject get(final Path file) {
         if(!cache.contains(file)) {
-            cache.put(file, NSString.stringWithString(new DefaultPathPredicate(file).toString()));
+            cache.put(file, NSString.stringWithString(file.reference().toString()));
         }
         return cache.get(file);
     }
@@ -74,6 +74,6 @@ public class NSObjectPathReference implements CacheReference<Path> {
 
     @Override
     public boolean test(final Path file) {
-        return hashCode == new DefaultPathPredicate(file).hashCode();
+        return hashCode == file.reference().hashCode();
     }
 }
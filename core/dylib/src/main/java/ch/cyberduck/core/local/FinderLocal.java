@@ -191,6 +191,22 @@ public class FinderLocal extends Local {
         return new LockReleaseProxyOutputStream(super.getOutputStream(resolved.path(), append), resolved, append);
     }
 
+    @Override
+    public OutputStream getOutputStream(final long offset) throws AccessDeniedException {
+        final NSURL resolved;
+        try {
+            resolved = this.lock(this.exists());
+            if(null == resolved) {
+                return super.getOutputStream(offset);
+            }
+        }
+        catch(LocalAccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", this, e));
+            return super.getOutputStream(offset);
+        }
+        return new LockReleaseProxyOutputStream(super.getOutputStream(resolved.path(), offset), resolved, true);
+    }
+
     /**
      * @param interactive Prompt to resolve bookmark of file outside of sandbox with choose panel
      */
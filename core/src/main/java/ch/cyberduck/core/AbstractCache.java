@@ -23,37 +23,172 @@ import ch.cyberduck.core.cache.LRUCache;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.google.common.cache.RemovalListener;
+
 public abstract class AbstractCache<T extends Referenceable> implements Cache<T> {
     private static final Logger log = LogManager.getLogger(AbstractCache.class);
 
+    public enum Statistic {
+        hit,
+        /**
+         * Hit for child with attributes changed after its listing was cached
+         */
+        changed,
+        miss,
+        eviction
+    }
+
     private final LRUCache<CacheReference<T>, AttributedList<T>> impl;
 
+    private final Object lock = new Object();
+
+    /**
+     * Reference of every child in cached directory listings to the child. Entries are stale for children with
+     * attributes changed after the listing was cached. Guarded by lock
+     */
+    private final Map<CacheReference<T>, T> index
+            = new HashMap<>();
+    /**
+     * Children by identifier not changing with attributes to find children with stale reference. Guarded by lock
+     */
+    private final Map<String, List<T>> identifiers
+            = new HashMap<>();
+    /**
+     * Keys of every indexed child. Guarded by lock
+     */
+    private final Map<T, Keys<T>> keys
+            = new IdentityHashMap<>();
+
+    private final Metrics metrics
+            = new CountingMetrics();
+
     public AbstractCache(int size) {
+        final RemovalListener<CacheReference<T>, AttributedList<T>> listener = notification -> {
+            if(notification.wasEvicted()) {
+                metrics.increment(Statistic.eviction);
+                this.unindex(notification.getValue());
+            }
+        };
         if(size == Integer.MAX_VALUE) {
             // Unlimited
-            impl = LRUCache.build();
+            impl = LRUCache.build(listener);
         }
         else {
             // Will inflate to the given size
-            impl = LRUCache.build(size);
+            impl = LRUCache.build(listener, size);
+        }
+    }
+
+    private void index(final AttributedList<T> children) {
+        synchronized(lock) {
+            for(T child : children) {
+                this.index(child);
+            }
+        }
+    }
+
+    /**
+     * Must hold lock
+     */
+    private void index(final T child) {
+        final Keys<T> k = new Keys<>(this.reference(child), this.identifier(child));
+        final Keys<T> previous = keys.put(child, k);
+        if(previous != null) {
+            this.unindex(child, previous);
+        }
+        index.put(k.reference, child);
+        if(k.identifier != null) {
+            identifiers.computeIfAbsent(k.identifier, key -> new ArrayList<>(1)).add(child);
         }
     }
 
+    private void unindex(final AttributedList<T> children) {
+        if(null == children) {
+            return;
+        }
+        synchronized(lock) {
+            for(T child : children) {
+                final Keys<T> k = keys.remove(child);
+                if(k != null) {
+                    this.unindex(child, k);
+                }
+            }
+        }
+    }
+
+    /**
+     * Must hold lock
+     */
+    private void unindex(final T child, final Keys<T> k) {
+        index.remove(k.reference, child);
+        if(k.identifier != null) {
+            final List<T> list = identifiers.get(k.identifier);
+            if(list != null) {
+                list.removeIf(value -> value == child);
+                if(list.isEmpty()) {
+                    identifiers.remove(k.identifier);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param object Child in directory listing
+     * @return Identifier not changing with attributes taken into account for reference or null if not supported
+     */
+    protected String identifier(final T object) {
+        return null;
+    }
+
+    /**
+     * @param reference Reference of child
+     * @return Identifier of child referenced or null if not supported
+     * @see #identifier(Referenceable)
+     */
+    protected String identifier(final CacheReference<T> reference) {
+        return null;
+    }
+
     @Override
     public T lookup(final CacheReference<T> reference) {
-        for(AttributedList<T> entry : impl.asMap().values()) {
-            final T f = entry.find(reference);
-            if(null == f) {
-                continue;
+        synchronized(lock) {
+            final T f = index.get(reference);
+            if(null != f && reference.test(f)) {
+                metrics.increment(Statistic.hit);
+                return f;
+            }
+            final String identifier = this.identifier(reference);
+            if(identifier != null) {
+                for(T child : identifiers.getOrDefault(identifier, Collections.emptyList())) {
+                    if(reference.test(child)) {
+                        // Attributes changed after the listing was cached
+                        this.index(child);
+                        metrics.increment(Statistic.changed);
+                        return child;
+                    }
+                }
             }
-            return f;
         }
+        metrics.increment(Statistic.miss);
         log.warn(String.format("Lookup failed for %s in cache", reference));
         return null;
     }
 
+    /**
+     * @return Hit, changed, miss and eviction counts
+     * @see Statistic
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public long size() {
         return impl.size();
@@ -86,6 +221,7 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
     public AttributedList<T> remove(final T key) {
         final AttributedList<T> removed = impl.get(this.reference(key));
         impl.remove(this.reference(key));
+        this.unindex(removed);
         if(null == removed) {
             // Not previously in cache
             return AttributedList.emptyList();
@@ -120,7 +256,9 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
             log.debug(String.format("Caching %s", key));
         }
         final AttributedList<T> replaced = impl.get(this.reference(key));
+        this.unindex(replaced);
         impl.put(this.reference(key), children);
+        this.index(children);
         if(null == replaced) {
             // Not previously in cache
             return AttributedList.emptyList();
@@ -167,12 +305,31 @@ public abstract class AbstractCache<T extends Referenceable> implements Cache<T>
             log.info(String.format("Clear cache %s", this));
         }
         impl.clear();
+        synchronized(lock) {
+            index.clear();
+            identifiers.clear();
+            keys.clear();
+        }
+    }
+
+    private static final class Keys<T> {
+        private final CacheReference<T> reference;
+        private final String identifier;
+
+        private Keys(final CacheReference<T> reference, final String identifier) {
+            this.reference = reference;
+            this.identifier = identifier;
+        }
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Cache{");
         sb.append("size=").append(impl.size());
+        sb.append(", hits=").append(metrics.get(Statistic.hit));
+        sb.append(", changed=").append(metrics.get(Statistic.changed));
+        sb.append(", misses=").append(metrics.get(Statistic.miss));
+        sb.append(", evictions=").append(metrics.get(Statistic.eviction));
         sb.append('}');
         return sb.toString();
     }
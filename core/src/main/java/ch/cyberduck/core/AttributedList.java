@@ -18,6 +18,8 @@ package ch.cyberduck.core;
  *  dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.collections.IndexedSnapshotList;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -26,7 +28,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -53,8 +54,11 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         }
     };
 
-    private final List<E> impl
-            = new CopyOnWriteArrayList<>();
+    /**
+     * Append optimized with snapshot iterators and hash index for lookups
+     */
+    private final IndexedSnapshotList<E> impl
+            = new IndexedSnapshotList<>();
 
     /**
      * Metadata of file listing
@@ -198,7 +202,15 @@ public class AttributedList<E extends Referenceable> implements Iterable<E> {
         return impl.contains(e);
     }
 
+    /**
+     * @param predicate Filter. Lookup with {@link DefaultPathPredicate} is hashed
+     * @return First matching element or null
+     */
     public E find(final Predicate<E> predicate) {
+        if(predicate instanceof DefaultPathPredicate) {
+            // Hash code of reference matches hash code of path elements it selects
+            return impl.find(predicate.hashCode(), predicate);
+        }
         final Optional<E> optional = impl.stream().filter(predicate).findFirst();
         return optional.orElse(null);
     }
@@ -23,12 +23,20 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Map;
+
 public abstract class CachingFileIdProvider implements FileIdProvider {
     private static final Logger log = LogManager.getLogger(CachingFileIdProvider.class);
 
     private final LRUCache<SimplePathPredicate, String> cache
             = LRUCache.build(PreferencesFactory.get().getLong("fileid.cache.size"));
 
+    /**
+     * Reverse lookup of file for identifier
+     */
+    private final LRUCache<String, Path> files
+            = LRUCache.build(PreferencesFactory.get().getLong("fileid.cache.size"));
+
     private final Protocol.Case sensitivity;
 
     public CachingFileIdProvider(final Protocol.Case sensitivity) {
@@ -40,6 +48,24 @@ public abstract class CachingFileIdProvider implements FileIdProvider {
         return cache.get(this.toPredicate(file));
     }
 
+    /**
+     * Reverse lookup of cached file identifier
+     *
+     * @param id File identifier
+     * @return Path last cached with identifier or null if unknown
+     */
+    public Path getFile(final String id) {
+        final Path file = files.get(id);
+        if(null == file) {
+            return null;
+        }
+        if(!id.equals(cache.get(this.toPredicate(file)))) {
+            // Stale entry for file cached with different identifier since
+            return null;
+        }
+        return new Path(file.getAbsolute(), file.getType(), new PathAttributes().withFileId(id));
+    }
+
     private SimplePathPredicate toPredicate(final Path file) {
         return sensitivity == Protocol.Case.sensitive ? new CaseSensitivePathPredicate(file) : new CaseInsensitivePathPredicate(file);
     }
@@ -64,10 +90,16 @@ public abstract class CachingFileIdProvider implements FileIdProvider {
                         cache.remove(entry);
                     }
                 }
+                for(Map.Entry<String, Path> entry : files.asMap().entrySet()) {
+                    if(entry.getValue().isChild(file)) {
+                        files.remove(entry.getKey());
+                    }
+                }
             }
         }
         else {
             cache.put(this.toPredicate(file), id);
+            files.put(id, new Path(file.getAbsolute(), file.getType()));
             file.attributes().setFileId(id);
         }
         return id;
@@ -76,5 +108,6 @@ public abstract class CachingFileIdProvider implements FileIdProvider {
     @Override
     public void clear() {
         cache.clear();
+        files.clear();
     }
 }
@@ -25,10 +25,7 @@ public class CountingMetrics implements Metrics {
 
     @Override
     public <T> void increment(final T key) {
-        if(!metrics.containsKey(key)) {
-            metrics.put(key, new AtomicLong());
-        }
-        metrics.get(key).getAndIncrement();
+        metrics.computeIfAbsent(key, k -> new AtomicLong()).getAndIncrement();
     }
 
     @Override
@@ -23,6 +23,8 @@ import ch.cyberduck.core.unicode.UnicodeNormalizer;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.EnumSet;
+
 /**
  * Path predicate that takes the region and version id of the path into account for comparisons.
  */
@@ -31,24 +33,60 @@ public class DefaultPathPredicate implements CacheReference<Path> {
     private static final UnicodeNormalizer normalizer = new NFCNormalizer();
 
     private final String reference;
+    /**
+     * Normalized absolute path
+     */
+    private final String path;
+
+    /**
+     * Type and attributes the reference was computed from
+     */
+    private final EnumSet<Path.Type> type;
+    private final String region;
+    private final String fileId;
+    private final String versionId;
 
     public DefaultPathPredicate(final Path file) {
-        final Path.Type type = file.isSymbolicLink() ? Path.Type.symboliclink : file.isFile() ? Path.Type.file : Path.Type.directory;
-        String qualifier = StringUtils.EMPTY;
-        if(StringUtils.isNotBlank(file.attributes().getRegion())) {
+        this.type = EnumSet.copyOf(file.getType());
+        this.region = file.attributes().getRegion();
+        this.fileId = file.attributes().getFileId();
+        this.versionId = file.attributes().getVersionId();
+        final StringBuilder reference = new StringBuilder("[")
+                .append(file.isSymbolicLink() ? Path.Type.symboliclink : file.isFile() ? Path.Type.file : Path.Type.directory)
+                .append("]-");
+        if(StringUtils.isNotBlank(region)) {
             if(new DefaultPathContainerService().isContainer(file)) {
-                qualifier += file.attributes().getRegion();
+                reference.append(region);
             }
         }
-        if(StringUtils.isNotBlank(file.attributes().getFileId())) {
-            qualifier += file.attributes().getFileId();
+        if(StringUtils.isNotBlank(fileId)) {
+            reference.append(fileId);
         }
         if(file.isFile()) {
-            if(StringUtils.isNotBlank(file.attributes().getVersionId())) {
-                qualifier += file.attributes().getVersionId();
+            if(StringUtils.isNotBlank(versionId)) {
+                reference.append(versionId);
             }
         }
-        reference = "[" + type + "]" + "-" + qualifier + normalizer.normalize(file.getAbsolute());
+        this.path = normalizer.normalize(file.getAbsolute()).toString();
+        this.reference = reference.append(path).toString();
+    }
+
+    /**
+     * @return Normalized absolute path not depending on attributes
+     */
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * @param file File this reference was created for
+     * @return False if type or attributes of the file taken into account for the reference have changed since
+     */
+    boolean isCurrent(final Path file) {
+        return type.equals(file.getType())
+                && StringUtils.equals(region, file.attributes().getRegion())
+                && StringUtils.equals(fileId, file.attributes().getFileId())
+                && StringUtils.equals(versionId, file.attributes().getVersionId());
     }
 
     /**
@@ -84,6 +122,6 @@ public class DefaultPathPredicate implements CacheReference<Path> {
 
     @Override
     public boolean test(final Path test) {
-        return this.equals(new DefaultPathPredicate(test));
+        return this.equals(test.reference());
     }
 }
@@ -45,6 +45,7 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystemException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.LinkOption;
@@ -54,6 +55,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.text.MessageFormat;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -68,6 +71,12 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      */
     private String path;
 
+    /**
+     * Attributes read in a single call when listing the parent directory or on refresh. Null when not available
+     * or for symbolic links.
+     */
+    private transient volatile BasicFileAttributes snapshot;
+
     public Local(final String parent, final String name) {
         this(parent, name, PreferencesFactory.get().getProperty("local.delimiter"));
     }
@@ -145,6 +154,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isDirectory() {
+        final BasicFileAttributes attributes = snapshot;
+        if(attributes != null) {
+            return attributes.isDirectory();
+        }
         return Paths.get(path).toFile().isDirectory();
     }
 
@@ -154,6 +167,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isFile() {
+        final BasicFileAttributes attributes = snapshot;
+        if(attributes != null) {
+            return attributes.isRegularFile();
+        }
         return Paths.get(path).toFile().isFile();
     }
 
@@ -163,6 +180,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return true if the file is a symbolic link.
      */
     public boolean isSymbolicLink() {
+        if(snapshot != null) {
+            // No snapshot is kept for symbolic links
+            return false;
+        }
         return Files.isSymbolicLink(Paths.get(path));
     }
 
@@ -196,7 +217,68 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public LocalAttributes attributes() {
-        return new LocalAttributes(path);
+        return new LocalAttributes(this);
+    }
+
+    /**
+     * @return Attributes read when listing the parent directory or on last refresh. Null if file has not been
+     * listed or is a symbolic link.
+     */
+    protected BasicFileAttributes getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Discard attributes read when listing the parent directory after changing the file
+     */
+    protected void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * Discard attributes read when listing the parent directory and read them again from the file system with a
+     * single call. Use where a stale size or timestamp must be avoided.
+     *
+     * @return This
+     */
+    public Local refresh() {
+        snapshot = null;
+        if(PreferencesFactory.get().getBoolean("local.attributes.snapshot.enable")) {
+            try {
+                snapshot = snapshot(Paths.get(path));
+            }
+            catch(InvalidPathException e) {
+                log.warn(String.format("Failure reading attributes of %s. %s", path, e.getMessage()));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param file File in default file system
+     * @return Attributes including POSIX permissions where supported or null for symbolic links and failure
+     */
+    private static BasicFileAttributes snapshot(final Path file) {
+        try {
+            final BasicFileAttributes attributes;
+            if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                attributes = Files.readAttributes(file, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            }
+            else {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            }
+            if(attributes.isSymbolicLink()) {
+                // Attributes of link target are read on demand
+                return null;
+            }
+            return attributes;
+        }
+        catch(IOException e) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Failure reading attributes of %s. %s", file, e.getMessage()));
+            }
+            return null;
+        }
     }
 
     @Override
@@ -205,6 +287,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void mkdir() throws AccessDeniedException {
+        snapshot = null;
         new DefaultLocalDirectoryFeature().mkdir(this);
     }
 
@@ -212,6 +295,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * Delete the file
      */
     public void delete() throws AccessDeniedException, NotfoundException {
+        snapshot = null;
         try {
             Files.delete(Paths.get(path));
         }
@@ -230,6 +314,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
 
     public AttributedList<Local> list(final String path, final Filter<String> filter) throws AccessDeniedException {
         final AttributedList<Local> children = new AttributedList<>();
+        final boolean attributes = PreferencesFactory.get().getBoolean("local.attributes.snapshot.enable");
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(path), new DirectoryStream.Filter<Path>() {
             @Override
             public boolean accept(final Path entry) {
@@ -240,7 +325,12 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
             }
         })) {
             for(Path entry : stream) {
-                children.add(LocalFactory.get(entry.toString()));
+                final Local child = LocalFactory.get(entry.toString());
+                if(attributes) {
+                    // Read all attributes with a single call while iterating
+                    child.snapshot = snapshot(entry);
+                }
+                children.add(child);
             }
         }
         catch(IOException e) {
@@ -356,6 +446,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
                     LocaleFactory.localizedString("Cannot rename {0}", "Error"), this.getName()), e);
         }
         path = renamed.getAbsolute();
+        snapshot = null;
     }
 
     public void copy(final Local copy) throws AccessDeniedException {
@@ -372,6 +463,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
             }
             FileChannel in = null;
             FileChannel out = null;
+            copy.snapshot = null;
             try {
                 in = getReadChannel(this.path);
                 out = getWriteChannel(copy.path, options.append, !copy.exists());
@@ -450,13 +542,62 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     protected OutputStream getOutputStream(final String path, final boolean append) throws AccessDeniedException {
+        snapshot = null;
         return Channels.newOutputStream(getWriteChannel(path, append, !this.exists()));
     }
 
     public OutputStream getOutputStream(final boolean append) throws AccessDeniedException {
+        snapshot = null;
         return Channels.newOutputStream(getWriteChannel(path, append, !this.exists()));
     }
 
+    /**
+     * Open file for writing at position without truncating existing content. Used by concurrent segments
+     * writing to disjoint ranges of the same file.
+     *
+     * @param offset Position in file to write from
+     */
+    protected OutputStream getOutputStream(final String path, final long offset) throws AccessDeniedException {
+        snapshot = null;
+        return Channels.newOutputStream(getWriteChannel(path, offset));
+    }
+
+    public OutputStream getOutputStream(final long offset) throws AccessDeniedException {
+        snapshot = null;
+        return Channels.newOutputStream(getWriteChannel(path, offset));
+    }
+
+    private static FileChannel getWriteChannel(final String path, final long offset) throws LocalAccessDeniedException {
+        try {
+            final FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            channel.position(offset);
+            return channel;
+        }
+        catch(RuntimeException | IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create empty file with given length discarding any previous content. The file is extended without
+     * writing data and will be sparse on file systems supporting it.
+     *
+     * @param length Size of file
+     */
+    public void preallocate(final long length) throws AccessDeniedException {
+        snapshot = null;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if(length > 0) {
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            }
+        }
+        catch(RuntimeException | IOException e) {
+            throw new LocalAccessDeniedException(MessageFormat.format(
+                    LocaleFactory.localizedString("Cannot create {0}", "Error"), this.getName()), e);
+        }
+    }
+
     private static FileChannel getWriteChannel(final String path, final boolean append, final boolean create) throws LocalAccessDeniedException {
         try {
             final Set<OpenOption> options = new HashSet<>();
@@ -38,13 +38,46 @@ public class LocalAttributes extends Attributes {
     private static final Logger log = LogManager.getLogger(LocalAttributes.class);
 
     private final String path;
+    /**
+     * File with attributes read with a single call or null to query the file system for every attribute
+     */
+    private final Local local;
 
     public LocalAttributes(final String path) {
         this.path = path;
+        this.local = null;
+    }
+
+    /**
+     * @param local File with attributes possibly read when listing the parent directory
+     */
+    public LocalAttributes(final Local local) {
+        this.path = local.getAbsolute();
+        this.local = local;
+    }
+
+    /**
+     * @return Attributes read with a single call or null
+     */
+    private BasicFileAttributes snapshot() {
+        return null == local ? null : local.getSnapshot();
+    }
+
+    /**
+     * Discard attributes read previously after changing the file
+     */
+    protected void invalidate() {
+        if(local != null) {
+            local.invalidate();
+        }
     }
 
     @Override
     public long getModificationDate() {
+        final BasicFileAttributes snapshot = this.snapshot();
+        if(snapshot != null) {
+            return snapshot.lastModifiedTime().toMillis();
+        }
         try {
             return Files.getLastModifiedTime(Paths.get(path)).toMillis();
         }
@@ -74,6 +107,7 @@ public class LocalAttributes extends Attributes {
         if(timestamp < 0) {
             return;
         }
+        this.invalidate();
         try {
             Files.setLastModifiedTime(Paths.get(path), FileTime.fromMillis(timestamp));
         }
@@ -84,6 +118,10 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public long getSize() {
+        final BasicFileAttributes snapshot = this.snapshot();
+        if(snapshot != null) {
+            return snapshot.size();
+        }
         try {
             return Files.size(Paths.get(path));
         }
@@ -95,8 +133,11 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public Permission getPermission() {
+        final BasicFileAttributes snapshot = this.snapshot();
+        if(snapshot instanceof PosixFileAttributes) {
+            return new LocalPermission(PosixFilePermissions.toString(((PosixFileAttributes) snapshot).permissions()));
+        }
         if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
-            final BasicFileAttributes attributes;
             try {
                 return new LocalPermission(PosixFilePermissions.toString(Files.readAttributes(Paths.get(path), PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS).permissions()));
             }
@@ -108,6 +149,7 @@ public class LocalAttributes extends Attributes {
     }
 
     public void setPermission(final Permission permission) throws AccessDeniedException {
+        this.invalidate();
         if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
             try {
                 Files.setPosixFilePermissions(Paths.get(path), PosixFilePermissions.fromString(permission.getSymbol()));
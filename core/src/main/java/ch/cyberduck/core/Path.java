@@ -52,12 +52,18 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
      */
     private PathAttributes attributes;
 
+    /**
+     * Memoized cache reference
+     */
+    private volatile DefaultPathPredicate reference;
+
     public Path(final Path copy) {
         this.parent = copy.parent;
         this.path = copy.path;
         this.symlink = null == copy.symlink ? null : new Path(copy.symlink);
         this.type = EnumSet.copyOf(copy.type);
         this.attributes = new PathAttributes(copy.attributes);
+        this.reference = copy.reference;
     }
 
     /**
@@ -242,13 +248,26 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
         this.symlink = target;
     }
 
+    /**
+     * @return Reference reused until the type or attributes of this path taken into account for comparison change
+     */
+    DefaultPathPredicate reference() {
+        final DefaultPathPredicate cached = reference;
+        if(null != cached && cached.isCurrent(this)) {
+            return cached;
+        }
+        final DefaultPathPredicate computed = new DefaultPathPredicate(this);
+        reference = computed;
+        return computed;
+    }
+
     /**
      * @return The hashcode of #getAbsolute()
      * @see #getAbsolute()
      */
     @Override
     public int hashCode() {
-        return new DefaultPathPredicate(this).hashCode();
+        return this.reference().hashCode();
     }
 
     /**
@@ -261,7 +280,7 @@ public class Path extends AbstractPath implements Referenceable, Serializable {
             return false;
         }
         if(other instanceof Path) {
-            return new DefaultPathPredicate(this).test((Path) other);
+            return this.reference().equals(((Path) other).reference());
         }
         return false;
     }
@@ -43,6 +43,19 @@ public class PathCache extends AbstractCache<Path> {
         if(null == file) {
             return NULL_KEY;
         }
-        return new DefaultPathPredicate(file);
+        return file.reference();
+    }
+
+    @Override
+    protected String identifier(final Path file) {
+        return file.reference().getPath();
+    }
+
+    @Override
+    protected String identifier(final CacheReference<Path> reference) {
+        if(reference instanceof DefaultPathPredicate) {
+            return ((DefaultPathPredicate) reference).getPath();
+        }
+        return null;
     }
 }
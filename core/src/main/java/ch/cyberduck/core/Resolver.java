@@ -32,28 +32,60 @@ import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.text.MessageFormat;
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.google.common.util.concurrent.Uninterruptibles;
 
 public final class Resolver {
     private static final Logger log = LogManager.getLogger(Resolver.class);
 
-    private final ThreadFactory threadFactory
-            = new NamedThreadFactory("resolver");
+    /**
+     * Lookup threads and cache shared by all resolvers using the system name service
+     */
+    private static final class Holder {
+        private static final ExecutorService executor = Executors.newCachedThreadPool(new NamedThreadFactory("resolver"));
+        private static final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+    }
 
     private final boolean preferIPv6;
+    private final Lookup lookup;
+    private final ConcurrentMap<String, Entry> cache;
+    /**
+     * Time in milliseconds to reuse successful lookups
+     */
+    private final long ttl;
 
     public Resolver() {
         this(PreferencesFactory.get().getBoolean("connection.dns.ipv6"));
     }
 
     public Resolver(final boolean preferIPv6) {
+        this(preferIPv6, InetAddress::getAllByName, Holder.cache);
+    }
+
+    /**
+     * @param lookup Name service replacing system resolver with separate cache
+     */
+    public Resolver(final boolean preferIPv6, final Lookup lookup) {
+        this(preferIPv6, lookup, new ConcurrentHashMap<>());
+    }
+
+    private Resolver(final boolean preferIPv6, final Lookup lookup, final ConcurrentMap<String, Entry> cache) {
         this.preferIPv6 = preferIPv6;
+        this.lookup = lookup;
+        this.cache = cache;
+        this.ttl = TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("connection.dns.cache.ttl"));
     }
 
     /**
@@ -64,62 +96,132 @@ public final class Resolver {
      * @throws ResolveCanceledException If the lookup has been interrupted
      */
     public InetAddress resolve(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
-        final CountDownLatch signal = new CountDownLatch(1);
-        final AtomicReference<InetAddress> resolved = new AtomicReference<>();
-        final AtomicReference<UnknownHostException> failure = new AtomicReference<>();
-        final Thread resolver = threadFactory.newThread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    final InetAddress[] allByName = InetAddress.getAllByName(hostname);
-                    Arrays.stream(allByName).findFirst().ifPresent(resolved::set);
-                    if(preferIPv6) {
-                        Arrays.stream(allByName).filter(inetAddress -> inetAddress instanceof Inet6Address).findFirst().ifPresent(resolved::set);
-                    }
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Resolved %s to %s", hostname, resolved.get().getHostAddress()));
-                    }
-                }
-                catch(UnknownHostException e) {
-                    log.warn(String.format("Failed resolving %s", hostname));
-                    failure.set(e);
-                }
-                finally {
-                    signal.countDown();
-                }
+        return this.resolveAll(hostname, callback)[0];
+    }
+
+    /**
+     * Concurrent lookups for the same hostname share a single query and results are reused for the configured time
+     *
+     * @return All addresses for this hostname alternating between address families with the preferred family first
+     * @throws ResolveFailedException   If the hostname cannot be resolved
+     * @throws ResolveCanceledException If the lookup has been interrupted
+     */
+    public InetAddress[] resolveAll(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
+        final Entry entry = cache.compute(hostname, (key, existing) -> {
+            if(null == existing || existing.isExpired()) {
+                return new Entry(hostname);
             }
+            return existing;
         });
-        resolver.start();
-        log.debug(String.format("Waiting for resolving of %s", hostname));
-        // Wait for #run to finish
-        while(!Uninterruptibles.awaitUninterruptibly(signal, Duration.ofMillis(500))) {
+        if(entry.submitted.compareAndSet(false, true)) {
+            Holder.executor.execute(entry.task);
+        }
+        else if(log.isDebugEnabled()) {
+            log.debug(String.format("Reuse lookup for %s", hostname));
+        }
+        while(true) {
             try {
-                callback.verify();
+                final InetAddress[] resolved = Uninterruptibles.getUninterruptibly(entry.task, 500L, TimeUnit.MILLISECONDS);
+                this.verify(hostname, callback);
+                return this.sort(resolved);
             }
-            catch(ConnectionCanceledException c) {
-                throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), c);
+            catch(TimeoutException e) {
+                this.verify(hostname, callback);
+            }
+            catch(ExecutionException e) {
+                this.verify(hostname, callback);
+                throw new ResolveFailedException(
+                        MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), e.getCause());
             }
         }
+    }
+
+    private void verify(final String hostname, final CancelCallback callback) throws ResolveCanceledException {
         try {
             callback.verify();
         }
         catch(ConnectionCanceledException c) {
             throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), c);
         }
-        if(null == resolved.get()) {
-            if(null == failure.get()) {
-                log.warn(String.format("Canceled resolving %s", hostname));
-                throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname));
+    }
+
+    /**
+     * Interleave address families as recommended for connection racing in RFC 8305
+     */
+    private InetAddress[] sort(final InetAddress[] addresses) {
+        final boolean first = preferIPv6 ? Arrays.stream(addresses).anyMatch(a -> a instanceof Inet6Address) : addresses[0] instanceof Inet6Address;
+        final List<InetAddress> preferred = new ArrayList<>();
+        final List<InetAddress> other = new ArrayList<>();
+        for(InetAddress address : addresses) {
+            if(address instanceof Inet6Address == first) {
+                preferred.add(address);
+            }
+            else {
+                other.add(address);
+            }
+        }
+        final InetAddress[] sorted = new InetAddress[addresses.length];
+        for(int i = 0, p = 0, o = 0; i < sorted.length; i++) {
+            if(o >= other.size() || (p < preferred.size() && p <= o)) {
+                sorted[i] = preferred.get(p++);
+            }
+            else {
+                sorted[i] = other.get(o++);
             }
-            throw new ResolveFailedException(
-                    MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), failure.get());
         }
-        return resolved.get();
+        return sorted;
+    }
+
+    /**
+     * Name service
+     */
+    public interface Lookup {
+        /**
+         * @return At least one address
+         */
+        InetAddress[] lookup(String hostname) throws UnknownHostException;
+    }
+
+    private final class Entry {
+        private final AtomicBoolean submitted = new AtomicBoolean();
+        private final FutureTask<InetAddress[]> task;
+        /**
+         * Time in milliseconds after which addresses are looked up again
+         */
+        private volatile long expires = Long.MAX_VALUE;
+
+        Entry(final String hostname) {
+            this.task = new FutureTask<>(() -> {
+                try {
+                    final InetAddress[] resolved = lookup.lookup(hostname);
+                    if(resolved.length == 0) {
+                        throw new UnknownHostException(hostname);
+                    }
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Resolved %s to %s", hostname, Arrays.toString(resolved)));
+                    }
+                    expires = System.currentTimeMillis() + ttl;
+                    return resolved;
+                }
+                catch(Exception e) {
+                    log.warn(String.format("Failed resolving %s. %s", hostname, e.getMessage()));
+                    // No negative caching
+                    cache.remove(hostname, this);
+                    throw e;
+                }
+            });
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expires;
+        }
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Resolver{");
+        sb.append("preferIPv6=").append(preferIPv6);
+        sb.append(", ttl=").append(ttl);
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,105 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+
+/**
+ * Ignore request to remove all cached directory listings such as when a transfer is stopped. Listings must be
+ * invalidated by the owner of the cache for files changed.
+ */
+public class RetainingCache<T extends Referenceable> implements Cache<T> {
+    private static final Logger log = LogManager.getLogger(RetainingCache.class);
+
+    private final Cache<T> proxy;
+
+    public RetainingCache(final Cache<T> proxy) {
+        this.proxy = proxy;
+    }
+
+    @Override
+    public CacheReference<T> reference(final T object) {
+        return proxy.reference(object);
+    }
+
+    @Override
+    public boolean isCached(final T parent) {
+        return proxy.isCached(parent);
+    }
+
+    @Override
+    public long size() {
+        return proxy.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return proxy.isEmpty();
+    }
+
+    @Override
+    public boolean isValid(final T item) {
+        return proxy.isValid(item);
+    }
+
+    @Override
+    public AttributedList<T> put(final T parent, final AttributedList<T> children) {
+        return proxy.put(parent, children);
+    }
+
+    @Override
+    public AttributedList<T> get(final T parent) {
+        return proxy.get(parent);
+    }
+
+    @Override
+    public Map<CacheReference<T>, AttributedList<T>> asMap() {
+        return proxy.asMap();
+    }
+
+    @Override
+    public AttributedList<T> remove(final T parent) {
+        return proxy.remove(parent);
+    }
+
+    @Override
+    public void invalidate(final T parent) {
+        proxy.invalidate(parent);
+    }
+
+    @Override
+    public void clear() {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Retain %d cached listings", proxy.size()));
+        }
+    }
+
+    @Override
+    public T lookup(final CacheReference<T> reference) {
+        return proxy.lookup(reference);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RetainingCache{");
+        sb.append("proxy=").append(proxy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -31,6 +31,9 @@ import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Search;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.metrics.PerformanceMetrics;
+import ch.cyberduck.core.metrics.TimingAttributesFinder;
+import ch.cyberduck.core.metrics.TimingListService;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.Proxy;
@@ -276,7 +279,21 @@ public abstract class Session<C> implements TranscriptListener {
     @SuppressWarnings("unchecked")
     public <T> T getFeature(final Class<T> type) {
         metrics.increment(type);
-        return this.getFeature(type, this._getFeature(type));
+        final T feature = this.getFeature(type, this._getFeature(type));
+        if(null == feature) {
+            return null;
+        }
+        final PerformanceMetrics performance = PerformanceMetrics.get();
+        if(performance.isEnabled()) {
+            // Record latency of operations
+            if(type == ListService.class) {
+                return (T) new TimingListService((ListService) feature, performance);
+            }
+            if(type == AttributesFinder.class) {
+                return (T) new TimingAttributesFinder((AttributesFinder) feature, performance);
+            }
+        }
+        return feature;
     }
 
     /**
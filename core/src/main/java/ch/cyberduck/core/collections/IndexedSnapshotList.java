@@ -0,0 +1,444 @@
+package ch.cyberduck.core.collections;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe list optimized for appending. Appending writes to spare capacity of the backing array not visible to
+ * any previous snapshot and is amortized O(1). All other modifications copy the backing array. Iterators operate on
+ * the snapshot at the time of their creation and never fail with a concurrent modification. A hash index of the
+ * elements is built on first lookup and updated on append.
+ * <p>
+ * The hash code of an element is recorded when it is indexed. Lookups missing in the index verify the recorded hash
+ * codes and rebuild the index to find elements mutated in a way that changed their hash code.
+ *
+ * @param <E> Element type
+ */
+public final class IndexedSnapshotList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final Snapshot EMPTY = new Snapshot(new Object[0], 0);
+
+    private final Object lock = new Object();
+
+    /**
+     * Published backing array and number of valid elements
+     */
+    private volatile Snapshot snapshot = EMPTY;
+
+    /**
+     * Built on demand. Guarded by lock
+     */
+    private Index index;
+
+    public IndexedSnapshotList() {
+        //
+    }
+
+    public IndexedSnapshotList(final Collection<? extends E> c) {
+        final Object[] elements = c.toArray();
+        snapshot = new Snapshot(Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, elements.length), Object[].class), elements.length);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(final int i) {
+        final Snapshot s = snapshot;
+        if(i < 0 || i >= s.size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, s.size));
+        }
+        return (E) s.elements[i];
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size;
+    }
+
+    @Override
+    public boolean add(final E e) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            Object[] elements = s.elements;
+            if(s.size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, elements.length * 2));
+            }
+            // Slot is beyond the size of any snapshot sharing this array
+            elements[s.size] = e;
+            snapshot = new Snapshot(elements, s.size + 1);
+            if(index != null) {
+                index.add(elements, s.size);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends E> c) {
+        if(c.isEmpty()) {
+            return false;
+        }
+        synchronized(lock) {
+            final Object[] added = c.toArray();
+            final Snapshot s = snapshot;
+            Object[] elements = s.elements;
+            if(s.size + added.length > elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, Math.max(elements.length * 2, s.size + added.length)));
+            }
+            System.arraycopy(added, 0, elements, s.size, added.length);
+            snapshot = new Snapshot(elements, s.size + added.length);
+            if(index != null) {
+                for(int i = s.size; i < s.size + added.length; i++) {
+                    index.add(elements, i);
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void add(final int i, final E e) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            if(i == s.size) {
+                this.add(e);
+                return;
+            }
+            if(i < 0 || i > s.size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, s.size));
+            }
+            final Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, s.size + 1)];
+            System.arraycopy(s.elements, 0, elements, 0, i);
+            elements[i] = e;
+            System.arraycopy(s.elements, i, elements, i + 1, s.size - i);
+            this.publish(elements, s.size + 1);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(final int i, final E e) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            if(i < 0 || i >= s.size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, s.size));
+            }
+            final Object[] elements = Arrays.copyOf(s.elements, s.elements.length);
+            final E previous = (E) elements[i];
+            elements[i] = e;
+            this.publish(elements, s.size);
+            return previous;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(final int i) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            if(i < 0 || i >= s.size) {
+                throw new IndexOutOfBoundsException(String.format("Index %d for size %d", i, s.size));
+            }
+            final E previous = (E) s.elements[i];
+            final Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, s.size - 1)];
+            System.arraycopy(s.elements, 0, elements, 0, i);
+            System.arraycopy(s.elements, i + 1, elements, i, s.size - i - 1);
+            this.publish(elements, s.size - 1);
+            return previous;
+        }
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        synchronized(lock) {
+            final int i = this.indexOf(o);
+            if(-1 == i) {
+                return false;
+            }
+            this.remove(i);
+            return true;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(final Predicate<? super E> filter) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            final Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, s.size)];
+            int size = 0;
+            for(int i = 0; i < s.size; i++) {
+                if(!filter.test((E) s.elements[i])) {
+                    elements[size++] = s.elements[i];
+                }
+            }
+            if(size == s.size) {
+                return false;
+            }
+            this.publish(elements, size);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        return this.removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        return this.removeIf(e -> !c.contains(e));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(final Comparator<? super E> c) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            final Object[] elements = Arrays.copyOf(s.elements, s.elements.length);
+            Arrays.sort((E[]) elements, 0, s.size, c);
+            this.publish(elements, s.size);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized(lock) {
+            snapshot = EMPTY;
+            index = null;
+        }
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            return this.find(s, Objects.hashCode(o), e -> Objects.equals(o, e));
+        }
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return this.indexOf(o) != -1;
+    }
+
+    /**
+     * Find first element matching predicate among elements with the given hash code. Elements are matched by their
+     * current hash code.
+     *
+     * @param hash      Hash code of elements matched by predicate
+     * @param predicate Filter
+     * @return Null if no element matches
+     */
+    @SuppressWarnings("unchecked")
+    public E find(final int hash, final Predicate<? super E> predicate) {
+        synchronized(lock) {
+            final Snapshot s = snapshot;
+            final int i = this.find(s, hash, e -> predicate.test((E) e));
+            if(-1 == i) {
+                return null;
+            }
+            return (E) s.elements[i];
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new SnapshotIterator<>(snapshot);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        final Snapshot s = snapshot;
+        return Spliterators.spliterator(s.elements, 0, s.size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public Object[] toArray() {
+        final Snapshot s = snapshot;
+        return Arrays.copyOf(s.elements, s.size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(final T[] a) {
+        final Snapshot s = snapshot;
+        if(a.length < s.size) {
+            return (T[]) Arrays.copyOf(s.elements, s.size, a.getClass());
+        }
+        System.arraycopy(s.elements, 0, a, 0, s.size);
+        if(a.length > s.size) {
+            a[s.size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * Must hold lock
+     *
+     * @return Position of first element matching predicate or -1
+     */
+    private int find(final Snapshot s, final int hash, final Predicate<Object> predicate) {
+        if(null == index) {
+            index = new Index(s.elements, s.size);
+        }
+        final int i = index.find(s.elements, hash, predicate);
+        if(i != -1) {
+            return i;
+        }
+        if(index.isValid(s.elements, s.size)) {
+            return -1;
+        }
+        // Hash code of elements changed after indexed
+        index = new Index(s.elements, s.size);
+        return index.find(s.elements, hash, predicate);
+    }
+
+    private void publish(final Object[] elements, final int size) {
+        snapshot = new Snapshot(elements, size);
+        // Positions changed
+        index = null;
+    }
+
+    private static final class Snapshot {
+        private final Object[] elements;
+        private final int size;
+
+        private Snapshot(final Object[] elements, final int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+    }
+
+    private static final class SnapshotIterator<E> implements Iterator<E> {
+        private final Snapshot snapshot;
+        private int cursor;
+
+        private SnapshotIterator(final Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < snapshot.size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if(cursor >= snapshot.size) {
+                throw new NoSuchElementException();
+            }
+            return (E) snapshot.elements[cursor++];
+        }
+    }
+
+    /**
+     * Open addressing hash table with linear probing mapping hash codes to positions in the backing array. Positions
+     * are inserted in ascending order and never removed. Therefore the first match found probing for a hash code is
+     * the element with the lowest position.
+     */
+    private static final class Index {
+        /**
+         * Position plus one or zero for empty slot
+         */
+        private int[] table;
+        /**
+         * Hash code of element at position
+         */
+        private int[] hashes;
+        private int size;
+
+        private Index(final Object[] elements, final int size) {
+            this.table = new int[tableSize(size)];
+            this.hashes = new int[Math.max(DEFAULT_CAPACITY, size)];
+            for(int i = 0; i < size; i++) {
+                this.add(elements, i);
+            }
+        }
+
+        private static int tableSize(final int size) {
+            // Keep load factor below 0.5
+            return Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, size) * 4 - 1);
+        }
+
+        private void add(final Object[] elements, final int position) {
+            if(position >= hashes.length) {
+                hashes = Arrays.copyOf(hashes, Math.max(position + 1, hashes.length * 2));
+            }
+            hashes[position] = Objects.hashCode(elements[position]);
+            if((size + 1) * 2 > table.length) {
+                // Rehash in ascending order of positions
+                table = new int[table.length * 2];
+                for(int i = 0; i < size; i++) {
+                    this.insert(i);
+                }
+            }
+            this.insert(position);
+            size++;
+        }
+
+        private void insert(final int position) {
+            final int mask = table.length - 1;
+            int slot = spread(hashes[position]) & mask;
+            while(table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = position + 1;
+        }
+
+        /**
+         * @return False if the hash code of any element changed after it was indexed
+         */
+        private boolean isValid(final Object[] elements, final int size) {
+            for(int i = 0; i < size; i++) {
+                if(hashes[i] != Objects.hashCode(elements[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int find(final Object[] elements, final int hash, final Predicate<Object> predicate) {
+            final int mask = table.length - 1;
+            int slot = spread(hash) & mask;
+            while(table[slot] != 0) {
+                final int position = table[slot] - 1;
+                if(hashes[position] == hash && predicate.test(elements[position])) {
+                    return position;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int spread(final int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
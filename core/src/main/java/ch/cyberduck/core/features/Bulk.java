@@ -48,4 +48,12 @@ public interface Bulk<R> {
     void post(Transfer.Type type, Map<TransferItem, TransferStatus> files, ConnectionCallback callback) throws BackgroundException;
 
     Bulk<R> withDelete(Delete delete);
+
+    /**
+     * @return False if pre and post must be invoked once with all files of the transfer instead of with
+     * subsets of files as their status is determined
+     */
+    default boolean isIncremental() {
+        return true;
+    }
 }
@@ -0,0 +1,53 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+/**
+ * Incremental listing of changes below a directory since a server issued cursor
+ */
+@Optional
+public interface ChangeFeed {
+    /**
+     * @param directory Root of tree to watch for changes
+     * @return Cursor for current state of tree
+     */
+    String cursor(Path directory) throws BackgroundException;
+
+    /**
+     * Notify listener of all changes in tree since state of cursor
+     *
+     * @param directory Root of tree to watch for changes
+     * @param cursor    Previously obtained cursor
+     * @param listener  Callback for changed and deleted files
+     * @return Cursor for state after changes or null when cursor has expired and tree must be listed again
+     */
+    String changes(Path directory, String cursor, Listener listener) throws BackgroundException;
+
+    interface Listener {
+        /**
+         * @param file Added or modified file with attributes
+         */
+        void changed(Path file);
+
+        /**
+         * @param file Deleted file. Type may be unknown for files deleted on server.
+         */
+        void deleted(Path file);
+    }
+}
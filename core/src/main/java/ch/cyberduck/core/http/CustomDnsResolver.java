@@ -31,7 +31,7 @@ public class CustomDnsResolver implements DnsResolver {
     @Override
     public InetAddress[] resolve(String host) throws UnknownHostException {
         try {
-            return new InetAddress[]{resolver.resolve(host, new DisabledCancelCallback())};
+            return resolver.resolveAll(host, new DisabledCancelCallback());
         }
         catch(ResolveFailedException | ResolveCanceledException e) {
             throw new UnknownHostException(e.getDetail(false));
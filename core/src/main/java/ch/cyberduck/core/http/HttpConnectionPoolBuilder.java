@@ -62,6 +62,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
 
 public class HttpConnectionPoolBuilder {
     private static final Logger log = LogManager.getLogger(HttpConnectionPoolBuilder.class);
@@ -208,7 +209,8 @@ public class HttpConnectionPoolBuilder {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Setup connection pool with registry %s", registry));
         }
-        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry);
+        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(
+            new RacingHttpClientConnectionOperator(registry, new CustomDnsResolver()), null, -1, TimeUnit.MILLISECONDS);
         manager.setMaxTotal(new HostPreferences(host).getInteger("http.connections.total"));
         manager.setDefaultMaxPerRoute(new HostPreferences(host).getInteger("http.connections.route"));
         // Detect connections that have become stale (half-closed) while kept inactive in the pool
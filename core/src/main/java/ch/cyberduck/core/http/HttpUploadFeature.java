@@ -87,17 +87,48 @@ public class HttpUploadFeature<Reply, Digest> implements Upload<Reply> {
         }
     }
 
+    /**
+     * Upload content read from stream instead of local file
+     *
+     * @param in Content of file read from the offset of the status
+     */
+    protected Reply upload(final Path file, final InputStream in, final BandwidthThrottle throttle,
+                           final StreamListener listener, final TransferStatus status,
+                           final StreamCancelation cancel, final StreamProgress progress, final ConnectionCallback callback) throws BackgroundException {
+        try {
+            final Digest digest = this.digest();
+            final Reply response = this.transfer(file, in, throttle, listener, status, cancel, progress, callback, digest);
+            this.post(file, digest, response);
+            return response;
+        }
+        catch(HttpResponseException e) {
+            throw new DefaultHttpResponseExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(IOException e) {
+            throw new HttpExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+    }
+
     protected Reply transfer(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                              final TransferStatus status, final StreamCancelation cancel, final StreamProgress progress,
                              final ConnectionCallback callback, final Digest digest) throws IOException, BackgroundException {
+        return this.transfer(file, local.getInputStream(), throttle, listener, status, cancel, progress, callback, digest);
+    }
+
+    /**
+     * @param in Content of file read from the offset of the status
+     */
+    protected Reply transfer(final Path file, final InputStream in, final BandwidthThrottle throttle, final StreamListener listener,
+                             final TransferStatus status, final StreamCancelation cancel, final StreamProgress progress,
+                             final ConnectionCallback callback, final Digest digest) throws IOException, BackgroundException {
         // Wrap with digest stream if available
-        final InputStream in = this.decorate(local.getInputStream(), digest);
+        final InputStream decorated = this.decorate(in, digest);
         final StatusOutputStream<Reply> out = writer.write(file, status, callback);
         new StreamCopier(cancel, progress)
                 .withOffset(status.getOffset())
                 .withLimit(status.getLength())
                 .withListener(listener)
-                .transfer(in, new ThrottledOutputStream(out, throttle));
+                .transfer(decorated, new ThrottledOutputStream(out, throttle));
         return out.getStatus();
     }
 
@@ -21,6 +21,7 @@ package ch.cyberduck.core.http;
 import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.UseragentProvider;
+import ch.cyberduck.core.metrics.PerformanceMetrics;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
@@ -37,10 +38,16 @@ import java.io.IOException;
 
 public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
 
+    /**
+     * Context attribute with timestamp in nanoseconds when request has been sent
+     */
+    private static final String REQUEST_SENT = "ch.cyberduck.request.sent";
+
     private final UseragentProvider useragentProvider
             = new PreferencesUseragentProvider();
 
     private final TranscriptListener listener;
+    private final PerformanceMetrics metrics = PerformanceMetrics.get();
 
     public LoggingHttpRequestExecutor(final TranscriptListener listener) {
         this.listener = listener;
@@ -52,7 +59,13 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
         if(!request.containsHeader(HttpHeaders.USER_AGENT)) {
             request.addHeader(new BasicHeader(HttpHeaders.USER_AGENT, useragentProvider.get()));
         }
-        return super.execute(request, conn, context);
+        final long start = System.nanoTime();
+        try {
+            return super.execute(request, conn, context);
+        }
+        finally {
+            metrics.elapsed(PerformanceMetrics.Operation.request, start);
+        }
     }
 
     @Override
@@ -76,6 +89,7 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
             }
         }
         final HttpResponse response = super.doSendRequest(request, conn, context);
+        context.setAttribute(REQUEST_SENT, System.nanoTime());
         if(null != response) {
             // response received as part of an expect-continue handshake
             this.log(response);
@@ -86,6 +100,10 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
     @Override
     protected HttpResponse doReceiveResponse(final HttpRequest request, final HttpClientConnection conn, final HttpContext context) throws HttpException, IOException {
         final HttpResponse response = super.doReceiveResponse(request, conn, context);
+        final Object sent = context.getAttribute(REQUEST_SENT);
+        if(sent instanceof Long) {
+            metrics.elapsed(PerformanceMetrics.Operation.ttfb, (Long) sent);
+        }
         this.log(response);
         return response;
     }
@@ -0,0 +1,118 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.socket.RacingSocketConnector;
+
+import org.apache.http.HttpHost;
+import org.apache.http.config.Lookup;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpHostConnectException;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.SchemePortResolver;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.conn.DefaultHttpClientConnectionOperator;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * Race connection attempts to all resolved addresses of a host instead of trying addresses one after another
+ */
+public class RacingHttpClientConnectionOperator extends DefaultHttpClientConnectionOperator {
+
+    private final Lookup<ConnectionSocketFactory> registry;
+    private final SchemePortResolver schemePortResolver;
+    private final DnsResolver dnsResolver;
+    private final RacingSocketConnector connector;
+
+    public RacingHttpClientConnectionOperator(final Lookup<ConnectionSocketFactory> registry, final DnsResolver dnsResolver) {
+        this(registry, DefaultSchemePortResolver.INSTANCE, dnsResolver, new RacingSocketConnector());
+    }
+
+    public RacingHttpClientConnectionOperator(final Lookup<ConnectionSocketFactory> registry, final SchemePortResolver schemePortResolver,
+                                              final DnsResolver dnsResolver, final RacingSocketConnector connector) {
+        super(registry, schemePortResolver, dnsResolver);
+        this.registry = registry;
+        this.schemePortResolver = schemePortResolver;
+        this.dnsResolver = dnsResolver;
+        this.connector = connector;
+    }
+
+    @Override
+    public void connect(final ManagedHttpClientConnection conn, final HttpHost host, final InetSocketAddress localAddress,
+                        final int connectTimeout, final SocketConfig socketConfig, final HttpContext context) throws IOException {
+        if(host.getAddress() != null) {
+            super.connect(conn, host, localAddress, connectTimeout, socketConfig, context);
+            return;
+        }
+        final InetAddress[] addresses = dnsResolver.resolve(host.getHostName());
+        if(addresses.length < 2) {
+            super.connect(conn, host, localAddress, connectTimeout, socketConfig, context);
+            return;
+        }
+        final ConnectionSocketFactory sf = registry.lookup(host.getSchemeName());
+        if(null == sf) {
+            throw new UnsupportedSchemeException(String.format("%s protocol is not supported", host.getSchemeName()));
+        }
+        final int port = schemePortResolver.resolve(host);
+        try {
+            final Socket socket = connector.connect(addresses, address -> {
+                final Socket sock = sf.createSocket(context);
+                this.configure(sock, socketConfig);
+                try {
+                    return sf.connectSocket(connectTimeout, sock, host, new InetSocketAddress(address, port), localAddress, context);
+                }
+                catch(IOException e) {
+                    sock.close();
+                    throw e;
+                }
+            });
+            conn.bind(socket);
+        }
+        catch(SocketTimeoutException e) {
+            throw new ConnectTimeoutException(e, host, addresses);
+        }
+        catch(ConnectException e) {
+            throw new HttpHostConnectException(e, host, addresses);
+        }
+    }
+
+    private void configure(final Socket sock, final SocketConfig socketConfig) throws IOException {
+        sock.setSoTimeout(socketConfig.getSoTimeout());
+        sock.setReuseAddress(socketConfig.isSoReuseAddress());
+        sock.setTcpNoDelay(socketConfig.isTcpNoDelay());
+        sock.setKeepAlive(socketConfig.isSoKeepAlive());
+        if(socketConfig.getRcvBufSize() > 0) {
+            sock.setReceiveBufferSize(socketConfig.getRcvBufSize());
+        }
+        if(socketConfig.getSndBufSize() > 0) {
+            sock.setSendBufferSize(socketConfig.getSndBufSize());
+        }
+        if(socketConfig.getSoLinger() >= 0) {
+            sock.setSoLinger(true, socketConfig.getSoLinger());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Pool of direct memory buffers limited in total size. Memory is returned to the pool when a buffer is closed or
+ * released and reused for subsequent buffers. When the limit is reached, a buffer backed by a temporary file or heap
+ * memory not pooled is returned instead.
+ */
+public final class BufferPool {
+    private static final Logger log = LogManager.getLogger(BufferPool.class);
+
+    private static final class Holder {
+        private static final BufferPool instance = new BufferPool(
+                PreferencesFactory.get().getLong("queue.transfer.parts.buffer.max"));
+    }
+
+    /**
+     * @return Pool shared by all transfers
+     */
+    public static BufferPool get() {
+        return Holder.instance;
+    }
+
+    /**
+     * Buffers closed and available for reuse
+     */
+    private final Deque<ByteBuffer> free = new ArrayDeque<>();
+    private final long capacity;
+
+    /**
+     * Bytes allocated including free buffers
+     */
+    private long allocated;
+
+    /**
+     * @param capacity Maximum number of bytes allocated in direct memory
+     */
+    public BufferPool(final long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param length Maximum number of bytes written to buffer
+     * @return Buffer in memory or temporary file if no memory is available
+     */
+    public Buffer create(final long length) {
+        final ByteBuffer memory = this.allocate(length);
+        if(null == memory) {
+            log.warn(String.format("Use temporary file for buffer with length %d exceeding available memory in %s", length, this));
+            return new FileBuffer();
+        }
+        return new MemoryBuffer(this, memory);
+    }
+
+    /**
+     * @param length Number of bytes
+     * @return Cleared buffer with limit set to length. Allocated in heap memory when no memory is available in pool
+     */
+    public ByteBuffer acquire(final int length) {
+        final ByteBuffer memory = this.allocate(length);
+        if(null == memory) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Allocate heap buffer with length %d exceeding available memory in %s", length, this));
+            }
+            return ByteBuffer.allocate(length);
+        }
+        memory.limit(length);
+        return memory;
+    }
+
+    private synchronized ByteBuffer allocate(final long length) {
+        if(length > Integer.MAX_VALUE) {
+            return null;
+        }
+        // Reuse smallest free buffer with sufficient capacity
+        ByteBuffer reuse = null;
+        for(ByteBuffer buffer : free) {
+            if(buffer.capacity() >= length) {
+                if(null == reuse || buffer.capacity() < reuse.capacity()) {
+                    reuse = buffer;
+                }
+            }
+        }
+        if(reuse != null) {
+            // Remove by identity as buffers with equal content are equal
+            for(Iterator<ByteBuffer> iter = free.iterator(); iter.hasNext(); ) {
+                if(iter.next() == reuse) {
+                    iter.remove();
+                    break;
+                }
+            }
+            reuse.clear();
+            return reuse;
+        }
+        // Discard free buffers too small for reuse
+        while(allocated + length > capacity && !free.isEmpty()) {
+            allocated -= free.poll().capacity();
+        }
+        if(allocated + length > capacity) {
+            return null;
+        }
+        allocated += length;
+        return ByteBuffer.allocateDirect((int) length);
+    }
+
+    /**
+     * Return buffer obtained from {@link #acquire(int)} for reuse. The buffer must no longer be referenced by the
+     * caller.
+     *
+     * @param buffer Buffer allocated by this pool
+     */
+    public synchronized void release(final ByteBuffer buffer) {
+        if(!buffer.isDirect()) {
+            // Not allocated in pool
+            return;
+        }
+        buffer.clear();
+        free.push(buffer);
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("BufferPool{");
+        sb.append("capacity=").append(capacity);
+        sb.append(", allocated=").append(allocated);
+        sb.append(", free=").append(free.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
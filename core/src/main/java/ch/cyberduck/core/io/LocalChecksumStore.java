@@ -0,0 +1,306 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persistent store of checksums computed for local files. Entries are keyed by absolute path and only valid as long
+ * as size, modification date and file key of the file are unchanged. Holds one digest per hash algorithm.
+ */
+public class LocalChecksumStore {
+    private static final Logger log = LogManager.getLogger(LocalChecksumStore.class);
+
+    private static final int VERSION = 1;
+
+    public enum Statistic {
+        hit,
+        miss,
+        invalidated
+    }
+
+    private static final class Holder {
+        private static final LocalChecksumStore instance = new LocalChecksumStore(
+                LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Checksums"),
+                PreferencesFactory.get().getBoolean("local.checksum.cache.enable"),
+                PreferencesFactory.get().getInteger("local.checksum.cache.size"));
+    }
+
+    /**
+     * @return Store shared by all transfers
+     */
+    public static LocalChecksumStore get() {
+        return Holder.instance;
+    }
+
+    private final Local file;
+    private final boolean enabled;
+    private final Map<String, Entry> entries;
+
+    private volatile Metrics metrics = new CountingMetrics();
+
+    /**
+     * Guarded by entries
+     */
+    private boolean loaded;
+    private boolean dirty;
+
+    public LocalChecksumStore(final Local file) {
+        this(file, true, Integer.MAX_VALUE);
+    }
+
+    public LocalChecksumStore(final Local file, final boolean enabled, final int size) {
+        this.file = file;
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    /**
+     * Lookup checksum of file or compute and save for later use when missing or invalidated
+     *
+     * @param algorithm Hash algorithm
+     * @param local     File to read
+     * @return Checksum of file contents
+     */
+    public Checksum compute(final HashAlgorithm algorithm, final Local local) throws BackgroundException {
+        if(!enabled) {
+            return ChecksumComputeFactory.get(algorithm).compute(local.getInputStream(), new TransferStatus());
+        }
+        final Entry current = this.stat(local);
+        synchronized(entries) {
+            this.load();
+            final Entry cached = entries.get(local.getAbsolute());
+            if(cached != null) {
+                if(cached.isValid(current)) {
+                    final String hash = cached.digests.get(algorithm);
+                    if(hash != null) {
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Return cached checksum %s for %s", hash, local));
+                        }
+                        metrics.increment(Statistic.hit);
+                        return new Checksum(algorithm, hash);
+                    }
+                }
+                else {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Invalidate cached checksums for modified file %s", local));
+                    }
+                    entries.remove(local.getAbsolute());
+                    dirty = true;
+                    metrics.increment(Statistic.invalidated);
+                }
+            }
+        }
+        metrics.increment(Statistic.miss);
+        final Checksum checksum = ChecksumComputeFactory.get(algorithm).compute(local.getInputStream(), new TransferStatus());
+        if(null == checksum.hash) {
+            // No checksum computed for algorithm
+            return checksum;
+        }
+        if(!current.isValid(this.stat(local))) {
+            log.warn(String.format("Skip caching checksum for file %s modified while reading", local));
+            return checksum;
+        }
+        synchronized(entries) {
+            Entry entry = entries.get(local.getAbsolute());
+            if(null == entry || !entry.isValid(current)) {
+                entry = current;
+                entries.put(local.getAbsolute(), entry);
+            }
+            entry.digests.put(algorithm, checksum.hash);
+            dirty = true;
+        }
+        return checksum;
+    }
+
+    /**
+     * Log hit rate since last call and persist pending changes
+     */
+    public void flush() {
+        if(!enabled) {
+            return;
+        }
+        final Metrics statistics = metrics;
+        metrics = new CountingMetrics();
+        final long hits = statistics.get(Statistic.hit);
+        final long misses = statistics.get(Statistic.miss);
+        if(hits + misses > 0) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Local checksum cache hit rate %.1f%% with %d hits, %d misses and %d invalidated entries",
+                        100d * hits / (hits + misses), hits, misses, statistics.get(Statistic.invalidated)));
+            }
+        }
+        try {
+            this.save();
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure %s saving checksums to %s", e, file));
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private Entry stat(final Local local) throws BackgroundException {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(Paths.get(local.getAbsolute()), BasicFileAttributes.class);
+            return new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    null == attributes.fileKey() ? StringUtils.EMPTY : attributes.fileKey().toString());
+        }
+        catch(RuntimeException | IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Guarded by entries
+     */
+    private void load() {
+        if(loaded) {
+            return;
+        }
+        loaded = true;
+        if(!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(file.getAbsolute()))))) {
+            if(in.readInt() != VERSION) {
+                log.warn(String.format("Ignore checksums in %s with unknown version", file));
+                return;
+            }
+            final int count = in.readInt();
+            for(int i = 0; i < count; i++) {
+                final String path = in.readUTF();
+                final Entry entry = new Entry(in.readLong(), in.readLong(), in.readUTF());
+                final int digests = in.readByte();
+                for(int d = 0; d < digests; d++) {
+                    final String algorithm = in.readUTF();
+                    final String hash = in.readUTF();
+                    try {
+                        entry.digests.put(HashAlgorithm.valueOf(algorithm), hash);
+                    }
+                    catch(IllegalArgumentException e) {
+                        log.warn(String.format("Ignore checksum with unknown algorithm %s", algorithm));
+                    }
+                }
+                entries.put(path, entry);
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Loaded %d checksums from %s", entries.size(), file));
+            }
+        }
+        catch(RuntimeException | IOException e) {
+            log.warn(String.format("Failure %s reading checksums from %s", e, file));
+        }
+    }
+
+    private void save() throws AccessDeniedException {
+        synchronized(entries) {
+            if(!dirty) {
+                return;
+            }
+            if(!file.getParent().exists()) {
+                file.getParent().mkdir();
+            }
+            final Local temporary = LocalFactory.get(file.getParent(), String.format("%s.tmp", file.getName()));
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(Paths.get(temporary.getAbsolute()))))) {
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+                    for(Map.Entry<String, Entry> e : entries.entrySet()) {
+                        out.writeUTF(e.getKey());
+                        out.writeLong(e.getValue().size);
+                        out.writeLong(e.getValue().modified);
+                        out.writeUTF(e.getValue().key);
+                        out.writeByte(e.getValue().digests.size());
+                        for(Map.Entry<HashAlgorithm, String> digest : e.getValue().digests.entrySet()) {
+                            out.writeUTF(digest.getKey().name());
+                            out.writeUTF(digest.getValue());
+                        }
+                    }
+                }
+                Files.move(Paths.get(temporary.getAbsolute()), Paths.get(file.getAbsolute()), StandardCopyOption.REPLACE_EXISTING);
+                dirty = false;
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Saved %d checksums to %s", entries.size(), file));
+                }
+            }
+            catch(RuntimeException | IOException e) {
+                throw new LocalAccessDeniedException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long modified;
+        /**
+         * File key such as device and inode or empty if not supported by filesystem
+         */
+        private final String key;
+        private final Map<HashAlgorithm, String> digests = new EnumMap<>(HashAlgorithm.class);
+
+        private Entry(final long size, final long modified, final String key) {
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+        }
+
+        private boolean isValid(final Entry current) {
+            return size == current.size && modified == current.modified && key.equals(current.key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LocalChecksumStore{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
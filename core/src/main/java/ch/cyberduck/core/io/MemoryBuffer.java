@@ -0,0 +1,106 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Buffer in direct memory obtained from pool with fixed capacity
+ */
+public class MemoryBuffer implements Buffer {
+
+    private final BufferPool pool;
+
+    private ByteBuffer memory;
+    private long length = 0L;
+
+    MemoryBuffer(final BufferPool pool, final ByteBuffer memory) {
+        this.pool = pool;
+        this.memory = memory;
+    }
+
+    @Override
+    public synchronized int write(final byte[] chunk, final Long offset) throws IOException {
+        if(null == memory) {
+            throw new IOException("Buffer already closed");
+        }
+        if(offset + chunk.length > memory.capacity()) {
+            throw new IOException(String.format("Chunk of size %d at offset %d exceeds capacity %d", chunk.length, offset, memory.capacity()));
+        }
+        final ByteBuffer target = memory.duplicate();
+        target.position(offset.intValue());
+        target.put(chunk);
+        length = Math.max(length, offset + chunk.length);
+        return chunk.length;
+    }
+
+    @Override
+    public synchronized int read(final byte[] chunk, final Long offset) throws IOException {
+        if(null == memory) {
+            throw new IOException("Buffer already closed");
+        }
+        if(offset >= length) {
+            return IOUtils.EOF;
+        }
+        final int read = (int) Math.min(chunk.length, length - offset);
+        final ByteBuffer source = memory.duplicate();
+        source.position(offset.intValue());
+        source.get(chunk, 0, read);
+        return read;
+    }
+
+    @Override
+    public synchronized Long length() {
+        return length;
+    }
+
+    @Override
+    public synchronized void close() {
+        if(memory != null) {
+            pool.release(memory);
+            memory = null;
+        }
+        length = 0L;
+    }
+
+    @Override
+    public synchronized void truncate(final Long length) {
+        if(null == memory) {
+            return;
+        }
+        final long truncated = Math.min(length, memory.capacity());
+        if(truncated > this.length) {
+            // Clear previous contents of reused memory
+            final ByteBuffer target = memory.duplicate();
+            target.position((int) this.length);
+            while(target.position() < truncated) {
+                target.put((byte) 0);
+            }
+        }
+        this.length = truncated;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MemoryBuffer{");
+        sb.append("length=").append(length);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,161 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collect files with file system events until no further event is received for a quiet period. Repeated events for
+ * the same file are reported once and the kind of event is not retained as the state of the file is determined
+ * when processing the changes.
+ */
+public class CoalescingFileWatcherListener implements FileWatcherListener {
+    private static final Logger log = LogManager.getLogger(CoalescingFileWatcherListener.class);
+
+    private final Set<Local> files = new LinkedHashSet<>();
+    /**
+     * Events lost since last changes returned
+     */
+    private boolean overflow;
+    /**
+     * Time of first event since last changes returned
+     */
+    private long first;
+    /**
+     * Time of last event
+     */
+    private long last;
+
+    @Override
+    public void fileWritten(final Local file) {
+        this.add(file);
+    }
+
+    @Override
+    public void fileDeleted(final Local file) {
+        this.add(file);
+    }
+
+    @Override
+    public void fileCreated(final Local file) {
+        this.add(file);
+    }
+
+    @Override
+    public synchronized void fileOverflow(final Local folder) {
+        log.warn(String.format("Lost events for %s", folder));
+        overflow = true;
+        this.touch();
+    }
+
+    private synchronized void add(final Local file) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Add %s to changes", file));
+        }
+        files.add(file);
+        this.touch();
+    }
+
+    /**
+     * Must hold lock
+     */
+    private void touch() {
+        last = System.currentTimeMillis();
+        if(0L == first) {
+            first = last;
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Block until events are received followed by a quiet period without further events
+     *
+     * @param quiet   Milliseconds without events before changes are returned
+     * @param delay   Maximum milliseconds after first event to return changes while events continue
+     * @param timeout Maximum milliseconds to wait for first event
+     * @return Changes since last call. Empty if no event was received before timeout
+     */
+    public synchronized Changes await(final long quiet, final long delay, final long timeout) throws InterruptedException {
+        final long start = System.currentTimeMillis();
+        while(files.isEmpty() && !overflow) {
+            final long remaining = timeout - (System.currentTimeMillis() - start);
+            if(remaining <= 0L) {
+                return new Changes(Collections.emptySet(), false);
+            }
+            this.wait(remaining);
+        }
+        while(true) {
+            final long now = System.currentTimeMillis();
+            final long wait = Math.min(last + quiet - now, first + delay - now);
+            if(wait <= 0L) {
+                break;
+            }
+            this.wait(wait);
+        }
+        final Changes changes = new Changes(new LinkedHashSet<>(files), overflow);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Return %s", changes));
+        }
+        files.clear();
+        overflow = false;
+        first = 0L;
+        return changes;
+    }
+
+    public static final class Changes {
+        private final Set<Local> files;
+        private final boolean overflow;
+
+        public Changes(final Set<Local> files, final boolean overflow) {
+            this.files = files;
+            this.overflow = overflow;
+        }
+
+        /**
+         * @return Files created, modified or deleted
+         */
+        public Set<Local> getFiles() {
+            return files;
+        }
+
+        /**
+         * @return True if events were lost and files may be missing
+         */
+        public boolean isOverflow() {
+            return overflow;
+        }
+
+        public boolean isEmpty() {
+            return files.isEmpty() && !overflow;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Changes{");
+            sb.append("files=").append(files.size());
+            sb.append(", overflow=").append(overflow);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
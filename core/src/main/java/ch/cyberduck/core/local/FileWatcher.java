@@ -36,19 +36,32 @@ import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Paths;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 
 import static java.nio.file.StandardWatchEventKinds.*;
 
+/**
+ * Dispatch events from watch service to listeners of registered folders. Events for all folders are retrieved from
+ * the watch service by a single thread.
+ */
 public final class FileWatcher {
     private static final Logger log = LogManager.getLogger(FileWatcher.class);
 
     private final RegisterWatchService monitor;
     private final ThreadPool pool;
-    private final Set<Local> registered = new HashSet<>();
+    private final Set<Local> registered = ConcurrentHashMap.newKeySet();
+    /**
+     * Registrations by key returned from watch service
+     */
+    private final Map<WatchKey, Registration> keys = new ConcurrentHashMap<>();
+    /**
+     * Counted down when thread retrieving keys from watch service is running
+     */
+    private CountDownLatch lock;
 
     public FileWatcher() {
         this(WatchServiceFactory.get());
@@ -76,7 +89,7 @@ public final class FileWatcher {
         return this.register(file.getParent(), new DefaultFileFilter(file), listener);
     }
 
-    public CountDownLatch register(final Local folder, final Filter<Local> filter, final FileWatcherListener listener) throws IOException {
+    public synchronized CountDownLatch register(final Local folder, final Filter<Local> filter, final FileWatcherListener listener) throws IOException {
         if(registered.contains(folder)) {
             if(log.isWarnEnabled()) {
                 log.warn(String.format("Skip duplicate registration for %s in %s", folder, monitor));
@@ -91,65 +104,91 @@ public final class FileWatcher {
             throw new IOException(String.format("Failure registering for events in %s", folder));
         }
         registered.add(folder);
-        final CountDownLatch lock = new CountDownLatch(1);
-        pool.execute(new Callable<Boolean>() {
-            @Override
-            public Boolean call() {
-                while(true) {
-                    // wait for key to be signaled
-                    final WatchKey key;
-                    try {
-                        lock.countDown();
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Wait for key from watch service %s", monitor));
-                        }
-                        key = monitor.take();
-                    }
-                    catch(ClosedWatchServiceException e) {
-                        if(log.isWarnEnabled()) {
-                            log.warn(String.format("Exit watching folder %s for closed monitor %s", folder, monitor));
-                        }
-                        // If this watch service is closed
-                        return true;
-                    }
-                    catch(InterruptedException e) {
-                        return false;
-                    }
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Retrieved key %s from watch service %s", key, monitor));
-                    }
-                    for(WatchEvent<?> event : key.pollEvents()) {
-                        final WatchEvent.Kind<?> kind = event.kind();
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Detected file system event %s", kind.name()));
-                        }
-                        if(kind == OVERFLOW) {
-                            log.error(String.format("Overflow event for %s", folder));
-                            continue;
-                        }
-                        // The filename is the context of the event. May be absolute or relative path name.
-                        if(filter.accept(normalize(folder, event.context().toString()))) {
-                            callback(folder, event, listener);
-                        }
-                        else {
-                            log.warn(String.format("Ignored file system event for unknown file %s", event.context()));
-                        }
-                    }
-                    // Reset the key -- this step is critical to receive further watch events.
-                    boolean valid = key.reset();
-                    if(!valid) {
-                        // The key is no longer valid and the loop can exit.
-                        if(log.isWarnEnabled()) {
-                            log.warn(String.format("Exit watching folder %s", folder));
-                        }
-                        return true;
-                    }
+        keys.put(key, new Registration(folder, filter, listener));
+        if(null == lock) {
+            lock = new CountDownLatch(1);
+            pool.execute(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return FileWatcher.this.dispatch();
                 }
-            }
-        });
+            });
+        }
         return lock;
     }
 
+    /**
+     * @return True if watch service is closed
+     */
+    private boolean dispatch() {
+        while(true) {
+            // wait for key to be signaled
+            final WatchKey key;
+            try {
+                lock.countDown();
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Wait for key from watch service %s", monitor));
+                }
+                key = monitor.take();
+            }
+            catch(ClosedWatchServiceException e) {
+                if(log.isWarnEnabled()) {
+                    log.warn(String.format("Exit watching folders %s for closed monitor %s", registered, monitor));
+                }
+                // If this watch service is closed
+                return true;
+            }
+            catch(InterruptedException e) {
+                return false;
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Retrieved key %s from watch service %s", key, monitor));
+            }
+            Registration registration = keys.get(key);
+            if(null == registration) {
+                // Await registration in progress
+                synchronized(this) {
+                    registration = keys.get(key);
+                }
+            }
+            if(null == registration) {
+                log.warn(String.format("Ignore events for unknown key %s", key));
+                key.pollEvents();
+                key.reset();
+                continue;
+            }
+            final Local folder = registration.folder;
+            for(WatchEvent<?> event : key.pollEvents()) {
+                final WatchEvent.Kind<?> kind = event.kind();
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Detected file system event %s", kind.name()));
+                }
+                if(kind == OVERFLOW) {
+                    log.error(String.format("Overflow event for %s", folder));
+                    registration.listener.fileOverflow(folder);
+                    continue;
+                }
+                // The filename is the context of the event. May be absolute or relative path name.
+                if(registration.filter.accept(normalize(folder, event.context().toString()))) {
+                    callback(folder, event, registration.listener);
+                }
+                else {
+                    log.warn(String.format("Ignored file system event for unknown file %s", event.context()));
+                }
+            }
+            // Reset the key -- this step is critical to receive further watch events.
+            boolean valid = key.reset();
+            if(!valid) {
+                // The key is no longer valid such as for a deleted folder
+                if(log.isWarnEnabled()) {
+                    log.warn(String.format("Exit watching folder %s", folder));
+                }
+                keys.remove(key);
+                registered.remove(folder);
+            }
+        }
+    }
+
     private static Local normalize(final Local parent, final String name) {
         if(StringUtils.startsWith(name, String.valueOf(parent.getDelimiter()))) {
             return LocalFactory.get(name);
@@ -181,9 +220,22 @@ public final class FileWatcher {
             monitor.close();
             pool.shutdown(false);
             registered.clear();
+            keys.clear();
         }
         catch(IOException e) {
             log.error("Failure closing file watcher monitor", e);
         }
     }
+
+    private static final class Registration {
+        private final Local folder;
+        private final Filter<Local> filter;
+        private final FileWatcherListener listener;
+
+        private Registration(final Local folder, final Filter<Local> filter, final FileWatcherListener listener) {
+            this.folder = folder;
+            this.filter = filter;
+            this.listener = listener;
+        }
+    }
 }
@@ -42,4 +42,13 @@ public interface FileWatcherListener {
      * @param file File that triggered event
      */
     void fileCreated(Local file);
+
+    /**
+     * Events for files in folder have been lost
+     *
+     * @param folder Registered folder
+     */
+    default void fileOverflow(Local folder) {
+        //
+    }
 }
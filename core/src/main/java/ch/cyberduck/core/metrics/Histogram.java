@@ -0,0 +1,96 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of values in buckets with upper bounds of powers of two. Percentiles are approximated by the upper
+ * bound of the bucket.
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value Non negative value such as latency in milliseconds
+     */
+    public void record(final long value) {
+        final long v = Math.max(0L, value);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v)));
+        count.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        final long n = this.getCount();
+        if(0L == n) {
+            return 0d;
+        }
+        return (double) this.getSum() / n;
+    }
+
+    /**
+     * @param percentile Value between 0 and 1
+     * @return Upper bound of bucket containing percentile or 0 if no values are recorded
+     */
+    public long getPercentile(final double percentile) {
+        final long n = this.getCount();
+        if(0L == n) {
+            return 0L;
+        }
+        final long rank = (long) Math.ceil(percentile * n);
+        long cumulative = 0L;
+        for(int i = 0; i < BUCKETS; i++) {
+            cumulative += buckets.get(i);
+            if(cumulative >= rank) {
+                // Bucket i contains values up to 2^i - 1
+                return Math.min((1L << i) - 1, this.getMax());
+            }
+        }
+        return this.getMax();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Histogram{");
+        sb.append("count=").append(this.getCount());
+        sb.append(", mean=").append(this.getMean());
+        sb.append(", max=").append(this.getMax());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.CountingMetrics;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.cache.LRUCache;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Process wide latency histograms by operation, retry counts and throughput by connection. Recording is a no-op
+ * unless enabled with <code>metrics.enable</code>.
+ */
+public final class PerformanceMetrics extends CountingMetrics implements PerformanceMetricsMBean {
+    private static final Logger log = LogManager.getLogger(PerformanceMetrics.class);
+
+    private static final class Holder {
+        private static final PerformanceMetrics instance = new PerformanceMetrics(
+                PreferencesFactory.get().getBoolean("metrics.enable"),
+                PreferencesFactory.get().getInteger("metrics.connections.size"));
+
+        static {
+            if(instance.isEnabled()) {
+                instance.register();
+            }
+        }
+    }
+
+    /**
+     * @return Metrics shared by all sessions
+     */
+    public static PerformanceMetrics get() {
+        return Holder.instance;
+    }
+
+    public enum Operation {
+        /**
+         * Directory listing
+         */
+        list,
+        /**
+         * Reading attributes of single file
+         */
+        stat,
+        /**
+         * Download of file or segment
+         */
+        read,
+        /**
+         * Upload of file
+         */
+        write,
+        /**
+         * Transfer of part of multipart upload or segmented download
+         */
+        part,
+        /**
+         * HTTP request until response headers are received
+         */
+        request,
+        /**
+         * Time to first byte after HTTP request is sent
+         */
+        ttfb,
+        /**
+         * Wait for session from connection pool
+         */
+        borrow,
+        /**
+         * Pause before retry
+         */
+        backoff
+    }
+
+    public enum Statistic {
+        retry,
+        backoff
+    }
+
+    private final boolean enabled;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    /**
+     * Bytes and milliseconds transferred by connection with least recently used connections evicted
+     */
+    private final LRUCache<String, LongAdder[]> connections;
+
+    public PerformanceMetrics(final boolean enabled) {
+        this(enabled, 100);
+    }
+
+    /**
+     * @param size Maximum number of connections to keep throughput for
+     */
+    public PerformanceMetrics(final boolean enabled, final int size) {
+        this.enabled = enabled;
+        this.connections = LRUCache.usingLoader(k -> new LongAdder[]{new LongAdder(), new LongAdder()}, size);
+        for(Operation operation : Operation.values()) {
+            histograms.put(operation, new Histogram());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param operation Type of operation
+     * @param millis    Latency in milliseconds
+     */
+    public void record(final Operation operation, final long millis) {
+        if(!enabled) {
+            return;
+        }
+        histograms.get(operation).record(millis);
+    }
+
+    /**
+     * @param start Timestamp in nanoseconds when operation was started
+     */
+    public void elapsed(final Operation operation, final long start) {
+        this.record(operation, (System.nanoTime() - start) / 1000000L);
+    }
+
+    /**
+     * @param host       Server connected to
+     * @param connection Session used for transfer
+     * @param bytes      Number of bytes sent and received
+     * @param millis     Duration of transfer
+     */
+    public void transferred(final Host host, final Object connection, final long bytes, final long millis) {
+        if(!enabled) {
+            return;
+        }
+        final LongAdder[] counters = connections.get(String.format("%s#%d", host.getHostname(),
+                System.identityHashCode(connection)));
+        counters[0].add(bytes);
+        counters[1].add(millis);
+    }
+
+    @Override
+    public <T> void increment(final T key) {
+        if(!enabled) {
+            return;
+        }
+        super.increment(key);
+    }
+
+    public Histogram getHistogram(final Operation operation) {
+        return histograms.get(operation);
+    }
+
+    @Override
+    public long getRetries() {
+        return this.get(Statistic.retry);
+    }
+
+    @Override
+    public long getBackoffs() {
+        return this.get(Statistic.backoff);
+    }
+
+    @Override
+    public long getCount(final String operation) {
+        return histograms.get(Operation.valueOf(operation)).getCount();
+    }
+
+    @Override
+    public double getMean(final String operation) {
+        return histograms.get(Operation.valueOf(operation)).getMean();
+    }
+
+    @Override
+    public long getPercentile(final String operation, final double percentile) {
+        return histograms.get(Operation.valueOf(operation)).getPercentile(percentile);
+    }
+
+    @Override
+    public String getSnapshot() {
+        final JsonObject json = new JsonObject();
+        json.addProperty("timestamp", System.currentTimeMillis());
+        final JsonObject operations = new JsonObject();
+        for(Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            final Histogram histogram = entry.getValue();
+            if(0L == histogram.getCount()) {
+                continue;
+            }
+            final JsonObject latency = new JsonObject();
+            latency.addProperty("count", histogram.getCount());
+            latency.addProperty("mean", histogram.getMean());
+            latency.addProperty("p50", histogram.getPercentile(0.5));
+            latency.addProperty("p90", histogram.getPercentile(0.9));
+            latency.addProperty("p99", histogram.getPercentile(0.99));
+            latency.addProperty("max", histogram.getMax());
+            operations.add(entry.getKey().name(), latency);
+        }
+        json.add("latency", operations);
+        final JsonObject counters = new JsonObject();
+        for(Statistic statistic : Statistic.values()) {
+            counters.addProperty(statistic.name(), this.get(statistic));
+        }
+        json.add("counters", counters);
+        final JsonObject throughput = new JsonObject();
+        for(Map.Entry<String, LongAdder[]> entry : connections.asMap().entrySet()) {
+            final long bytes = entry.getValue()[0].sum();
+            final long millis = entry.getValue()[1].sum();
+            final JsonObject connection = new JsonObject();
+            connection.addProperty("bytes", bytes);
+            connection.addProperty("millis", millis);
+            connection.addProperty("rate", millis > 0 ? bytes * 1000L / millis : 0L);
+            throughput.add(entry.getKey(), connection);
+        }
+        json.add("connections", throughput);
+        return json.toString();
+    }
+
+    private void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("ch.cyberduck:type=PerformanceMetrics"));
+        }
+        catch(JMException | SecurityException e) {
+            log.warn(String.format("Failure registering metrics with MBean server. %s", e.getMessage()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PerformanceMetrics{");
+        sb.append("enabled=").append(enabled);
+        sb.append(", histograms=").append(histograms);
+        sb.append('}');
+        return sb.toString();
+    }
+}
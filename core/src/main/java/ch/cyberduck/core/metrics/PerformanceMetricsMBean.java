@@ -0,0 +1,50 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+/**
+ * Management interface registered with the platform MBean server
+ */
+public interface PerformanceMetricsMBean {
+
+    /**
+     * @return All metrics as JSON document
+     */
+    String getSnapshot();
+
+    long getRetries();
+
+    long getBackoffs();
+
+    /**
+     * @param operation Name of operation
+     * @return Number of operations recorded
+     */
+    long getCount(String operation);
+
+    /**
+     * @param operation Name of operation
+     * @return Average latency in milliseconds
+     */
+    double getMean(String operation);
+
+    /**
+     * @param operation  Name of operation
+     * @param percentile Value between 0 and 1
+     * @return Approximate latency in milliseconds
+     */
+    long getPercentile(String operation, double percentile);
+}
@@ -0,0 +1,55 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.AttributesFinder;
+
+/**
+ * Record latency of reading attributes
+ */
+public class TimingAttributesFinder implements AttributesFinder {
+
+    private final AttributesFinder delegate;
+    private final PerformanceMetrics metrics;
+
+    public TimingAttributesFinder(final AttributesFinder delegate, final PerformanceMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public PathAttributes find(final Path file, final ListProgressListener listener) throws BackgroundException {
+        final long start = System.nanoTime();
+        try {
+            return delegate.find(file, listener);
+        }
+        finally {
+            metrics.elapsed(PerformanceMetrics.Operation.stat, start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TimingAttributesFinder{");
+        sb.append("delegate=").append(delegate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
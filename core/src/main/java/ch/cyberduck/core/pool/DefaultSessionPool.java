@@ -22,6 +22,7 @@ import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.PerformanceMetrics;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -132,6 +133,8 @@ public class DefaultSessionPool implements SessionPool {
         if(numActive > POOL_WARNING_THRESHOLD) {
             log.warn(String.format("Possibly large number of open connections (%d) in pool %s", numActive, this));
         }
+        // Include time waiting for pool exhausted
+        final long start = System.nanoTime();
         try {
             while(!callback.isCanceled()) {
                 try {
@@ -139,6 +142,7 @@ public class DefaultSessionPool implements SessionPool {
                         log.info(String.format("Borrow session from pool %s", this));
                     }
                     final Session<?> session = pool.borrowObject();
+                    PerformanceMetrics.get().elapsed(PerformanceMetrics.Operation.borrow, start);
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Borrowed session %s from pool %s", session, this));
                     }
@@ -20,6 +20,8 @@ package ch.cyberduck.core.proxy;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.socket.DefaultSocketConfigurator;
 import ch.cyberduck.core.socket.HttpProxySocketFactory;
+import ch.cyberduck.core.socket.RacingSocket;
+import ch.cyberduck.core.socket.RacingSocketConnector;
 import ch.cyberduck.core.socket.SocketConfigurator;
 
 import org.apache.commons.net.DefaultSocketFactory;
@@ -46,6 +48,11 @@ public class ProxySocketFactory extends SocketFactory {
     private final List<Proxy.Type> types = new ArrayList<>(
             Arrays.asList(Proxy.Type.DIRECT, Proxy.Type.SOCKS, Proxy.Type.HTTP, Proxy.Type.HTTPS));
 
+    /**
+     * Race connection attempts to all addresses of hostname for direct connections when set
+     */
+    private RacingSocketConnector connector;
+
     public ProxySocketFactory(final Host host) {
         this(host, new DefaultSocketConfigurator());
     }
@@ -100,6 +107,12 @@ public class ProxySocketFactory extends SocketFactory {
 
     @Override
     public Socket createSocket() throws IOException {
+        if(connector != null) {
+            if(proxyFinder.find(new ProxyHostUrlProvider().get(host)).getType() == Proxy.Type.DIRECT) {
+                // Attempts are configured when connecting
+                return new RacingSocket(new DefaultSocketFactory(), configurator, connector);
+            }
+        }
         try {
             final Socket socket = this.factory().createSocket();
             configurator.configure(socket);
@@ -164,6 +177,15 @@ public class ProxySocketFactory extends SocketFactory {
         }
     }
 
+    /**
+     * Unconnected sockets returned for direct connections race connection attempts to all addresses of the hostname
+     * connected to
+     */
+    public ProxySocketFactory withRacing(final RacingSocketConnector connector) {
+        this.connector = connector;
+        return this;
+    }
+
     public ProxySocketFactory disable(final Proxy.Type type) {
         types.remove(type);
         return this;
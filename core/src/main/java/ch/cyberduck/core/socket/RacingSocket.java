@@ -0,0 +1,348 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.Resolver;
+import ch.cyberduck.core.exception.ResolveCanceledException;
+import ch.cyberduck.core.exception.ResolveFailedException;
+
+import org.apache.http.conn.util.InetAddressUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Unconnected socket racing connection attempts to all addresses of the hostname of the endpoint when connected.
+ * Delegates to the socket of the first attempt established. Options set before connecting are applied to every
+ * attempt. Endpoints given as address literal are connected to directly.
+ */
+public class RacingSocket extends Socket {
+    private static final Logger log = LogManager.getLogger(RacingSocket.class);
+
+    private final SocketFactory factory;
+    private final SocketConfigurator configurator;
+    private final RacingSocketConnector connector;
+
+    /**
+     * Connected socket
+     */
+    private volatile Socket delegate;
+    private volatile boolean closed;
+
+    private Integer soTimeout;
+    private Boolean tcpNoDelay;
+    private Boolean keepAlive;
+    private Integer receiveBufferSize;
+    private Integer sendBufferSize;
+    private Integer soLinger;
+
+    /**
+     * @param factory      Creates unconnected socket for every attempt
+     * @param configurator Configures socket of every attempt
+     * @param connector    Races attempts
+     */
+    public RacingSocket(final SocketFactory factory, final SocketConfigurator configurator, final RacingSocketConnector connector) {
+        this.factory = factory;
+        this.configurator = configurator;
+        this.connector = connector;
+    }
+
+    @Override
+    public void connect(final SocketAddress endpoint) throws IOException {
+        this.connect(endpoint, 0);
+    }
+
+    @Override
+    public void connect(final SocketAddress endpoint, final int timeout) throws IOException {
+        if(closed) {
+            throw new SocketException("Socket is closed");
+        }
+        if(delegate != null) {
+            throw new SocketException("Already connected");
+        }
+        final InetSocketAddress address = (InetSocketAddress) endpoint;
+        final Socket socket = connector.connect(this.resolve(address), target -> {
+            final Socket s = this.attempt();
+            try {
+                s.connect(new InetSocketAddress(target, address.getPort()), timeout);
+            }
+            catch(IOException e) {
+                s.close();
+                throw e;
+            }
+            return s;
+        });
+        delegate = socket;
+        if(closed) {
+            // Closed while connecting
+            socket.close();
+            throw new SocketException("Socket is closed");
+        }
+    }
+
+    /**
+     * @return All addresses of hostname or address of endpoint if given as literal or failing to resolve
+     */
+    private InetAddress[] resolve(final InetSocketAddress endpoint) throws IOException {
+        final String hostname = endpoint.getHostString();
+        if(InetAddressUtils.isIPv4Address(hostname) || InetAddressUtils.isIPv6Address(hostname)) {
+            return new InetAddress[]{this.address(endpoint)};
+        }
+        try {
+            return new Resolver().resolveAll(hostname, new DisabledCancelCallback());
+        }
+        catch(ResolveFailedException | ResolveCanceledException e) {
+            log.warn(String.format("Failure resolving %s. %s", hostname, e.getMessage()));
+            return new InetAddress[]{this.address(endpoint)};
+        }
+    }
+
+    private InetAddress address(final InetSocketAddress endpoint) throws IOException {
+        if(endpoint.isUnresolved()) {
+            return InetAddress.getByName(endpoint.getHostString());
+        }
+        return endpoint.getAddress();
+    }
+
+    /**
+     * @return Unconnected socket with options applied
+     */
+    private Socket attempt() throws IOException {
+        final Socket socket = factory.createSocket();
+        configurator.configure(socket);
+        if(soTimeout != null) {
+            socket.setSoTimeout(soTimeout);
+        }
+        if(tcpNoDelay != null) {
+            socket.setTcpNoDelay(tcpNoDelay);
+        }
+        if(keepAlive != null) {
+            socket.setKeepAlive(keepAlive);
+        }
+        if(receiveBufferSize != null) {
+            socket.setReceiveBufferSize(receiveBufferSize);
+        }
+        if(sendBufferSize != null) {
+            socket.setSendBufferSize(sendBufferSize);
+        }
+        if(soLinger != null) {
+            socket.setSoLinger(soLinger >= 0, Math.max(0, soLinger));
+        }
+        return socket;
+    }
+
+    private Socket connected() throws SocketException {
+        if(null == delegate) {
+            throw new SocketException("Socket is not connected");
+        }
+        return delegate;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return this.connected().getInputStream();
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        return this.connected().getOutputStream();
+    }
+
+    @Override
+    public void bind(final SocketAddress bindpoint) throws IOException {
+        throw new SocketException("Binding not supported");
+    }
+
+    @Override
+    public InetAddress getInetAddress() {
+        return null == delegate ? null : delegate.getInetAddress();
+    }
+
+    @Override
+    public InetAddress getLocalAddress() {
+        return null == delegate ? super.getLocalAddress() : delegate.getLocalAddress();
+    }
+
+    @Override
+    public int getPort() {
+        return null == delegate ? 0 : delegate.getPort();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return null == delegate ? -1 : delegate.getLocalPort();
+    }
+
+    @Override
+    public SocketAddress getRemoteSocketAddress() {
+        return null == delegate ? null : delegate.getRemoteSocketAddress();
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return null == delegate ? null : delegate.getLocalSocketAddress();
+    }
+
+    @Override
+    public SocketChannel getChannel() {
+        return null == delegate ? null : delegate.getChannel();
+    }
+
+    @Override
+    public void setTcpNoDelay(final boolean on) throws SocketException {
+        tcpNoDelay = on;
+        if(delegate != null) {
+            delegate.setTcpNoDelay(on);
+        }
+    }
+
+    @Override
+    public boolean getTcpNoDelay() throws SocketException {
+        return null == delegate ? Boolean.TRUE.equals(tcpNoDelay) : delegate.getTcpNoDelay();
+    }
+
+    @Override
+    public void setSoLinger(final boolean on, final int linger) throws SocketException {
+        soLinger = on ? linger : -1;
+        if(delegate != null) {
+            delegate.setSoLinger(on, linger);
+        }
+    }
+
+    @Override
+    public int getSoLinger() throws SocketException {
+        return null == delegate ? (null == soLinger ? -1 : soLinger) : delegate.getSoLinger();
+    }
+
+    @Override
+    public void sendUrgentData(final int data) throws IOException {
+        this.connected().sendUrgentData(data);
+    }
+
+    @Override
+    public void setSoTimeout(final int timeout) throws SocketException {
+        soTimeout = timeout;
+        if(delegate != null) {
+            delegate.setSoTimeout(timeout);
+        }
+    }
+
+    @Override
+    public int getSoTimeout() throws SocketException {
+        return null == delegate ? (null == soTimeout ? 0 : soTimeout) : delegate.getSoTimeout();
+    }
+
+    @Override
+    public void setSendBufferSize(final int size) throws SocketException {
+        sendBufferSize = size;
+        if(delegate != null) {
+            delegate.setSendBufferSize(size);
+        }
+    }
+
+    @Override
+    public int getSendBufferSize() throws SocketException {
+        return null == delegate ? (null == sendBufferSize ? 0 : sendBufferSize) : delegate.getSendBufferSize();
+    }
+
+    @Override
+    public void setReceiveBufferSize(final int size) throws SocketException {
+        receiveBufferSize = size;
+        if(delegate != null) {
+            delegate.setReceiveBufferSize(size);
+        }
+    }
+
+    @Override
+    public int getReceiveBufferSize() throws SocketException {
+        return null == delegate ? (null == receiveBufferSize ? 0 : receiveBufferSize) : delegate.getReceiveBufferSize();
+    }
+
+    @Override
+    public void setKeepAlive(final boolean on) throws SocketException {
+        keepAlive = on;
+        if(delegate != null) {
+            delegate.setKeepAlive(on);
+        }
+    }
+
+    @Override
+    public boolean getKeepAlive() throws SocketException {
+        return null == delegate ? Boolean.TRUE.equals(keepAlive) : delegate.getKeepAlive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if(delegate != null) {
+            delegate.close();
+        }
+    }
+
+    @Override
+    public void shutdownInput() throws IOException {
+        this.connected().shutdownInput();
+    }
+
+    @Override
+    public void shutdownOutput() throws IOException {
+        this.connected().shutdownOutput();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return null != delegate && delegate.isConnected();
+    }
+
+    @Override
+    public boolean isBound() {
+        return null != delegate && delegate.isBound();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean isInputShutdown() {
+        return null != delegate && delegate.isInputShutdown();
+    }
+
+    @Override
+    public boolean isOutputShutdown() {
+        return null != delegate && delegate.isOutputShutdown();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RacingSocket{");
+        sb.append("delegate=").append(delegate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,155 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.NamedThreadFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connect to the first reachable of multiple addresses for a hostname. Attempts are started in order with a delay
+ * after the previous attempt unless it failed before (Happy Eyeballs, RFC 8305). The first established connection
+ * is returned and connections completing later are closed.
+ */
+public class RacingSocketConnector {
+    private static final Logger log = LogManager.getLogger(RacingSocketConnector.class);
+
+    private static final class Holder {
+        private static final ExecutorService executor = Executors.newCachedThreadPool(new NamedThreadFactory("connect"));
+    }
+
+    /**
+     * Delay in milliseconds before starting the next attempt
+     */
+    private final long delay;
+
+    public RacingSocketConnector() {
+        this(PreferencesFactory.get().getLong("connection.dns.race.delay"));
+    }
+
+    public RacingSocketConnector(final long delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * @param addresses Addresses in order of preference
+     * @param attempt   Connect to single address
+     * @return Connected socket of first successful attempt
+     * @throws IOException Failure of last attempt when no connection can be established
+     */
+    public Socket connect(final InetAddress[] addresses, final Attempt attempt) throws IOException {
+        if(addresses.length == 1) {
+            return attempt.connect(addresses[0]);
+        }
+        final CompletionService<Socket> completion = new ExecutorCompletionService<>(Holder.executor);
+        final AtomicBoolean connected = new AtomicBoolean();
+        int started = 0;
+        int failed = 0;
+        IOException failure = null;
+        while(true) {
+            if(started == failed && started < addresses.length) {
+                // Start next attempt immediately when all previous attempts failed
+                this.submit(completion, connected, addresses[started++], attempt);
+            }
+            final Future<Socket> done;
+            try {
+                done = started < addresses.length ? completion.poll(delay, TimeUnit.MILLISECONDS) : completion.take();
+            }
+            catch(InterruptedException e) {
+                // Close any connection established later
+                connected.set(true);
+                throw new InterruptedIOException(e.getMessage());
+            }
+            if(null == done) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("No connection after %dms. Start attempt for %s", delay, addresses[started]));
+                }
+                this.submit(completion, connected, addresses[started++], attempt);
+                continue;
+            }
+            try {
+                return done.get();
+            }
+            catch(InterruptedException e) {
+                connected.set(true);
+                throw new InterruptedIOException(e.getMessage());
+            }
+            catch(ExecutionException e) {
+                failed++;
+                if(e.getCause() instanceof IOException) {
+                    failure = (IOException) e.getCause();
+                }
+                else {
+                    failure = new SocketException(e.getCause().getMessage());
+                }
+                if(failed == addresses.length) {
+                    throw failure;
+                }
+            }
+        }
+    }
+
+    private void submit(final CompletionService<Socket> completion, final AtomicBoolean connected,
+                        final InetAddress address, final Attempt attempt) {
+        completion.submit(() -> {
+            final Socket socket = attempt.connect(address);
+            // Only the first connection established wins the race
+            if(!connected.compareAndSet(false, true)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Close connection %s established after winner", socket));
+                }
+                socket.close();
+                throw new SocketException(String.format("Connection to %s not used", address));
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Connected to %s", address));
+            }
+            return socket;
+        });
+    }
+
+    public interface Attempt {
+        /**
+         * @param address Single address to connect to
+         * @return Connected socket
+         */
+        Socket connect(InetAddress address) throws IOException;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RacingSocketConnector{");
+        sb.append("delay=").append(delay);
+        sb.append('}');
+        return sb.toString();
+    }
+}
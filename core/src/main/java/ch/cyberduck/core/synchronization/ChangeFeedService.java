@@ -0,0 +1,233 @@
+package ch.cyberduck.core.synchronization;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChangeFeed;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Apply changes reported by server since last update to cached directory listings. The cursor is kept in memory
+ * per directory for as long as the cached listings it was obtained for.
+ */
+public class ChangeFeedService {
+    private static final Logger log = LogManager.getLogger(ChangeFeedService.class);
+
+    private final Cache<Path> cache;
+    /**
+     * Cursor by absolute path of directory
+     */
+    private final Map<String, String> cursors = new ConcurrentHashMap<>();
+
+    public ChangeFeedService(final Cache<Path> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @param feed      Changes reported by server
+     * @param directory Root of tree
+     * @return Files changed or deleted since last update or null if no previous cursor is known or it has expired.
+     * Cached directory listings cannot be trusted in the latter case.
+     */
+    public Set<Path> update(final ChangeFeed feed, final Path directory) throws BackgroundException {
+        final String previous = cursors.get(directory.getAbsolute());
+        if(null == previous) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("No cursor for %s", directory));
+            }
+            // Obtain cursor before listing to not miss any change
+            cursors.put(directory.getAbsolute(), feed.cursor(directory));
+            return null;
+        }
+        final Index index = new Index();
+        final Set<Path> changes = new LinkedHashSet<>();
+        final String next = feed.changes(directory, previous, new ChangeFeed.Listener() {
+            @Override
+            public void changed(final Path file) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Changed file %s", file));
+                }
+                changes.add(file);
+                final Path moved = index.find(file);
+                if(moved != null && !moved.getAbsolute().equals(file.getAbsolute())) {
+                    // Moved or renamed
+                    index.remove(moved);
+                }
+                final Path parent = index.directories.get(file.getParent().getAbsolute());
+                if(parent != null) {
+                    index.remove(parent, file.getName());
+                    final Path changed = new Path(parent, file.getName(), file.getType(), file.attributes());
+                    final AttributedList<Path> list = new AttributedList<>(cache.get(parent));
+                    list.add(changed);
+                    cache.put(parent, list);
+                    index.add(changed);
+                }
+            }
+
+            @Override
+            public void deleted(final Path file) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Deleted file %s", file));
+                }
+                changes.add(file);
+                index.remove(index.find(file));
+                // Type of deleted file may be unknown
+                index.remove(file);
+            }
+        });
+        if(null == next) {
+            log.warn(String.format("Expired cursor for %s", directory));
+            cursors.put(directory.getAbsolute(), feed.cursor(directory));
+            return null;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Applied %d changes in %s", changes.size(), directory));
+        }
+        cursors.put(directory.getAbsolute(), next);
+        return changes;
+    }
+
+    /**
+     * Forget cursor when cached listings are discarded
+     */
+    public void reset() {
+        cursors.clear();
+    }
+
+    /**
+     * Cached directory listings by path and cached files by identifier built once for all changes
+     */
+    private final class Index {
+        /**
+         * Key of cached listing by absolute path determined from parent of first child or from folder in parent
+         * listing for empty listings
+         */
+        private final Map<String, Path> directories = new HashMap<>();
+        /**
+         * Key of cached listing containing file by file identifier
+         */
+        private final Map<String, Path> files = new HashMap<>();
+
+        private Index() {
+            for(AttributedList<Path> list : new ArrayList<>(cache.asMap().values())) {
+                if(list.isEmpty()) {
+                    continue;
+                }
+                final Path directory = list.get(0).getParent();
+                directories.put(directory.getAbsolute(), directory);
+                for(Path f : list) {
+                    this.add(f);
+                    if(f.isDirectory() && cache.isCached(f)) {
+                        directories.putIfAbsent(f.getAbsolute(), f);
+                    }
+                }
+            }
+        }
+
+        private void add(final Path file) {
+            if(StringUtils.isNotBlank(file.attributes().getFileId())) {
+                files.put(file.attributes().getFileId(), file.getParent());
+            }
+        }
+
+        /**
+         * @return Cached file with same identifier or null
+         */
+        private Path find(final Path file) {
+            final String id = file.attributes().getFileId();
+            if(StringUtils.isBlank(id)) {
+                return null;
+            }
+            final Path parent = files.get(id);
+            if(null == parent) {
+                return null;
+            }
+            for(Path f : cache.get(parent)) {
+                if(StringUtils.equals(id, f.attributes().getFileId())) {
+                    return f;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Remove file from listing of parent and cached listings of file and its descendants
+         */
+        private void remove(final Path file) {
+            if(null == file) {
+                return;
+            }
+            final Path parent = directories.get(file.getParent().getAbsolute());
+            if(parent != null) {
+                this.remove(parent, file.getName());
+            }
+            final Path listed = directories.remove(file.getAbsolute());
+            if(listed != null) {
+                cache.remove(listed);
+                // Descendants can only be cached when listed recursively
+                for(Path descendant : new ArrayList<>(directories.values())) {
+                    if(descendant.isChild(listed)) {
+                        directories.remove(descendant.getAbsolute());
+                        cache.remove(descendant);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Remove entries with same name regardless of type from cached listing
+         */
+        private void remove(final Path parent, final String name) {
+            final AttributedList<Path> list = new AttributedList<>(cache.get(parent));
+            final List<Path> found = new ArrayList<>();
+            for(Path f : list) {
+                if(f.getName().equals(name)) {
+                    found.add(f);
+                    if(StringUtils.isNotBlank(f.attributes().getFileId())) {
+                        files.remove(f.attributes().getFileId());
+                    }
+                }
+            }
+            if(found.isEmpty()) {
+                return;
+            }
+            list.removeAll(found);
+            cache.put(parent, list);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ChangeFeedService{");
+        sb.append("cache=").append(cache);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -28,12 +28,11 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.HashAlgorithm;
+import ch.cyberduck.core.io.LocalChecksumStore;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.TransferItem;
-import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -48,8 +47,14 @@ public class DefaultComparePathFilter implements ComparePathFilter {
     private AttributesFinder attribute;
 
     private final ComparisonService comparison;
+    private final LocalChecksumStore checksums;
 
     public DefaultComparePathFilter(final Session<?> session) {
+        this(session, LocalChecksumStore.get());
+    }
+
+    public DefaultComparePathFilter(final Session<?> session, final LocalChecksumStore checksums) {
+        this.checksums = checksums;
         this.finder = session.getFeature(Find.class, new DefaultFindFeature(session));
         this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
         this.comparison = session.getFeature(ComparisonService.class);
@@ -123,6 +128,6 @@ public class DefaultComparePathFilter implements ComparePathFilter {
     }
 
     protected Checksum checksum(final HashAlgorithm algorithm, final Local local) throws BackgroundException {
-        return ChecksumComputeFactory.get(algorithm).compute(local.getInputStream(), new TransferStatus());
+        return checksums.compute(algorithm, local);
     }
 }
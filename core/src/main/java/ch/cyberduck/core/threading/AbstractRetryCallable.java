@@ -23,6 +23,7 @@ import ch.cyberduck.core.diagnostics.ReachabilityFactory;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.metrics.PerformanceMetrics;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -99,7 +100,11 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
         if(log.isWarnEnabled()) {
             log.warn(String.format("Retry for failure %s with delay of %ds", failure, delay));
         }
+        final PerformanceMetrics metrics = PerformanceMetrics.get();
+        metrics.increment(PerformanceMetrics.Statistic.retry);
         if(delay > 0) {
+            metrics.increment(PerformanceMetrics.Statistic.backoff);
+            final long start = System.nanoTime();
             final BackgroundActionPauser pause = new BackgroundActionPauser(new BackgroundActionPauser.Callback() {
                 @Override
                 public void validate() throws ConnectionCanceledException {
@@ -118,6 +123,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
                 }
             }, delay);
             pause.await();
+            metrics.elapsed(PerformanceMetrics.Operation.backoff, start);
         }
         // Exponential backoff
         if(preferences.getBoolean("connection.retry.backoff.enable")) {
@@ -0,0 +1,266 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.PerformanceMetrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parts of a single file submitted to the shared {@link PartTransferScheduler}. Shutting down only affects parts
+ * of this file.
+ */
+public final class PartThreadPool implements ThreadPool {
+    private static final Logger log = LogManager.getLogger(PartThreadPool.class);
+
+    private final PartTransferScheduler scheduler;
+    private final Host host;
+    private final int concurrency;
+    /**
+     * Number of bytes to transfer for file
+     */
+    private final long length;
+
+    private final Deque<Part<?>> queued = new ArrayDeque<>();
+    private final Set<Part<?>> running = new HashSet<>();
+    /**
+     * Bytes in completed parts
+     */
+    private long sent;
+    private boolean shutdown;
+
+    PartThreadPool(final PartTransferScheduler scheduler, final Host host, final int concurrency, final long length) {
+        this.scheduler = scheduler;
+        this.host = host;
+        this.concurrency = Math.max(1, concurrency);
+        this.length = length;
+    }
+
+    @Override
+    public <T> Future<T> execute(final Callable<T> command) {
+        try {
+            return this.execute(command, 0L);
+        }
+        catch(ConnectionCanceledException e) {
+            log.warn(String.format("Interrupted submitting part %s to %s", command, this));
+            final Part<T> part = new Part<>(command, 0L);
+            part.cancel(false);
+            return part;
+        }
+    }
+
+    /**
+     * Blocks until the budget of the scheduler allows another part
+     *
+     * @param command Part transfer
+     * @param length  Number of bytes transferred with part
+     * @return Future result
+     * @throws ConnectionCanceledException Interrupted while waiting for other parts to complete
+     */
+    public <T> Future<T> execute(final Callable<T> command, final long length) throws ConnectionCanceledException {
+        final Part<T> part = new Part<>(command, length);
+        scheduler.acquire(length);
+        final boolean rejected;
+        synchronized(this) {
+            rejected = shutdown;
+            if(!rejected) {
+                queued.add(part);
+            }
+        }
+        if(rejected) {
+            log.warn(String.format("Reject part %s for shutdown pool %s", command, this));
+            part.cancel(false);
+            scheduler.release(this, length, false);
+            return part;
+        }
+        scheduler.enqueue(this);
+        return part;
+    }
+
+    @Override
+    public void shutdown(final boolean gracefully) {
+        final List<Part<?>> canceled;
+        synchronized(this) {
+            shutdown = true;
+            if(gracefully) {
+                canceled = null;
+            }
+            else {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Cancel %d queued and %d running parts in %s", queued.size(), running.size(), this));
+                }
+                canceled = new ArrayList<>(queued);
+                queued.clear();
+                for(Part<?> part : running) {
+                    part.cancel(true);
+                }
+            }
+        }
+        if(canceled != null) {
+            for(Part<?> part : canceled) {
+                part.cancel(false);
+                scheduler.release(this, part.length, false);
+            }
+        }
+        try {
+            synchronized(this) {
+                while(!queued.isEmpty() || !running.isEmpty()) {
+                    this.wait(TimeUnit.SECONDS.toMillis(1L));
+                }
+            }
+        }
+        catch(InterruptedException e) {
+            log.error(String.format("Failure awaiting completion of parts. %s", e.getMessage()));
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            scheduler.remove(this);
+        }
+    }
+
+    @Override
+    public AbstractExecutorService executor() {
+        return new AbstractExecutorService() {
+            @Override
+            public void shutdown() {
+                PartThreadPool.this.shutdown(true);
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                PartThreadPool.this.shutdown(false);
+                return Collections.emptyList();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                synchronized(PartThreadPool.this) {
+                    return shutdown;
+                }
+            }
+
+            @Override
+            public boolean isTerminated() {
+                synchronized(PartThreadPool.this) {
+                    return shutdown && queued.isEmpty() && running.isEmpty();
+                }
+            }
+
+            @Override
+            public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+                final long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+                synchronized(PartThreadPool.this) {
+                    while(!this.isTerminated()) {
+                        final long wait = deadline - System.currentTimeMillis();
+                        if(wait <= 0) {
+                            return false;
+                        }
+                        PartThreadPool.this.wait(wait);
+                    }
+                    return true;
+                }
+            }
+
+            @Override
+            public void execute(final Runnable command) {
+                PartThreadPool.this.execute(Executors.callable(command));
+            }
+        };
+    }
+
+    Host getHost() {
+        return host;
+    }
+
+    /**
+     * @return True if a part is queued and less than the allowed number of parts is running
+     */
+    synchronized boolean isEligible() {
+        return !queued.isEmpty() && running.size() < concurrency;
+    }
+
+    /**
+     * @return Number of bytes of file not yet transferred in completed parts
+     */
+    synchronized long getRemaining() {
+        return length - sent;
+    }
+
+    synchronized Part<?> poll() {
+        final Part<?> part = queued.poll();
+        if(part != null) {
+            running.add(part);
+        }
+        return part;
+    }
+
+    private void complete(final Part<?> part) {
+        synchronized(this) {
+            running.remove(part);
+            sent += part.length;
+            this.notifyAll();
+        }
+        scheduler.release(this, part.length, true);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PartThreadPool{");
+        sb.append("host=").append(host);
+        sb.append(", concurrency=").append(concurrency);
+        sb.append(", length=").append(length);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    final class Part<T> extends FutureTask<T> {
+        private final long length;
+
+        Part(final Callable<T> callable, final long length) {
+            super(callable);
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            try {
+                super.run();
+            }
+            finally {
+                PerformanceMetrics.get().elapsed(PerformanceMetrics.Operation.part, start);
+                complete(this);
+            }
+        }
+    }
+}
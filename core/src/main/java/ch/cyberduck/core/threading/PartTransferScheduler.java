@@ -0,0 +1,247 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Process wide scheduler for parts of multipart uploads and copies. Threads are shared by all files transferred.
+ * The number of parts and bytes submitted but not yet completed is bounded and submitting blocks until parts
+ * complete. Parts are dispatched round-robin between hosts and for each host parts of the file with the least
+ * bytes remaining to transfer are preferred.
+ */
+public final class PartTransferScheduler {
+    private static final Logger log = LogManager.getLogger(PartTransferScheduler.class);
+
+    private static final class Holder {
+        private static final PartTransferScheduler instance = new PartTransferScheduler(
+                PreferencesFactory.get().getInteger("queue.transfer.parts.threads"),
+                PreferencesFactory.get().getInteger("queue.transfer.parts.queue.max"),
+                PreferencesFactory.get().getLong("queue.transfer.parts.bytes.max"));
+    }
+
+    /**
+     * @return Scheduler shared by all transfers
+     */
+    public static PartTransferScheduler get() {
+        return Holder.instance;
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Signalled when parts complete
+     */
+    private final Condition released = lock.newCondition();
+    /**
+     * Files with pending parts by host in order of first submission
+     */
+    private final Map<Host, List<PartThreadPool>> hosts = new LinkedHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int maxParts;
+    private final long maxBytes;
+
+    /**
+     * Number of parts dispatched to executor
+     */
+    private int running;
+    /**
+     * Number of parts submitted and not yet completed
+     */
+    private int parts;
+    /**
+     * Bytes of parts submitted and not yet completed
+     */
+    private long bytes;
+    /**
+     * Index of host to dispatch next part for
+     */
+    private int cursor;
+
+    /**
+     * @param threads  Number of threads transferring parts
+     * @param maxParts Maximum number of parts submitted and not yet completed
+     * @param maxBytes Maximum number of bytes in parts submitted and not yet completed
+     */
+    public PartTransferScheduler(final int threads, final int maxParts, final long maxBytes) {
+        this.threads = threads;
+        this.maxParts = Math.max(threads, maxParts);
+        this.maxBytes = maxBytes;
+        this.executor = DefaultThreadPool.createExecutor("parts", threads, ThreadPool.Priority.norm,
+                new LinkedBlockingQueue<>(), new DefaultThreadPool.CustomCallerPolicy(), new LoggingUncaughtExceptionHandler());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param host        Bookmark for fair share of threads with other hosts
+     * @param concurrency Maximum number of parts of the file transferred concurrently
+     * @param length      Number of bytes to transfer for file to prefer parts of files almost complete
+     * @return Pool to submit parts of a single file to
+     */
+    public PartThreadPool pool(final Host host, final int concurrency, final long length) {
+        return new PartThreadPool(this, host, concurrency, length);
+    }
+
+    /**
+     * Block until budget for part with given length is available
+     *
+     * @throws ConnectionCanceledException Interrupted while waiting for parts to complete
+     */
+    void acquire(final long length) throws ConnectionCanceledException {
+        try {
+            lock.lockInterruptibly();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionCanceledException(e);
+        }
+        try {
+            // Always admit a part when nothing is in flight regardless of its size
+            while(parts > 0 && (parts >= maxParts || bytes + length > maxBytes)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Await completion of %d parts with %d bytes", parts, bytes));
+                }
+                try {
+                    released.await();
+                }
+                catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ConnectionCanceledException(e);
+                }
+            }
+            parts++;
+            bytes += length;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    void enqueue(final PartThreadPool pool) {
+        lock.lock();
+        try {
+            final List<PartThreadPool> files = hosts.computeIfAbsent(pool.getHost(), k -> new ArrayList<>());
+            if(!files.contains(pool)) {
+                files.add(pool);
+            }
+            this.dispatch();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release budget of part completed or canceled before execution
+     *
+     * @param dispatched True if part was run by executor
+     */
+    void release(final PartThreadPool pool, final long length, final boolean dispatched) {
+        lock.lock();
+        try {
+            parts--;
+            bytes -= length;
+            if(dispatched) {
+                running--;
+            }
+            released.signalAll();
+            this.dispatch();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(final PartThreadPool pool) {
+        lock.lock();
+        try {
+            final List<PartThreadPool> files = hosts.get(pool.getHost());
+            if(files != null) {
+                files.remove(pool);
+                if(files.isEmpty()) {
+                    hosts.remove(pool.getHost());
+                }
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand parts to executor while threads are available. Must hold lock.
+     */
+    private void dispatch() {
+        while(running < threads) {
+            final PartThreadPool.Part<?> next = this.next();
+            if(null == next) {
+                return;
+            }
+            running++;
+            executor.execute(next);
+        }
+    }
+
+    /**
+     * @return Next part to run from host following the last dispatched or null if no eligible part is queued
+     */
+    private PartThreadPool.Part<?> next() {
+        final List<Host> keys = new ArrayList<>(hosts.keySet());
+        for(int i = 0; i < keys.size(); i++) {
+            final int index = (cursor + i) % keys.size();
+            PartThreadPool candidate = null;
+            for(PartThreadPool file : hosts.get(keys.get(index))) {
+                if(!file.isEligible()) {
+                    continue;
+                }
+                if(null == candidate || file.getRemaining() < candidate.getRemaining()) {
+                    candidate = file;
+                }
+            }
+            if(candidate != null) {
+                cursor = index + 1;
+                return candidate.poll();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PartTransferScheduler{");
+        sb.append("threads=").append(threads);
+        sb.append(", running=").append(running);
+        sb.append(", parts=").append(parts);
+        sb.append(", bytes=").append(bytes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
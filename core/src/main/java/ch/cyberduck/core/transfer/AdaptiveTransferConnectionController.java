@@ -0,0 +1,228 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.PreferencesReader;
+import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
+import ch.cyberduck.core.threading.FailureDiagnostics;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Adjust number of concurrent connections of a transfer to measured throughput. Probing starts with the value saved
+ * in the bookmark or half the connection limit of the protocol. The number of connections is increased by one up to
+ * the connection limit of the protocol as long as the aggregate throughput improves and halved on throttling or
+ * connection failures. The value settled is saved in the bookmark for subsequent transfers.
+ */
+public class AdaptiveTransferConnectionController {
+    private static final Logger log = LogManager.getLogger(AdaptiveTransferConnectionController.class);
+
+    private final FailureDiagnostics<BackgroundException> diagnostics
+            = new DefaultFailureDiagnostics();
+
+    private final Host host;
+    private final TransferSpeedometer meter;
+    private final Transfer transfer;
+    private final Listener listener;
+
+    private final int min;
+    private final int max;
+    /**
+     * Minimum relative improvement of throughput to add another connection
+     */
+    private final double threshold;
+
+    /**
+     * Current number of connections
+     */
+    private int limit;
+    /**
+     * Best throughput measured with current or lower number of connections since last decrease
+     */
+    private double best;
+    /**
+     * Connection added with last sample
+     */
+    private boolean increased;
+    /**
+     * No further increase until failure
+     */
+    private boolean settled;
+    /**
+     * Failure recorded since last sample
+     */
+    private boolean failure;
+
+    /**
+     * @param initial  Number of connections determined for protocol without measurement used as upper bound
+     * @param listener Notified when number of connections changes
+     */
+    public AdaptiveTransferConnectionController(final Transfer transfer, final int initial, final Listener listener) {
+        this.transfer = transfer;
+        this.host = transfer.getSource();
+        this.meter = new TransferSpeedometer(transfer);
+        this.listener = listener;
+        final PreferencesReader preferences = new HostPreferences(host);
+        this.min = 1;
+        this.max = initial;
+        this.threshold = preferences.getDouble("queue.connections.adaptive.threshold");
+        final int saved = preferences.getInteger("queue.connections.adaptive.limit");
+        this.limit = saved > 0 ? Math.min(saved, max) : Math.max(min, initial / 2);
+    }
+
+    /**
+     * @return True if adaptive number of connections is enabled for automatic connection limit
+     */
+    public static boolean isEnabled(final Host host, final int limit) {
+        if(!new HostPreferences(host).getBoolean("queue.connections.adaptive.enable")) {
+            return false;
+        }
+        if(TransferConnectionLimiter.AUTO != PreferencesFactory.get().getInteger("queue.connections.limit")) {
+            // Custom explicit user setting
+            return false;
+        }
+        // Protocols with a single connection limit are not probed
+        return limit > 1;
+    }
+
+    /**
+     * @return Current number of connections
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Measure throughput since last sample and adjust number of connections
+     */
+    public void sample() {
+        this.sample(meter.getSpeed(transfer.getTransferred(), true));
+    }
+
+    /**
+     * @param throughput Aggregate bytes per millisecond in period since last sample
+     */
+    protected void sample(final double throughput) {
+        final int previous;
+        final int next;
+        synchronized(this) {
+            previous = limit;
+            if(failure) {
+                // Await recovery after decrease
+                failure = false;
+                return;
+            }
+            if(throughput <= 0) {
+                // Idle or preparing
+                return;
+            }
+            if(throughput > best * (1 + threshold)) {
+                best = throughput;
+                increased = !settled && limit < max;
+                if(increased) {
+                    limit++;
+                }
+            }
+            else if(!settled) {
+                if(increased && limit > min) {
+                    // Last connection added did not improve throughput
+                    limit--;
+                }
+                increased = false;
+                settled = true;
+            }
+            next = limit;
+        }
+        if(next != previous) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Change connections from %d to %d for throughput %.0f bytes/ms", previous, next, throughput));
+            }
+            listener.resize(next);
+        }
+    }
+
+    /**
+     * Halve number of connections on throttling or connection failure
+     *
+     * @param e Failure of connection or transfer
+     */
+    public void failure(final BackgroundException e) {
+        if(null == e) {
+            return;
+        }
+        if(!this.isOverload(e)) {
+            return;
+        }
+        final int next;
+        synchronized(this) {
+            if(failure) {
+                // Already decreased for failures since last sample
+                return;
+            }
+            failure = true;
+            limit = Math.max(min, limit / 2);
+            best = 0d;
+            increased = false;
+            settled = false;
+            next = limit;
+        }
+        log.warn(String.format("Decrease connections to %d after failure %s", next, e));
+        listener.resize(next);
+    }
+
+    private boolean isOverload(final BackgroundException e) {
+        if(ExceptionUtils.indexOfType(e, RetriableAccessDeniedException.class) != -1) {
+            // Rate limiting or service unavailable
+            return true;
+        }
+        return diagnostics.determine(e) == FailureDiagnostics.Type.network;
+    }
+
+    /**
+     * Save number of connections in bookmark for next transfer with host
+     */
+    public synchronized void save() {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Save %d connections for %s", limit, host));
+        }
+        host.setProperty("queue.connections.adaptive.limit", String.valueOf(limit));
+    }
+
+    public interface Listener {
+        /**
+         * @param connections New number of concurrent connections
+         */
+        void resize(int connections);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveTransferConnectionController{");
+        sb.append("host=").append(host);
+        sb.append(", limit=").append(limit);
+        sb.append(", best=").append(best);
+        sb.append(", settled=").append(settled);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -35,6 +35,7 @@ import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.transfer.copy.ChecksumFilter;
 import ch.cyberduck.core.transfer.copy.OverwriteFilter;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -45,6 +46,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class CopyTransfer extends Transfer {
     private static final Logger log = LogManager.getLogger(CopyTransfer.class);
@@ -260,9 +262,55 @@ public class CopyTransfer extends Transfer {
         }
         else {
             // Transfer
-            final Copy feature = new DefaultCopyFeature(session).withTarget(destination);
-            feature.copy(source, mapping.get(source), segment, connectionCallback, new CopyStreamListener(this, streamListener));
+            final Path target = mapping.get(source);
+            final Copy feature = this.feature(session, destination, source, target);
+            if(feature instanceof DefaultCopyFeature) {
+                feature.copy(source, target, segment, connectionCallback, new CopyStreamListener(this, streamListener));
+            }
+            else {
+                final BytecountStreamListener counter = new BytecountStreamListener(new CopyStreamListener(this, streamListener));
+                feature.copy(source, target, segment, connectionCallback, counter);
+                if(counter.getSent() < segment.getLength()) {
+                    // Server side copy implementations may not report progress
+                    counter.sent(segment.getLength() - counter.getSent());
+                }
+                segment.setComplete();
+            }
+        }
+    }
+
+    /**
+     * @param session     Source session
+     * @param destination Target session
+     * @return Server side copy feature of source session when both sessions connect to the same account or
+     * streaming copy through client otherwise
+     */
+    protected Copy feature(final Session<?> session, final Session<?> destination, final Path source, final Path target) {
+        if(this.isSameAccount(session.getHost(), destination.getHost())) {
+            final Copy feature = session.getFeature(Copy.class);
+            if(feature != null && !(feature instanceof DefaultCopyFeature)) {
+                if(feature.isSupported(source, target)) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Use server side copy %s for %s", feature, source));
+                    }
+                    return feature.withTarget(destination);
+                }
+            }
+        }
+        return new DefaultCopyFeature(session).withTarget(destination);
+    }
+
+    /**
+     * @return True if both bookmarks connect with the same protocol, server and username
+     */
+    protected boolean isSameAccount(final Host source, final Host target) {
+        if(!PreferencesFactory.get().getBoolean("queue.copy.serverside.enable")) {
+            return false;
         }
+        return Objects.equals(source.getProtocol(), target.getProtocol())
+                && StringUtils.equalsIgnoreCase(source.getHostname(), target.getHostname())
+                && source.getPort() == target.getPort()
+                && StringUtils.equals(source.getCredentials().getUsername(), target.getCredentials().getUsername());
     }
 
     @Override
@@ -29,6 +29,7 @@ import ch.cyberduck.core.filter.DownloadDuplicateFilter;
 import ch.cyberduck.core.filter.DownloadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DelegateStreamListener;
+import ch.cyberduck.core.io.LocalChecksumStore;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.LocalSymlinkFactory;
@@ -345,6 +346,7 @@ public class DownloadTransfer extends Transfer {
     @Override
     public void stop() {
         cache.clear();
+        LocalChecksumStore.get().flush();
         super.stop();
     }
 
@@ -29,9 +29,11 @@ import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
+import ch.cyberduck.core.RetainingCache;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.ChangeFeed;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
@@ -40,6 +42,7 @@ import ch.cyberduck.core.serializer.Serializer;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.synchronization.CachingComparePathFilter;
+import ch.cyberduck.core.synchronization.ChangeFeedService;
 import ch.cyberduck.core.synchronization.Comparison;
 import ch.cyberduck.core.synchronization.DefaultComparePathFilter;
 import ch.cyberduck.core.transfer.synchronisation.SynchronizationPathFilter;
@@ -78,6 +81,16 @@ public class SyncTransfer extends Transfer {
     private Cache<Path> cache
         = new PathCache(PreferencesFactory.get().getInteger("transfer.cache.size"));
 
+    /**
+     * Cursors for changes reported by server applied to cached directory listings
+     */
+    private ChangeFeedService changes = new ChangeFeedService(cache);
+
+    /**
+     * Cached directory listings are kept up to date with changes reported by server
+     */
+    private boolean feed;
+
     private final Map<TransferItem, Comparison> comparisons = Collections.synchronizedMap(new LRUMap<>(
         PreferencesFactory.get().getInteger("transfer.cache.size")));
 
@@ -97,11 +110,19 @@ public class SyncTransfer extends Transfer {
     @Override
     public Transfer withCache(final Cache<Path> cache) {
         this.cache = cache;
-        upload.withCache(cache);
-        download.withCache(cache);
+        this.changes = new ChangeFeedService(cache);
+        upload.withCache(feed ? new RetainingCache<>(cache) : cache);
+        download.withCache(feed ? new RetainingCache<>(cache) : cache);
         return this;
     }
 
+    /**
+     * @return Action selected for synchronization or callback if not yet prompted
+     */
+    public TransferAction getAction() {
+        return action;
+    }
+
     @Override
     public <T> T serialize(final Serializer<T> dict) {
         dict.setStringForKey(this.getType().name(), "Type");
@@ -194,6 +215,21 @@ public class SyncTransfer extends Transfer {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Children for %s", directory));
         }
+        if(directory.equals(item.remote)) {
+            final ChangeFeed feature = session.getFeature(ChangeFeed.class);
+            if(feature != null) {
+                if(null == changes.update(feature, directory)) {
+                    // Full listing required
+                    cache.clear();
+                }
+                if(!feed) {
+                    // Cache is not cleared when delegates are stopped
+                    upload.withCache(new RetainingCache<>(cache));
+                    download.withCache(new RetainingCache<>(cache));
+                    feed = true;
+                }
+            }
+        }
         final Set<TransferItem> children = new HashSet<>();
         final Find finder = new CachingFindFeature(cache, session.getFeature(Find.class, new DefaultFindFeature(session)));
         if(finder.find(directory)) {
@@ -260,7 +296,9 @@ public class SyncTransfer extends Transfer {
     public void stop() {
         download.stop();
         upload.stop();
-        cache.clear();
+        if(!feed) {
+            cache.clear();
+        }
         comparisons.clear();
         super.stop();
     }
@@ -79,7 +79,7 @@ public class TransferStatus implements TransferResponse, StreamCancelation, Stre
     private boolean append = false;
 
     /**
-     * This is a part of a segmented transfer
+     * This is a part of a segmented transfer. Segments of a download are written to the target file at their offset.
      */
     private boolean segment = false;
 
@@ -577,6 +577,11 @@ public class TransferStatus implements TransferResponse, StreamCancelation, Stre
         this.part = part;
     }
 
+    public TransferStatus withPart(final Integer part) {
+        this.setPart(part);
+        return this;
+    }
+
     public String getUrl() {
         return url;
     }
@@ -42,6 +42,7 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.filter.UploadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.DelegateStreamListener;
+import ch.cyberduck.core.io.LocalChecksumStore;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
@@ -356,6 +357,7 @@ public class UploadTransfer extends Transfer {
     @Override
     public void stop() {
         cache.clear();
+        LocalChecksumStore.get().flush();
         super.stop();
     }
 
@@ -63,7 +63,6 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 public abstract class AbstractDownloadFilter implements TransferPathFilter {
@@ -205,7 +204,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         log.warn(String.format("Failure to determine disk space for %s", file.getParent()));
                     }
                     long threshold = preferences.getLong("queue.download.segments.threshold");
-                    if(status.getLength() * 2 > space) {
+                    if(status.getLength() > space) {
                         log.warn(String.format("Insufficient free disk space %d for segmented download of %s", space, file));
                     }
                     else if(status.getLength() > threshold) {
@@ -220,20 +219,18 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                         long remaining = status.getLength(), offset = 0;
                         // Sorted list
                         final List<TransferStatus> segments = new ArrayList<>();
-                        final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
                         for(int segmentNumber = 1; remaining > 0; segmentNumber++) {
-                            final Local segmentFile = LocalFactory.get(
-                                    segmentsFolder, String.format("%d.cyberducksegment", segmentNumber));
                             // Last part can be less than 5 MB. Adjust part size.
                             long length = Math.min(segmentSize, remaining);
+                            // Each segment writes to its own range in the preallocated target file
                             final TransferStatus segmentStatus = new TransferStatus()
                                     .segment(true) // Skip completion filter for single segment
                                     .append(true) // Read with offset
                                     .withOffset(offset)
                                     .withLength(length)
-                                    .withRename(segmentFile);
+                                    .withPart(segmentNumber);
                             if(log.isDebugEnabled()) {
-                                log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
+                                log.debug(String.format("Adding status %s for segment %d", segmentStatus, segmentNumber));
                             }
                             segments.add(segmentStatus);
                             remaining -= length;
@@ -253,7 +250,23 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
-        //
+        if(status.isSegmented()) {
+            final List<TransferStatus> segments = status.getSegments();
+            if(segments.stream().noneMatch(TransferStatus::isComplete)) {
+                final TransferStatus last = segments.get(segments.size() - 1);
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Preallocate %d bytes for %d segments in %s", last.getOffset() + last.getLength(),
+                            segments.size(), local));
+                }
+                // Write map before allocating file to never have a complete sized file without segment map
+                new SegmentBitmap(local).create(segments);
+                local.preallocate(last.getOffset() + last.getLength());
+            }
+            for(TransferStatus segment : segments) {
+                // Target of segment is final target possibly changed by rename filter
+                segment.withRename(local);
+            }
+        }
     }
 
     /**
@@ -269,38 +282,16 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Skip completion for single segment %s", status));
             }
+            if(status.isComplete()) {
+                // Record segment written to allow resume
+                new SegmentBitmap(local).mark(status.getPart());
+            }
             return;
         }
         if(status.isComplete()) {
             if(status.isSegmented()) {
-                // Obtain ordered list of segments to reassemble
-                final List<TransferStatus> segments = status.getSegments();
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Compile %d segments to file %s", segments.size(), local));
-                }
-                if(local.exists()) {
-                    local.delete();
-                }
-                for(Iterator<TransferStatus> iterator = segments.iterator(); iterator.hasNext(); ) {
-                    final TransferStatus segmentStatus = iterator.next();
-                    // Segment
-                    final Local segmentFile = segmentStatus.getRename().local;
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Append segment %s to %s", segmentFile, local));
-                    }
-                    segmentFile.copy(local, new Local.CopyOptions().append(true));
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Delete segment %s", segmentFile));
-                    }
-                    segmentFile.delete();
-                    if(!iterator.hasNext()) {
-                        final Local folder = segmentFile.getParent();
-                        if(log.isInfoEnabled()) {
-                            log.info(String.format("Remove segment folder %s", folder));
-                        }
-                        folder.delete();
-                    }
-                }
+                // All segments written to target file in place
+                new SegmentBitmap(local).delete();
             }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Run completion for file %s with status %s", local, status));
@@ -56,6 +56,12 @@ public class ResumeFilter extends AbstractDownloadFilter {
     @Override
     public boolean accept(final Path file, final Local local, final TransferStatus parent) throws BackgroundException {
         if(local.isFile()) {
+            if(new SegmentBitmap(local).exists()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Resume incomplete segmented download of %s", file));
+                }
+                return super.accept(file, local, parent);
+            }
             if(local.exists()) {
                 // Read remote attributes
                 final PathAttributes attributes = attribute.find(file);
@@ -89,13 +95,13 @@ public class ResumeFilter extends AbstractDownloadFilter {
     public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = super.prepare(file, local, parent, progress);
         if(status.isSegmented()) {
-            for(TransferStatus segmentStatus : status.getSegments()) {
-                final Local segmentFile = segmentStatus.getRename().local;
-                if(segmentFile.exists()) {
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Determine if part %s can be skipped", segmentStatus));
-                    }
-                    if(segmentFile.attributes().getSize() == segmentStatus.getLength()) {
+            if(local.isFile()) {
+                final boolean[] completed = new SegmentBitmap(local).read(status.getSegments());
+                for(TransferStatus segmentStatus : status.getSegments()) {
+                    if(completed[segmentStatus.getPart() - 1]) {
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Skip completed segment %s", segmentStatus));
+                        }
                         segmentStatus.setComplete();
                         status.setLength(status.getLength() - segmentStatus.getLength());
                         status.setOffset(status.getOffset() + segmentStatus.getLength());
@@ -106,7 +112,8 @@ public class ResumeFilter extends AbstractDownloadFilter {
         else {
             if(download.offset(file)) {
                 if(local.isFile()) {
-                    if(local.exists()) {
+                    // Preallocated file from segmented download cannot be appended to
+                    if(local.exists() && !new SegmentBitmap(local).exists()) {
                         if(local.attributes().getSize() > 0) {
                             status.setAppend(true);
                             status.setLength(status.getLength() - local.attributes().getSize());
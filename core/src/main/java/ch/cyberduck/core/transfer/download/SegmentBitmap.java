@@ -0,0 +1,152 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sidecar file next to a preallocated download target recording completed segments. The file has a header with the
+ * total length and segment size followed by one byte per segment to allow concurrent updates with positional writes.
+ */
+public final class SegmentBitmap {
+    private static final Logger log = LogManager.getLogger(SegmentBitmap.class);
+
+    private static final int HEADER = 2 * Long.BYTES;
+
+    private final Local file;
+
+    public SegmentBitmap(final Local target) {
+        this.file = LocalFactory.get(target.getParent(), String.format("%s.cyberducksegments", target.getName()));
+    }
+
+    public boolean exists() {
+        return file.exists();
+    }
+
+    /**
+     * Write new map with all segments marked as incomplete
+     *
+     * @param segments Ordered list of segments
+     */
+    public void create(final List<TransferStatus> segments) throws AccessDeniedException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Create segment map %s for %d segments", file, segments.size()));
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(file.getAbsolute()),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER + segments.size());
+            buffer.putLong(length(segments));
+            buffer.putLong(segments.get(0).getLength());
+            buffer.rewind();
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch(RuntimeException | IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param segments Ordered list of segments
+     * @return Completion flag for each segment. All segments are incomplete if the map is missing or was written
+     * for a different segment layout.
+     */
+    public boolean[] read(final List<TransferStatus> segments) {
+        final boolean[] completed = new boolean[segments.size()];
+        if(!file.exists()) {
+            return completed;
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(file.getAbsolute()), StandardOpenOption.READ)) {
+            if(channel.size() != HEADER + segments.size()) {
+                log.warn(String.format("Ignore segment map %s with size %d", file, channel.size()));
+                return completed;
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER + segments.size());
+            while(buffer.hasRemaining()) {
+                if(-1 == channel.read(buffer)) {
+                    return completed;
+                }
+            }
+            buffer.flip();
+            if(buffer.getLong() != length(segments) || buffer.getLong() != segments.get(0).getLength()) {
+                log.warn(String.format("Ignore segment map %s for different segment layout", file));
+                return completed;
+            }
+            for(int i = 0; i < completed.length; i++) {
+                completed[i] = buffer.get() != 0;
+            }
+        }
+        catch(RuntimeException | IOException e) {
+            log.warn(String.format("Failure %s reading segment map %s", e, file));
+        }
+        return completed;
+    }
+
+    /**
+     * Mark segment as complete
+     *
+     * @param segment Segment number starting with 1
+     */
+    public void mark(final int segment) throws AccessDeniedException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Mark segment %d complete in %s", segment, file));
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(file.getAbsolute()), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1}), HEADER + segment - 1);
+        }
+        catch(RuntimeException | IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    public void delete() throws AccessDeniedException, NotfoundException {
+        if(file.exists()) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Delete segment map %s", file));
+            }
+            file.delete();
+        }
+    }
+
+    private static long length(final List<TransferStatus> segments) {
+        final TransferStatus last = segments.get(segments.size() - 1);
+        return last.getOffset() + last.getLength();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SegmentBitmap{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
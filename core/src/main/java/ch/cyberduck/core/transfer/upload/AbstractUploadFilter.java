@@ -115,6 +115,8 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Prepare %s", file));
         }
+        // Read size and timestamp of local file again instead of using attributes from listing
+        local.refresh();
         final TransferStatus status = new TransferStatus()
                 .hidden(!hidden.accept(file))
                 .withLockId(parent.getLockId());
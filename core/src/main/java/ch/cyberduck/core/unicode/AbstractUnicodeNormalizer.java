@@ -31,6 +31,10 @@ public abstract class AbstractUnicodeNormalizer implements UnicodeNormalizer {
 
     @Override
     public CharSequence normalize(final CharSequence name) {
+        if(isAscii(name)) {
+            // Invariant in all normalization forms
+            return name;
+        }
         if(!Normalizer.isNormalized(name, form)) {
             // Canonical decomposition followed by canonical composition (default)
             final String normalized = Normalizer.normalize(name, form);
@@ -41,4 +45,13 @@ public abstract class AbstractUnicodeNormalizer implements UnicodeNormalizer {
         }
         return name;
     }
+
+    private static boolean isAscii(final CharSequence name) {
+        for(int i = 0; i < name.length(); i++) {
+            if(name.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
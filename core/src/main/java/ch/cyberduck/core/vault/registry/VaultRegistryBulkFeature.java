@@ -62,6 +62,11 @@ public class VaultRegistryBulkFeature<R> implements Bulk<R> {
         }
     }
 
+    @Override
+    public boolean isIncremental() {
+        return proxy.isIncremental();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("VaultRegistryBulkFeature{");
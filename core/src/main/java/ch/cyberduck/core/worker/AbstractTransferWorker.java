@@ -28,6 +28,7 @@ import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.ProgressListener;
+import ch.cyberduck.core.RecursiveListProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SleepPreventer;
 import ch.cyberduck.core.SleepPreventerFactory;
@@ -35,8 +36,11 @@ import ch.cyberduck.core.TransferItemCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.TransferCanceledException;
+import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.metrics.PerformanceMetrics;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
@@ -55,6 +59,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -87,6 +92,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private final Cache<TransferItem> cache;
     private final ProgressListener progress;
     private final StreamListener stream;
+    /**
+     * Transfer files as soon as their status is determined
+     */
+    private volatile boolean pipelined;
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
@@ -205,20 +214,35 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             // Normalize Paths before preparing
             transfer.normalize();
 
-            // Calculate information about the files in advance to give progress information
-            for(TransferItem next : transfer.getRoots()) {
-                // Check if parent directory is found in set to determine status
-                this.prepare(next.remote, next.local, new TransferStatus()
-                        .exists(!transfer.getRoots().stream().anyMatch(f -> next.remote.isChild(f.remote))), action);
+            pipelined = this.isPipelined(source);
+            if(pipelined) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Transfer files while preparing in %s", this));
+                }
+                meter.reset();
+                // Total size is updated with progress of preparing files
+                for(TransferItem next : transfer.getRoots()) {
+                    this.prepare(next.remote, next.local, new TransferStatus()
+                            .exists(!transfer.getRoots().stream().anyMatch(f -> next.remote.isChild(f.remote))), action);
+                }
+                this.await();
             }
-            this.await();
-            meter.reset();
-            transfer.pre(source, destination, table, transfer.filter(source, destination, action, progress), error, progress, connect);
-            // Transfer all files sequentially
-            for(TransferItem next : transfer.getRoots()) {
-                this.transfer(next, action);
+            else {
+                // Calculate information about the files in advance to give progress information
+                for(TransferItem next : transfer.getRoots()) {
+                    // Check if parent directory is found in set to determine status
+                    this.prepare(next.remote, next.local, new TransferStatus()
+                            .exists(!transfer.getRoots().stream().anyMatch(f -> next.remote.isChild(f.remote))), action);
+                }
+                this.await();
+                meter.reset();
+                transfer.pre(source, destination, table, transfer.filter(source, destination, action, progress), error, progress, connect);
+                // Transfer all files sequentially
+                for(TransferItem next : transfer.getRoots()) {
+                    this.transfer(next, action);
+                }
+                this.await();
             }
-            this.await();
             transfer.post(source, destination, table, error, progress, connect);
         }
         finally {
@@ -237,6 +261,34 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
         return true;
     }
 
+    /**
+     * Pipelining requires directories to be created when preparing the transfer of the directory itself and bulk
+     * features to accept subsets of the files in the transfer
+     *
+     * @param source Connected session
+     * @return True to submit files for transfer as soon as their status is determined instead of awaiting the
+     * status of all files in the transfer
+     */
+    protected boolean isPipelined(final Session<?> source) {
+        switch(transfer.getType()) {
+            case download:
+            case upload:
+            case sync:
+                if(!new HostPreferences(transfer.getSource()).getBoolean("queue.transfer.pipeline.enable")) {
+                    return false;
+                }
+                final Bulk<?> bulk = source.getFeature(Bulk.class);
+                if(!bulk.isIncremental()) {
+                    if(log.isWarnEnabled()) {
+                        log.warn(String.format("Disable pipelining for transfer %s with bulk feature %s", this, bulk));
+                    }
+                    return false;
+                }
+                return true;
+        }
+        return false;
+    }
+
     /**
      * To be called before any file is actually transferred
      *
@@ -289,12 +341,22 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             transfer.addSize(status.getLength() + status.getOffset());
                             // Add skipped bytes
                             transfer.addTransferred(status.getOffset());
+                            if(pipelined) {
+                                final TransferItem key = new TransferItem(file, local);
+                                // Create directory before any of its children is transferred
+                                transfer.pre(source, destination, Collections.singletonMap(key, status), filter, error, progress, connect);
+                                // Submit for transfer without awaiting the status of other files
+                                transfer(key, action);
+                            }
                             // Recursive
                             if(file.isDirectory()) {
                                 // Call recursively for all children
-                                final List<TransferItem> children = transfer.list(source, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
-                                // Put into cache for later reference when transferring
-                                cache.put(item, new AttributedList<>(children));
+                                final List<TransferItem> children = transfer.list(source, file, local,
+                                        new RecursiveListProgressListener(new WorkerListProgressListener(AbstractTransferWorker.this, progress)));
+                                if(!pipelined) {
+                                    // Put into cache for later reference when transferring
+                                    cache.put(item, new AttributedList<>(children));
+                                }
                                 // Call recursively
                                 for(TransferItem f : children) {
                                     // Change download path relative to parent local folder
@@ -307,6 +369,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             return status;
                         }
                     }
+                    catch(TransferCanceledException e) {
+                        // Already prompted for failure of child
+                        throw e;
+                    }
                     catch(BackgroundException e) {
                         if(this.retry(e, progress, new TransferBackgroundActionState(parent))) {
                             // Retry immediately
@@ -387,8 +453,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 release(destination, Connection.destination, null);
                             }
                         }
-                        // Recursive
-                        if(item.remote.isDirectory()) {
+                        // Recursive unless children are submitted when prepared
+                        if(item.remote.isDirectory() && !pipelined) {
                             if(!cache.isCached(item)) {
                                 log.warn(String.format("Missing entry for %s in cache", item));
                             }
@@ -398,6 +464,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             }
                             cache.remove(item);
                         }
+                        if(pipelined && !status.isSegmented()) {
+                            // Release status of completed file
+                            table.remove(item);
+                        }
                         return segment;
                     }
 
@@ -408,11 +478,19 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         final Session<?> s = borrow(Connection.source);
                         final Session<?> d = borrow(Connection.destination);
                         final BytecountStreamListener counter = new BytecountStreamListener(stream);
+                        final long start = System.nanoTime();
                         try {
                             transfer.transfer(s, d,
                                     segment.getRename().remote != null ? segment.getRename().remote : item.remote,
                                     segment.getRename().local != null ? segment.getRename().local : item.local,
                                     options, status, segment, connect, progress, counter);
+                            if(item.remote.isFile()) {
+                                final long elapsed = (System.nanoTime() - start) / 1000000L;
+                                final PerformanceMetrics metrics = PerformanceMetrics.get();
+                                metrics.record(segment.isSegment() ? PerformanceMetrics.Operation.part :
+                                        Transfer.Type.download == transfer.getType() ? PerformanceMetrics.Operation.read : PerformanceMetrics.Operation.write, elapsed);
+                                metrics.transferred(s.getHost(), s, counter.getRecv() + counter.getSent(), elapsed);
+                            }
                         }
                         catch(BackgroundException e) {
                             release(s, Connection.source, e);
@@ -428,6 +506,15 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                         if(log.isDebugEnabled()) {
                                             log.debug(String.format("Retry transfer of %s", item));
                                         }
+                                        if(segment.isSegment()) {
+                                            // Discard bytes retrieved for segment and retry with its initial offset
+                                            stream.recv(-counter.getRecv());
+                                            stream.sent(-counter.getSent());
+                                            transfer.addTransferred(-counter.getSent());
+                                            log.info(String.format("Retry segment %s of %s", segment, item));
+                                            this.transferSegment(segment);
+                                            return;
+                                        }
                                         final TransferStatus retry = resume.prepare(item.remote, item.local, new TransferStatus().exists(true), progress);
                                         // Add bytes retrieved but not yet counted
                                         stream.recv(retry.getOffset() - counter.getRecv());
@@ -512,6 +599,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             log.warn(String.format("Skip concatenating segments for failed transfer %s", status));
                             status.setFailure(new ConnectionCanceledException());
                         }
+                        if(pipelined) {
+                            // Release status of completed file
+                            table.remove(item);
+                        }
                     }
                     return status;
                 }
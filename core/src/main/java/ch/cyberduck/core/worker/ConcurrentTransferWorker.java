@@ -26,10 +26,14 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.pool.DefaultSessionPool;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.AdaptiveTransferConnectionController;
 import ch.cyberduck.core.transfer.AutoTransferConnectionLimiter;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferErrorCallback;
@@ -46,6 +50,9 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Throwables;
@@ -60,6 +67,10 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     // Keep number of submitted tasks
     private final AtomicInteger size = new AtomicInteger();
     private final ThreadPool pool;
+    /**
+     * Adjust number of connections to throughput or null for fixed number of connections
+     */
+    private final AdaptiveTransferConnectionController controller;
 
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
@@ -91,11 +102,65 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connect, notification);
         this.source = source;
         this.destination = destination;
-        this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
-                new AutoTransferConnectionLimiter().getLimit(transfer.getSource()), priority, new LinkedBlockingQueue<>(Integer.MAX_VALUE));
+        final int limit = new AutoTransferConnectionLimiter().getLimit(transfer.getSource());
+        if(AdaptiveTransferConnectionController.isEnabled(transfer.getSource(), limit)) {
+            this.controller = new AdaptiveTransferConnectionController(transfer, limit, this::resize);
+            this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
+                    controller.getLimit(), priority, new LinkedBlockingQueue<>(Integer.MAX_VALUE));
+        }
+        else {
+            this.controller = null;
+            this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
+                    limit, priority, new LinkedBlockingQueue<>(Integer.MAX_VALUE));
+        }
         this.completion = new ExecutorCompletionService<>(pool.executor());
     }
 
+    @Override
+    public Boolean run(final Session<?> session) throws BackgroundException {
+        if(null == controller) {
+            return super.run(session);
+        }
+        this.resize(controller.getLimit());
+        final ScheduledThreadPool timer = new ScheduledThreadPool();
+        final ScheduledFuture<?> sampler = timer.repeat(controller::sample,
+                PreferencesFactory.get().getLong("queue.connections.adaptive.interval"), TimeUnit.MILLISECONDS);
+        try {
+            return super.run(session);
+        }
+        finally {
+            sampler.cancel(false);
+            timer.shutdown();
+            controller.save();
+        }
+    }
+
+    /**
+     * Change number of threads and idle connections kept in session pools
+     *
+     * @param connections Number of concurrent connections
+     */
+    private void resize(final int connections) {
+        if(pool.executor() instanceof ThreadPoolExecutor) {
+            final ThreadPoolExecutor executor = (ThreadPoolExecutor) pool.executor();
+            if(connections > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(connections);
+                executor.setCorePoolSize(connections);
+            }
+            else {
+                // Surplus threads terminate when idle
+                executor.setCorePoolSize(connections);
+                executor.setMaximumPoolSize(connections);
+            }
+        }
+        for(SessionPool p : new SessionPool[]{source, destination}) {
+            if(p instanceof DefaultSessionPool) {
+                // Surplus sessions are closed when returned to pool
+                ((DefaultSessionPool) p).withMaxIdle(connections);
+            }
+        }
+    }
+
     @Override
     protected Session<?> borrow(final Connection type) throws BackgroundException {
         switch(type) {
@@ -129,6 +194,9 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
     @Override
     protected void release(final Session session, final Connection type, final BackgroundException failure) {
+        if(controller != null) {
+            controller.failure(failure);
+        }
         switch(type) {
             case source:
                 source.release(session, failure);
@@ -3,6 +3,7 @@ package ch.cyberduck.core;
 import org.junit.Test;
 
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -80,4 +81,56 @@ public class AttributedListTest {
         assertNotSame(list, list.filter(new NullFilter<>()));
         assertEquals(list, list.filter(new NullFilter<>()));
     }
+
+    @Test
+    public void testFindReference() {
+        final AttributedList<Path> list = new AttributedList<>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        b.attributes().setVersionId("1");
+        assertTrue(list.add(a));
+        assertSame(a, list.find(new DefaultPathPredicate(new Path("/a", EnumSet.of(Path.Type.file)))));
+        assertNull(list.find(new DefaultPathPredicate(new Path("/a", EnumSet.of(Path.Type.directory)))));
+        assertNull(list.find(new DefaultPathPredicate(new Path("/b", EnumSet.of(Path.Type.file)))));
+        // Index updated on append
+        assertTrue(list.add(b));
+        assertSame(b, list.find(new DefaultPathPredicate(b)));
+        assertSame(b, list.find(new SimplePathPredicate(new Path("/b", EnumSet.of(Path.Type.file)))));
+        assertSame(b, list.get(b));
+        assertTrue(list.contains(b));
+        assertEquals(1, list.indexOf(b));
+        list.remove(a);
+        assertNull(list.find(new DefaultPathPredicate(a)));
+        assertEquals(0, list.indexOf(b));
+    }
+
+    @Test
+    public void testSnapshotIterator() {
+        final AttributedList<Path> list = new AttributedList<>();
+        assertTrue(list.add(new Path("/a", EnumSet.of(Path.Type.file))));
+        final Iterator<Path> iterator = list.iterator();
+        assertTrue(list.add(new Path("/b", EnumSet.of(Path.Type.file))));
+        list.remove(0);
+        assertEquals(new Path("/a", EnumSet.of(Path.Type.file)), iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    public void testFindChangedFileId() {
+        final AttributedList<Path> list = new AttributedList<>();
+        final Path a = new Path("/a", EnumSet.of(Path.Type.file));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.file));
+        assertTrue(list.add(a));
+        assertTrue(list.add(b));
+        assertSame(b, list.find(new DefaultPathPredicate(b)));
+        b.attributes().setFileId("1");
+        assertSame(b, list.find(new DefaultPathPredicate(b)));
+        assertTrue(list.contains(b));
+        assertEquals(1, list.indexOf(b));
+        b.attributes().setVersionId("2");
+        assertSame(b, list.find(new DefaultPathPredicate(b)));
+        assertNull(list.find(new DefaultPathPredicate(new Path("/c", EnumSet.of(Path.Type.file)))));
+        assertSame(a, list.find(new DefaultPathPredicate(a)));
+    }
 }
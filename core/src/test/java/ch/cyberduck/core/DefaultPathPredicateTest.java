@@ -122,4 +122,35 @@ public class DefaultPathPredicateTest {
             new Path("0X", EnumSet.of(Path.Type.file))
         ));
     }
+
+    @Test
+    public void testReferenceMemoized() {
+        final Path t = new Path("/f", EnumSet.of(Path.Type.file));
+        assertSame(t.reference(), t.reference());
+        assertSame(t.reference(), new Path(t).reference());
+    }
+
+    @Test
+    public void testReferenceInvalidatedOnAttributeChange() {
+        final Path t = new Path("/f", EnumSet.of(Path.Type.file));
+        final DefaultPathPredicate previous = t.reference();
+        t.attributes().setVersionId("1");
+        assertNotSame(previous, t.reference());
+        assertEquals("[file]-1/f", t.reference().toString());
+        assertEquals(new DefaultPathPredicate(t), t.reference());
+        t.setAttributes(new PathAttributes().withFileId("2"));
+        assertEquals("[file]-2/f", t.reference().toString());
+        assertEquals(new Path("/f", EnumSet.of(Path.Type.file), new PathAttributes().withFileId("2")), t);
+    }
+
+    @Test
+    public void testReferenceInvalidatedOnTypeChange() {
+        final Path t = new Path("/f", EnumSet.of(Path.Type.file));
+        assertEquals("[file]-/f", t.reference().toString());
+        t.getType().remove(Path.Type.file);
+        t.getType().add(Path.Type.directory);
+        assertEquals("[directory]-/f", t.reference().toString());
+        t.setType(EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+        assertEquals("[symboliclink]-/f", t.reference().toString());
+    }
 }
@@ -2,6 +2,7 @@ package ch.cyberduck.core;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.*;
@@ -94,4 +95,63 @@ public class PathCacheTest {
         assertTrue(cache.containsKey(new Path("/", EnumSet.of(Path.Type.directory))));
         assertTrue(cache.isCached(new Path("/", EnumSet.of(Path.Type.directory))));
     }
+
+    @Test
+    public void testLookup() {
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        final AttributedList<Path> list = new AttributedList<>();
+        list.add(file);
+        cache.put(directory, list);
+        assertSame(file, cache.lookup(new DefaultPathPredicate(new Path("/d/f", EnumSet.of(Path.Type.file)))));
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path("/d/g", EnumSet.of(Path.Type.file)))));
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.hit));
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.miss));
+        // Replace listing
+        cache.put(directory, new AttributedList<>());
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+        cache.put(directory, list);
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+        cache.put(directory, list);
+        cache.clear();
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+    }
+
+    @Test
+    public void testLookupEvicted() {
+        final PathCache cache = new PathCache(1);
+        final Path a = new Path("/a", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(a, "f", EnumSet.of(Path.Type.file));
+        cache.put(a, new AttributedList<>(Collections.singletonList(file)));
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        cache.put(new Path("/b", EnumSet.of(Path.Type.directory)), new AttributedList<>());
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.eviction));
+        assertFalse(cache.isCached(a));
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+    }
+
+    @Test
+    public void testLookupModifiedFileId() {
+        final PathCache cache = new PathCache(1);
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(directory, "f", EnumSet.of(Path.Type.file));
+        cache.put(directory, new AttributedList<>(Collections.singletonList(file)));
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.hit));
+        // Cached child changed in place
+        file.attributes().setFileId("1");
+        assertSame(file, cache.lookup(new DefaultPathPredicate(file)));
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.changed));
+        // Indexed with changed reference
+        assertSame(file, cache.lookup(new DefaultPathPredicate(new Path("/d/f", EnumSet.of(Path.Type.file), new PathAttributes().withFileId("1")))));
+        assertEquals(2L, cache.getMetrics().get(AbstractCache.Statistic.hit));
+        assertNull(cache.lookup(new DefaultPathPredicate(new Path("/d/f", EnumSet.of(Path.Type.file), new PathAttributes().withFileId("2")))));
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.miss));
+        assertEquals(1L, cache.getMetrics().get(AbstractCache.Statistic.changed));
+        cache.remove(directory);
+        assertNull(cache.lookup(new DefaultPathPredicate(file)));
+    }
 }
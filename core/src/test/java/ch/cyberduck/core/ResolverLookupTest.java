@@ -0,0 +1,76 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ResolveFailedException;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResolverLookupTest {
+
+    @Test
+    public void testInterleaveAddressFamilies() throws Exception {
+        final InetAddress v4a = InetAddress.getByAddress("h", new byte[]{10, 0, 0, 1});
+        final InetAddress v4b = InetAddress.getByAddress("h", new byte[]{10, 0, 0, 2});
+        final InetAddress v6a = InetAddress.getByName("2001:db8::1");
+        final InetAddress v6b = InetAddress.getByName("2001:db8::2");
+        final Resolver.Lookup hosts = hostname -> new InetAddress[]{v4a, v4b, v6a, v6b};
+        assertArrayEquals(new InetAddress[]{v4a, v6a, v4b, v6b},
+                new Resolver(false, hosts).resolveAll("h", new DisabledCancelCallback()));
+        assertArrayEquals(new InetAddress[]{v6a, v4a, v6b, v4b},
+                new Resolver(true, hosts).resolveAll("h", new DisabledCancelCallback()));
+        assertEquals(v6a, new Resolver(true, hosts).resolve("h", new DisabledCancelCallback()));
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Resolver resolver = new Resolver(false, hostname -> {
+            count.incrementAndGet();
+            return new InetAddress[]{InetAddress.getByAddress(hostname, new byte[]{10, 0, 0, 1})};
+        });
+        assertEquals("10.0.0.1", resolver.resolve("h", new DisabledCancelCallback()).getHostAddress());
+        assertEquals("10.0.0.1", resolver.resolve("h", new DisabledCancelCallback()).getHostAddress());
+        assertEquals(1, count.get());
+        resolver.resolve("other", new DisabledCancelCallback());
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Resolver resolver = new Resolver(false, hostname -> {
+            count.incrementAndGet();
+            throw new UnknownHostException(hostname);
+        });
+        for(int i = 0; i < 2; i++) {
+            try {
+                resolver.resolve("h", new DisabledCancelCallback());
+                fail();
+            }
+            catch(ResolveFailedException e) {
+                //
+            }
+        }
+        assertEquals(2, count.get());
+    }
+}
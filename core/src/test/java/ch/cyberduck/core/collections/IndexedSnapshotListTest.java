@@ -0,0 +1,115 @@
+package ch.cyberduck.core.collections;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+public class IndexedSnapshotListTest {
+
+    @Test
+    public void testIndexOf() {
+        final IndexedSnapshotList<String> list = new IndexedSnapshotList<>();
+        for(int i = 0; i < 1000; i++) {
+            list.add(String.format("f-%d", i % 500));
+        }
+        assertEquals(499, list.indexOf("f-499"));
+        assertEquals(-1, list.indexOf("f-500"));
+        list.add("f-500");
+        assertEquals(1000, list.indexOf("f-500"));
+        list.remove(0);
+        assertEquals(499, list.indexOf("f-0"));
+        assertTrue(list.contains("f-0"));
+        assertEquals("f-1", list.find("f-1".hashCode(), "f-1"::equals));
+        assertNull(list.find("f-1".hashCode(), "f-2"::equals));
+    }
+
+    @Test
+    public void testIndexOfChangedHashCode() {
+        final Mutable b = new Mutable("b");
+        final IndexedSnapshotList<Mutable> list = new IndexedSnapshotList<>(Arrays.asList(new Mutable("a"), b));
+        assertEquals(1, list.indexOf(b));
+        b.value = "c";
+        assertEquals(1, list.indexOf(b));
+        assertTrue(list.contains(new Mutable("c")));
+        assertSame(b, list.find("c".hashCode(), e -> e.value.equals("c")));
+        assertFalse(list.contains(new Mutable("b")));
+        assertEquals(0, list.indexOf(new Mutable("a")));
+    }
+
+    @Test
+    public void testIndexOfNull() {
+        final IndexedSnapshotList<String> list = new IndexedSnapshotList<>(Arrays.asList("a", "b"));
+        assertEquals(-1, list.indexOf(null));
+        assertFalse(list.contains(null));
+        list.add(null);
+        assertEquals(2, list.indexOf(null));
+        assertTrue(list.contains(null));
+        assertEquals(1, list.indexOf("b"));
+    }
+
+    @Test
+    public void testSnapshotIterator() {
+        final IndexedSnapshotList<String> list = new IndexedSnapshotList<>(Arrays.asList("c", "a", "b"));
+        final Iterator<String> iterator = list.iterator();
+        list.add("d");
+        list.sort(Comparator.naturalOrder());
+        list.removeIf("a"::equals);
+        assertEquals(Arrays.asList("b", "c", "d"), list);
+        assertEquals("c", iterator.next());
+        assertEquals("a", iterator.next());
+        assertEquals("b", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testInsertSet() {
+        final IndexedSnapshotList<String> list = new IndexedSnapshotList<>();
+        list.add(0, "b");
+        list.add(0, "a");
+        list.add(2, "d");
+        assertEquals("d", list.set(2, "c"));
+        assertEquals(Arrays.asList("a", "b", "c"), list);
+        assertEquals(2, list.indexOf("c"));
+        assertEquals(-1, list.indexOf("d"));
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(-1, list.indexOf("a"));
+    }
+
+    private static final class Mutable {
+        private String value;
+
+        private Mutable(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Mutable && value.equals(((Mutable) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testReadWrite() throws Exception {
+        final BufferPool pool = new BufferPool(100L);
+        final Buffer buffer = pool.create(100L);
+        assertTrue(buffer instanceof MemoryBuffer);
+        assertEquals(0L, buffer.length(), 0L);
+        final byte[] chunk = RandomUtils.nextBytes(100);
+        assertEquals(100, buffer.write(chunk, 0L));
+        assertEquals(100L, buffer.length(), 0L);
+        final byte[] read = new byte[20];
+        assertEquals(20, buffer.read(read, 1L));
+        assertArrayEquals(Arrays.copyOfRange(chunk, 1, 21), read);
+        assertEquals(1, buffer.read(read, 99L));
+        assertEquals(IOUtils.EOF, buffer.read(read, 100L));
+        buffer.close();
+    }
+
+    @Test
+    public void testSpillToFile() {
+        final BufferPool pool = new BufferPool(100L);
+        final Buffer first = pool.create(60L);
+        assertTrue(first instanceof MemoryBuffer);
+        final Buffer second = pool.create(60L);
+        assertTrue(second instanceof FileBuffer);
+        second.close();
+        first.close();
+        // Reuse released memory
+        final Buffer third = pool.create(50L);
+        assertTrue(third instanceof MemoryBuffer);
+        third.close();
+    }
+
+    @Test
+    public void testReuseCleared() throws Exception {
+        final BufferPool pool = new BufferPool(100L);
+        final Buffer first = pool.create(10L);
+        first.write(RandomUtils.nextBytes(10), 0L);
+        first.close();
+        final Buffer second = pool.create(10L);
+        assertEquals(0L, second.length(), 0L);
+        second.truncate(10L);
+        final byte[] read = new byte[10];
+        assertEquals(10, second.read(read, 0L));
+        assertArrayEquals(new byte[10], read);
+        second.close();
+    }
+
+    @Test
+    public void testAcquireRelease() {
+        final BufferPool pool = new BufferPool(100L);
+        final ByteBuffer first = pool.acquire(60);
+        assertTrue(first.isDirect());
+        assertEquals(60, first.limit());
+        // Exceeding memory available in pool
+        final ByteBuffer second = pool.acquire(60);
+        assertFalse(second.isDirect());
+        pool.release(second);
+        first.put((byte) 1);
+        pool.release(first);
+        final ByteBuffer third = pool.acquire(50);
+        assertSame(first, third);
+        assertEquals(0, third.position());
+        assertEquals(50, third.limit());
+        pool.release(third);
+    }
+}
@@ -0,0 +1,110 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.local.DefaultTemporaryFileService;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class LocalChecksumStoreTest {
+
+    @Test
+    public void testCompute() throws Exception {
+        final Local store = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        this.write(file, "input");
+        final LocalChecksumStore checksums = new LocalChecksumStore(store);
+        assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", checksums.compute(HashAlgorithm.md5, file).hash);
+        assertEquals(1L, checksums.getMetrics().get(LocalChecksumStore.Statistic.miss));
+        assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", checksums.compute(HashAlgorithm.md5, file).hash);
+        assertEquals(1L, checksums.getMetrics().get(LocalChecksumStore.Statistic.hit));
+        // Additional digest for same entry
+        assertEquals(new SHA1ChecksumCompute().compute(file.getInputStream(), new TransferStatus()),
+                checksums.compute(HashAlgorithm.sha1, file));
+        assertEquals(2L, checksums.getMetrics().get(LocalChecksumStore.Statistic.miss));
+        checksums.flush();
+        assertTrue(store.exists());
+        // Reload from disk
+        final LocalChecksumStore reloaded = new LocalChecksumStore(store);
+        assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", reloaded.compute(HashAlgorithm.md5, file).hash);
+        assertEquals(1L, reloaded.getMetrics().get(LocalChecksumStore.Statistic.hit));
+        assertEquals(0L, reloaded.getMetrics().get(LocalChecksumStore.Statistic.miss));
+        file.delete();
+        store.delete();
+    }
+
+    @Test
+    public void testInvalidateModified() throws Exception {
+        final Local store = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        this.write(file, "input");
+        final LocalChecksumStore checksums = new LocalChecksumStore(store);
+        assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", checksums.compute(HashAlgorithm.md5, file).hash);
+        this.write(file, "changed input");
+        assertEquals(new MD5ChecksumCompute().compute(file.getInputStream(), new TransferStatus()),
+                checksums.compute(HashAlgorithm.md5, file));
+        assertEquals(1L, checksums.getMetrics().get(LocalChecksumStore.Statistic.invalidated));
+        assertEquals(0L, checksums.getMetrics().get(LocalChecksumStore.Statistic.hit));
+        file.delete();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        final Local store = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        this.write(file, "input");
+        final LocalChecksumStore checksums = new LocalChecksumStore(store, false, 1);
+        assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", checksums.compute(HashAlgorithm.md5, file).hash);
+        checksums.flush();
+        assertFalse(store.exists());
+        file.delete();
+    }
+
+    @Test
+    public void testSkipDisabledCompute() throws Exception {
+        final Local store = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        this.write(file, "input");
+        final LocalChecksumStore checksums = new LocalChecksumStore(store);
+        // Computed with disabled checksum compute
+        assertEquals(Checksum.NONE, checksums.compute(HashAlgorithm.cdash64, file));
+        assertEquals(Checksum.NONE, checksums.compute(HashAlgorithm.cdash64, file));
+        assertEquals(0L, checksums.getMetrics().get(LocalChecksumStore.Statistic.hit));
+        assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", checksums.compute(HashAlgorithm.md5, file).hash);
+        checksums.flush();
+        assertTrue(store.exists());
+        final LocalChecksumStore reloaded = new LocalChecksumStore(store);
+        assertEquals("a43c1b0aa53a0c908810c06ab1ff3967", reloaded.compute(HashAlgorithm.md5, file).hash);
+        assertEquals(1L, reloaded.getMetrics().get(LocalChecksumStore.Statistic.hit));
+        file.delete();
+        store.delete();
+    }
+
+    private void write(final Local file, final String content) throws Exception {
+        try (OutputStream out = file.getOutputStream(false)) {
+            IOUtils.write(content, out, StandardCharsets.UTF_8);
+        }
+    }
+}
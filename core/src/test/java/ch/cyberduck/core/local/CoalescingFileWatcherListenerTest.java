@@ -0,0 +1,90 @@
+package ch.cyberduck.core.local;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CoalescingFileWatcherListenerTest {
+
+    @Test
+    public void testTimeout() throws Exception {
+        final CoalescingFileWatcherListener listener = new CoalescingFileWatcherListener();
+        assertTrue(listener.await(10L, 100L, 10L).isEmpty());
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        final CoalescingFileWatcherListener listener = new CoalescingFileWatcherListener();
+        final Local file = new Local("/t/f");
+        listener.fileCreated(file);
+        listener.fileWritten(file);
+        listener.fileWritten(new Local("/t/g"));
+        listener.fileDeleted(file);
+        final CoalescingFileWatcherListener.Changes changes = listener.await(10L, 1000L, 1000L);
+        assertEquals(2, changes.getFiles().size());
+        assertTrue(changes.getFiles().contains(file));
+        assertFalse(changes.isOverflow());
+        assertTrue(listener.await(10L, 1000L, 10L).isEmpty());
+    }
+
+    @Test
+    public void testQuietPeriod() throws Exception {
+        final CoalescingFileWatcherListener listener = new CoalescingFileWatcherListener();
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            listener.fileCreated(new Local("/t/a"));
+            executor.schedule(() -> listener.fileCreated(new Local("/t/b")), 50L, TimeUnit.MILLISECONDS);
+            // Event within quiet period is included
+            assertEquals(2, listener.await(500L, 5000L, 1000L).getFiles().size());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMaximumDelay() throws Exception {
+        final CoalescingFileWatcherListener listener = new CoalescingFileWatcherListener();
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            executor.scheduleAtFixedRate(() -> listener.fileWritten(new Local("/t/a")), 0L, 10L, TimeUnit.MILLISECONDS);
+            final long start = System.currentTimeMillis();
+            assertFalse(listener.await(1000L, 100L, 1000L).isEmpty());
+            assertTrue(System.currentTimeMillis() - start < 1000L);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        final CoalescingFileWatcherListener listener = new CoalescingFileWatcherListener();
+        listener.fileOverflow(new Local("/t"));
+        final CoalescingFileWatcherListener.Changes changes = listener.await(0L, 0L, 1000L);
+        assertTrue(changes.isOverflow());
+        assertTrue(changes.getFiles().isEmpty());
+        assertFalse(changes.isEmpty());
+    }
+}
@@ -41,6 +41,22 @@ public class LocalTest {
         file.delete();
     }
 
+    @Test
+    public void testWriteSegmentsPreallocated() throws Exception {
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        file.preallocate(6L);
+        assertEquals(6L, file.attributes().getSize());
+        final OutputStream second = file.getOutputStream(3L);
+        final OutputStream first = file.getOutputStream(0L);
+        second.write("def".getBytes(StandardCharsets.UTF_8));
+        first.write("abc".getBytes(StandardCharsets.UTF_8));
+        first.close();
+        second.close();
+        assertEquals(6L, file.attributes().getSize());
+        assertEquals("abcdef", IOUtils.toString(file.getInputStream(), StandardCharsets.UTF_8));
+        file.delete();
+    }
+
     @Test
     public void testList() throws Exception {
         assertFalse(new Local("../profiles").list().isEmpty());
@@ -265,6 +281,45 @@ public class LocalTest {
             PreferencesFactory.get().getProperty("local.delimiter")), new Local(System.getProperty("java.io.tmpdir")).getAbsolute());
     }
 
+    @Test
+    public void testListSnapshotRefresh() throws Exception {
+        PreferencesFactory.get().setProperty("local.attributes.snapshot.enable", String.valueOf(true));
+        try {
+            final Local directory = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+            directory.mkdir();
+            final Local file = new Local(directory, new AlphanumericRandomStringService().random());
+            new DefaultLocalTouchFeature().touch(file);
+            final Local listed = directory.list().get(0);
+            assertEquals(file, listed);
+            FileUtils.writeByteArrayToFile(new File(file.getAbsolute()), new byte[]{1, 2, 3});
+            assertTrue(listed.isFile());
+            // Attributes from listing
+            assertEquals(0L, listed.attributes().getSize());
+            assertEquals(3L, listed.refresh().attributes().getSize());
+            listed.attributes().setModificationDate(1000L);
+            assertEquals(1000L, listed.attributes().getModificationDate());
+            file.delete();
+            assertFalse(listed.exists());
+            directory.delete();
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("local.attributes.snapshot.enable");
+        }
+    }
+
+    @Test
+    public void testListSnapshotDisabled() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), new AlphanumericRandomStringService().random());
+        directory.mkdir();
+        final Local file = new Local(directory, new AlphanumericRandomStringService().random());
+        new DefaultLocalTouchFeature().touch(file);
+        final Local listed = directory.list().get(0);
+        FileUtils.writeByteArrayToFile(new File(file.getAbsolute()), new byte[]{1, 2, 3});
+        assertEquals(3L, listed.attributes().getSize());
+        file.delete();
+        directory.delete();
+    }
+
     private static class WindowsLocal extends Local {
 
         public WindowsLocal(final String parent, final String name, final String delimiter) {
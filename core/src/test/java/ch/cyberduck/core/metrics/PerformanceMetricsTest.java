@@ -0,0 +1,81 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import static org.junit.Assert.*;
+
+public class PerformanceMetricsTest {
+
+    @Test
+    public void testHistogram() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0L, histogram.getPercentile(0.5));
+        for(int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100L, histogram.getCount());
+        assertEquals(50.5d, histogram.getMean(), 0d);
+        assertEquals(100L, histogram.getMax());
+        // Upper bound of bucket with values from 32 to 63
+        assertEquals(63L, histogram.getPercentile(0.5));
+        assertEquals(100L, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final PerformanceMetrics metrics = new PerformanceMetrics(true);
+        metrics.record(PerformanceMetrics.Operation.list, 12L);
+        metrics.increment(PerformanceMetrics.Statistic.retry);
+        final Object connection = new Object();
+        metrics.transferred(new Host(new TestProtocol(), "h"), connection, 2000L, 1000L);
+        assertEquals(1L, metrics.getCount(PerformanceMetrics.Operation.list.name()));
+        assertEquals(1L, metrics.getRetries());
+        final JsonObject json = JsonParser.parseString(metrics.getSnapshot()).getAsJsonObject();
+        assertEquals(12L, json.getAsJsonObject("latency").getAsJsonObject("list").get("max").getAsLong());
+        assertFalse(json.getAsJsonObject("latency").has("read"));
+        assertEquals(1L, json.getAsJsonObject("counters").get("retry").getAsLong());
+        assertEquals(2000L, json.getAsJsonObject("connections").getAsJsonObject(
+                String.format("h#%d", System.identityHashCode(connection))).get("rate").getAsLong());
+    }
+
+    @Test
+    public void testEvictConnections() {
+        final PerformanceMetrics metrics = new PerformanceMetrics(true, 1);
+        final Host host = new Host(new TestProtocol(), "h");
+        for(int i = 0; i < 10; i++) {
+            metrics.transferred(host, new Object(), 1L, 1L);
+        }
+        final JsonObject json = JsonParser.parseString(metrics.getSnapshot()).getAsJsonObject();
+        assertTrue(json.getAsJsonObject("connections").size() <= 1);
+    }
+
+    @Test
+    public void testDisabled() {
+        final PerformanceMetrics metrics = new PerformanceMetrics(false);
+        metrics.record(PerformanceMetrics.Operation.list, 12L);
+        metrics.increment(PerformanceMetrics.Statistic.retry);
+        assertEquals(0L, metrics.getCount(PerformanceMetrics.Operation.list.name()));
+        assertEquals(0L, metrics.getRetries());
+    }
+}
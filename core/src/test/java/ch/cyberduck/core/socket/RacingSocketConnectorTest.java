@@ -0,0 +1,80 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class RacingSocketConnectorTest {
+
+    @Test
+    public void testFirstConnectionWins() throws Exception {
+        final InetAddress slow = InetAddress.getByAddress("h", new byte[]{10, 0, 0, 1});
+        final InetAddress fast = InetAddress.getByAddress("h", new byte[]{10, 0, 0, 2});
+        final CountDownLatch release = new CountDownLatch(1);
+        final Socket winner = new Socket();
+        final Socket loser = new Socket();
+        final Socket socket = new RacingSocketConnector(10L).connect(new InetAddress[]{slow, fast}, address -> {
+            if(address.equals(slow)) {
+                try {
+                    release.await();
+                }
+                catch(InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return loser;
+            }
+            return winner;
+        });
+        assertSame(winner, socket);
+        release.countDown();
+        while(!loser.isClosed()) {
+            Thread.sleep(10L);
+        }
+        assertFalse(winner.isClosed());
+    }
+
+    @Test
+    public void testFailover() throws Exception {
+        final InetAddress unreachable = InetAddress.getByAddress("h", new byte[]{10, 0, 0, 1});
+        final InetAddress reachable = InetAddress.getByAddress("h", new byte[]{10, 0, 0, 2});
+        final Socket connected = new Socket();
+        // Next attempt starts without waiting for delay after failure
+        final Socket socket = new RacingSocketConnector(Long.MAX_VALUE).connect(new InetAddress[]{unreachable, reachable}, address -> {
+            if(address.equals(unreachable)) {
+                throw new ConnectException();
+            }
+            return connected;
+        });
+        assertSame(connected, socket);
+    }
+
+    @Test(expected = ConnectException.class)
+    public void testAllFailed() throws Exception {
+        new RacingSocketConnector(10L).connect(new InetAddress[]{
+                InetAddress.getByAddress("h", new byte[]{10, 0, 0, 1}),
+                InetAddress.getByAddress("h", new byte[]{10, 0, 0, 2})}, address -> {
+            throw new ConnectException();
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import javax.net.SocketFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static org.junit.Assert.*;
+
+public class RacingSocketTest {
+
+    @Test
+    public void testConnectAddressLiteral() throws Exception {
+        try(ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            final RacingSocket socket = new RacingSocket(SocketFactory.getDefault(), s -> {
+            }, new RacingSocketConnector(10L));
+            // Applied to socket of attempt
+            socket.setSoTimeout(1234);
+            assertFalse(socket.isConnected());
+            socket.connect(new InetSocketAddress("127.0.0.1", server.getLocalPort()), 1000);
+            try(Socket accepted = server.accept()) {
+                assertTrue(socket.isConnected());
+                assertEquals(1234, socket.getSoTimeout());
+                assertEquals(server.getLocalPort(), socket.getPort());
+                socket.getOutputStream().write(1);
+                assertEquals(1, accepted.getInputStream().read());
+            }
+            socket.close();
+            assertTrue(socket.isClosed());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ch.cyberduck.core.synchronization;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.features.ChangeFeed;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ChangeFeedServiceTest {
+
+    @Test
+    public void testUpdate() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.file));
+        final Path b = new Path(directory, "b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path(b, "c", EnumSet.of(Path.Type.file));
+        final PathCache cache = new PathCache(10);
+        cache.put(directory, new AttributedList<>(Arrays.asList(a, b)));
+        cache.put(b, new AttributedList<>(Arrays.asList(c)));
+        final ChangeFeed feed = new ChangeFeed() {
+            @Override
+            public String cursor(final Path directory) {
+                return "1";
+            }
+
+            @Override
+            public String changes(final Path directory, final String cursor, final Listener listener) {
+                assertEquals("1", cursor);
+                listener.changed(new Path(directory, "a", EnumSet.of(Path.Type.file), new PathAttributes().withSize(5L)));
+                listener.changed(new Path(directory, "e", EnumSet.of(Path.Type.file)));
+                listener.deleted(new Path(directory, "b", EnumSet.of(Path.Type.file)));
+                return "2";
+            }
+        };
+        final ChangeFeedService service = new ChangeFeedService(cache);
+        // No previous cursor
+        assertNull(service.update(feed, directory));
+        final Set<Path> changes = service.update(feed, directory);
+        assertNotNull(changes);
+        assertEquals(3, changes.size());
+        final AttributedList<Path> list = cache.get(directory);
+        assertEquals(2, list.size());
+        assertEquals(5L, list.find(f -> f.getName().equals("a")).attributes().getSize());
+        assertNotNull(list.find(f -> f.getName().equals("e")));
+        assertNull(list.find(f -> f.getName().equals("b")));
+        assertFalse(cache.isCached(b));
+        service.reset();
+        assertNull(service.update(feed, directory));
+    }
+
+    @Test
+    public void testMovedWithUnknownPreviousLocation() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.directory), new PathAttributes().withFileId("1"));
+        final Path b = new Path(directory, "b", EnumSet.of(Path.Type.directory), new PathAttributes().withFileId("2"));
+        final Path f = new Path(a, "f", EnumSet.of(Path.Type.file), new PathAttributes().withFileId("3"));
+        final PathCache cache = new PathCache(10);
+        cache.put(directory, new AttributedList<>(Arrays.asList(a, b)));
+        cache.put(a, new AttributedList<>(Arrays.asList(f)));
+        cache.put(b, new AttributedList<>());
+        final ChangeFeed feed = new ChangeFeed() {
+            @Override
+            public String cursor(final Path directory) {
+                return "1";
+            }
+
+            @Override
+            public String changes(final Path directory, final String cursor, final Listener listener) {
+                // Moved to other folder with only new location reported
+                listener.changed(new Path(b, "g", EnumSet.of(Path.Type.file), new PathAttributes().withFileId("3")));
+                // Folder renamed
+                listener.changed(new Path(directory, "c", EnumSet.of(Path.Type.directory), new PathAttributes().withFileId("1")));
+                return "2";
+            }
+        };
+        final ChangeFeedService service = new ChangeFeedService(cache);
+        assertNull(service.update(feed, directory));
+        assertNotNull(service.update(feed, directory));
+        assertTrue(cache.get(a).isEmpty());
+        assertFalse(cache.isCached(a));
+        assertNotNull(cache.get(b).find(p -> p.getName().equals("g")));
+        final AttributedList<Path> list = cache.get(directory);
+        assertNull(list.find(p -> p.getName().equals("a")));
+        assertNotNull(list.find(p -> p.getName().equals("c")));
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final ChangeFeed feed = new ChangeFeed() {
+            @Override
+            public String cursor(final Path directory) {
+                return "1";
+            }
+
+            @Override
+            public String changes(final Path directory, final String cursor, final Listener listener) {
+                return null;
+            }
+        };
+        final ChangeFeedService service = new ChangeFeedService(new PathCache(1));
+        assertNull(service.update(feed, directory));
+        assertNull(service.update(feed, directory));
+    }
+}
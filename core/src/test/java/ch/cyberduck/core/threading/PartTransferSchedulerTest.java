@@ -0,0 +1,124 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PartTransferSchedulerTest {
+
+    @Test
+    public void testConcurrencyPerFile() throws Exception {
+        final PartTransferScheduler scheduler = new PartTransferScheduler(4, 100, Long.MAX_VALUE);
+        final PartThreadPool pool = scheduler.pool(new Host(new TestProtocol()), 2, 10L);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Future<Integer>> parts = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            parts.add(pool.execute(() -> {
+                max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(10L);
+                return running.decrementAndGet();
+            }, 1L));
+        }
+        for(Future<Integer> f : parts) {
+            f.get();
+        }
+        pool.shutdown(true);
+        assertTrue(max.get() <= 2);
+    }
+
+    @Test
+    public void testShutdownCancelsQueued() throws Exception {
+        final PartTransferScheduler scheduler = new PartTransferScheduler(1, 100, Long.MAX_VALUE);
+        final PartThreadPool pool = scheduler.pool(new Host(new TestProtocol()), 1, 2L);
+        final CountDownLatch started = new CountDownLatch(1);
+        final Future<Void> first = pool.execute(() -> {
+            started.countDown();
+            // Interrupted when shutdown
+            new CountDownLatch(1).await();
+            return null;
+        }, 1L);
+        final Future<Void> second = pool.execute(() -> null, 1L);
+        started.await();
+        pool.shutdown(false);
+        assertTrue(first.isDone());
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    public void testSharedBetweenFiles() throws Exception {
+        final PartTransferScheduler scheduler = new PartTransferScheduler(2, 2, 10L);
+        final Host host = new Host(new TestProtocol());
+        final PartThreadPool a = scheduler.pool(host, 10, 25L);
+        final PartThreadPool b = scheduler.pool(host, 10, 25L);
+        final AtomicInteger counter = new AtomicInteger();
+        final List<Future<Integer>> parts = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            parts.add(a.execute(counter::incrementAndGet, 5L));
+            parts.add(b.execute(counter::incrementAndGet, 5L));
+        }
+        for(Future<Integer> f : parts) {
+            f.get();
+        }
+        a.shutdown(true);
+        b.shutdown(true);
+        assertEquals(10, counter.get());
+    }
+
+    @Test
+    public void testInterruptAwaitingBudget() throws Exception {
+        final PartTransferScheduler scheduler = new PartTransferScheduler(1, 1, Long.MAX_VALUE);
+        final PartThreadPool pool = scheduler.pool(new Host(new TestProtocol()), 1, 2L);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<Void> first = pool.execute(() -> {
+            release.await();
+            return null;
+        }, 1L);
+        Thread.currentThread().interrupt();
+        try {
+            pool.execute(() -> null, 1L);
+            fail();
+        }
+        catch(ConnectionCanceledException e) {
+            assertTrue(Thread.interrupted());
+        }
+        release.countDown();
+        first.get();
+        pool.shutdown(true);
+    }
+
+    @Test
+    public void testRemaining() throws Exception {
+        final PartTransferScheduler scheduler = new PartTransferScheduler(1, 100, Long.MAX_VALUE);
+        final PartThreadPool pool = scheduler.pool(new Host(new TestProtocol()), 1, 10L);
+        assertEquals(10L, pool.getRemaining());
+        pool.execute(() -> null, 4L).get();
+        pool.shutdown(true);
+        assertEquals(6L, pool.getRemaining());
+    }
+}
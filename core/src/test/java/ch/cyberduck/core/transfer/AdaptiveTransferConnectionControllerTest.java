@@ -0,0 +1,138 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class AdaptiveTransferConnectionControllerTest {
+
+    @Test
+    public void testDisabledDefault() {
+        assertFalse(AdaptiveTransferConnectionController.isEnabled(new Host(new TestProtocol()), 5));
+    }
+
+    @Test
+    public void testIncreaseUntilSettled() {
+        final AtomicInteger connections = new AtomicInteger();
+        final DownloadTransfer transfer = this.transfer();
+        transfer.getSource().setProperty("queue.connections.adaptive.limit", String.valueOf(2));
+        final AdaptiveTransferConnectionController controller = new AdaptiveTransferConnectionController(transfer, 5, connections::set);
+        assertEquals(2, controller.getLimit());
+        controller.sample(100d);
+        assertEquals(3, controller.getLimit());
+        controller.sample(150d);
+        assertEquals(4, controller.getLimit());
+        // No improvement with additional connection
+        controller.sample(152d);
+        assertEquals(3, controller.getLimit());
+        assertEquals(3, connections.get());
+        controller.sample(200d);
+        assertEquals(3, controller.getLimit());
+    }
+
+    @Test
+    public void testLimitProtocolMaximum() {
+        final AtomicInteger connections = new AtomicInteger();
+        final DownloadTransfer transfer = this.transfer();
+        transfer.getSource().setProperty("queue.connections.adaptive.limit", String.valueOf(10));
+        final AdaptiveTransferConnectionController controller = new AdaptiveTransferConnectionController(transfer, 3, connections::set);
+        assertEquals(3, controller.getLimit());
+        controller.sample(100d);
+        assertEquals(3, controller.getLimit());
+        controller.sample(200d);
+        assertEquals(3, controller.getLimit());
+    }
+
+    @Test
+    public void testStartBelowProtocolLimit() {
+        final AtomicInteger connections = new AtomicInteger();
+        final AdaptiveTransferConnectionController controller = new AdaptiveTransferConnectionController(this.transfer(), 6, connections::set);
+        assertEquals(3, controller.getLimit());
+        controller.sample(100d);
+        assertEquals(4, controller.getLimit());
+        assertEquals(4, connections.get());
+    }
+
+    @Test
+    public void testSteadyThroughputKeepsLimit() {
+        final DownloadTransfer transfer = this.transfer();
+        transfer.getSource().setProperty("queue.connections.adaptive.limit", String.valueOf(5));
+        final AdaptiveTransferConnectionController controller = new AdaptiveTransferConnectionController(transfer, 5, connections -> {
+        });
+        controller.sample(100d);
+        assertEquals(5, controller.getLimit());
+        // No connection added to back off from
+        controller.sample(100d);
+        assertEquals(5, controller.getLimit());
+        controller.sample(100d);
+        assertEquals(5, controller.getLimit());
+        controller.save();
+        assertEquals(String.valueOf(5), transfer.getSource().getProperty("queue.connections.adaptive.limit"));
+    }
+
+    @Test
+    public void testDecreaseOnThrottling() {
+        final AtomicInteger connections = new AtomicInteger();
+        final DownloadTransfer transfer = this.transfer();
+        transfer.getSource().setProperty("queue.connections.adaptive.limit", String.valueOf(8));
+        final AdaptiveTransferConnectionController controller = new AdaptiveTransferConnectionController(transfer, 8, connections::set);
+        controller.failure(new RetriableAccessDeniedException("503"));
+        assertEquals(4, controller.getLimit());
+        // Single decrease for concurrent failures
+        controller.failure(new RetriableAccessDeniedException("503"));
+        assertEquals(4, controller.getLimit());
+        assertEquals(4, connections.get());
+        // Ignore sample after failure
+        controller.sample(100d);
+        assertEquals(4, controller.getLimit());
+        controller.sample(100d);
+        assertEquals(5, controller.getLimit());
+        controller.failure(new NotfoundException("/p"));
+        assertEquals(5, controller.getLimit());
+    }
+
+    @Test
+    public void testSave() {
+        final DownloadTransfer transfer = this.transfer();
+        transfer.getSource().setProperty("queue.connections.adaptive.limit", String.valueOf(4));
+        final AdaptiveTransferConnectionController controller = new AdaptiveTransferConnectionController(transfer, 4, connections -> {
+        });
+        controller.failure(new RetriableAccessDeniedException("503"));
+        controller.save();
+        assertEquals(String.valueOf(2), transfer.getSource().getProperty("queue.connections.adaptive.limit"));
+        assertEquals(2, new AdaptiveTransferConnectionController(transfer, 4, connections -> {
+        }).getLimit());
+    }
+
+    private DownloadTransfer transfer() {
+        return new DownloadTransfer(new Host(new TestProtocol(), new AlphanumericRandomStringService().random()),
+                new Path("/p", EnumSet.of(Path.Type.file)), new Local("/t"));
+    }
+}
@@ -19,7 +19,11 @@ package ch.cyberduck.core.transfer;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledConnectionCallback;
 import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullSession;
@@ -28,7 +32,11 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.ProtocolFactory;
 import ch.cyberduck.core.SerializerFactory;
 import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.shared.DefaultCopyFeature;
 import ch.cyberduck.core.serializer.TransferDictionary;
 
 import org.junit.Test;
@@ -36,9 +44,12 @@ import org.junit.Test;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 public class CopyTransferTest {
 
@@ -102,4 +113,49 @@ public class CopyTransferTest {
             t.list(session, new Path("/s", EnumSet.of(Path.Type.directory)), null, new DisabledListProgressListener())
         );
     }
+
+    @Test
+    public void testSameAccount() {
+        final CopyTransfer t = new CopyTransfer(new Host(new TestProtocol(), "t"), new Host(new TestProtocol(), "t"),
+                Collections.singletonMap(new Path("/s", EnumSet.of(Path.Type.file)), new Path("/t", EnumSet.of(Path.Type.file))));
+        assertTrue(t.isSameAccount(new Host(new TestProtocol(), "t", new Credentials("u")), new Host(new TestProtocol(), "T", new Credentials("u"))));
+        assertFalse(t.isSameAccount(new Host(new TestProtocol(), "t", new Credentials("u")), new Host(new TestProtocol(), "t", new Credentials("o"))));
+        assertFalse(t.isSameAccount(new Host(new TestProtocol(), "t", new Credentials("u")), new Host(new TestProtocol(), "o", new Credentials("u"))));
+    }
+
+    @Test
+    public void testServerSideCopy() throws Exception {
+        final Path source = new Path("/s", EnumSet.of(Path.Type.file));
+        final Path target = new Path("/t", EnumSet.of(Path.Type.file));
+        final Host host = new Host(new TestProtocol(), "t");
+        final CopyTransfer t = new CopyTransfer(host, host, Collections.singletonMap(source, target));
+        final AtomicBoolean copied = new AtomicBoolean();
+        final NullSession session = new NullTransferSession(host) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Copy.class) {
+                    return (T) new Copy() {
+                        @Override
+                        public Path copy(final Path file, final Path copy, final TransferStatus status, final ConnectionCallback prompt, final StreamListener listener) {
+                            assertEquals(source, file);
+                            assertEquals(target, copy);
+                            copied.set(true);
+                            return copy;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        assertFalse(t.feature(session, session, source, target) instanceof DefaultCopyFeature);
+        final TransferStatus status = new TransferStatus().withLength(5L);
+        t.transfer(session, session, source, null, new TransferOptions(), status, status, new DisabledConnectionCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener());
+        assertTrue(copied.get());
+        assertTrue(status.isComplete());
+        assertEquals(5L, t.getTransferred(), 0L);
+        // Different account
+        assertTrue(t.feature(session, new NullTransferSession(new Host(new TestProtocol(), "o")), source, target) instanceof DefaultCopyFeature);
+    }
 }
@@ -0,0 +1,58 @@
+package ch.cyberduck.core.transfer.download;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.local.DefaultTemporaryFileService;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SegmentBitmapTest {
+
+    @Test
+    public void testMarkSegments() throws Exception {
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final List<TransferStatus> segments = Arrays.asList(
+                new TransferStatus().segment(true).withOffset(0L).withLength(10L).withPart(1),
+                new TransferStatus().segment(true).withOffset(10L).withLength(10L).withPart(2),
+                new TransferStatus().segment(true).withOffset(20L).withLength(5L).withPart(3)
+        );
+        final SegmentBitmap map = new SegmentBitmap(file);
+        assertFalse(map.exists());
+        map.create(segments);
+        assertTrue(map.exists());
+        assertArrayEquals(new boolean[]{false, false, false}, map.read(segments));
+        map.mark(2);
+        assertArrayEquals(new boolean[]{false, true, false}, map.read(segments));
+        map.mark(3);
+        assertArrayEquals(new boolean[]{false, true, true}, map.read(segments));
+        // Different layout
+        assertArrayEquals(new boolean[]{false, false}, map.read(Arrays.asList(
+                new TransferStatus().segment(true).withOffset(0L).withLength(15L).withPart(1),
+                new TransferStatus().segment(true).withOffset(15L).withLength(10L).withPart(2)
+        )));
+        map.delete();
+        assertFalse(map.exists());
+        assertArrayEquals(new boolean[]{false, false, false}, map.read(segments));
+    }
+}
@@ -18,6 +18,7 @@ package ch.cyberduck.core.unicode;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class NFCNormalizerTest {
 
@@ -26,4 +27,15 @@ public class NFCNormalizerTest {
         final String test = "ä";
         assertEquals(test, new NFCNormalizer().normalize(test).toString());
     }
+
+    @Test
+    public void testAscii() {
+        final String test = "/container/f";
+        assertSame(test, new NFCNormalizer().normalize(test));
+    }
+
+    @Test
+    public void testDecomposed() {
+        assertEquals("\u00e4", new NFCNormalizer().normalize("a\u0308").toString());
+    }
 }
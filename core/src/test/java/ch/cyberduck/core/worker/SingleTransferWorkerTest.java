@@ -17,9 +17,11 @@ import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.DisabledNotificationService;
+import ch.cyberduck.core.shared.DisabledBulkFeature;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
 import ch.cyberduck.core.transfer.DisabledTransferPrompt;
 import ch.cyberduck.core.transfer.DownloadTransfer;
@@ -34,8 +36,11 @@ import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
@@ -293,4 +298,126 @@ public class SingleTransferWorkerTest {
             throw e;
         }
     }
+    @Test
+    public void testUploadPipelined() throws Exception {
+        final Path child = new Path("/t/c", EnumSet.of(Path.Type.file));
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() {
+                AttributedList<Local> l = new AttributedList<>();
+                l.add(new NullLocal(this.getAbsolute(), "c") {
+                    @Override
+                    public boolean exists() {
+                        return true;
+                    }
+                });
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final Host host = new Host(new TestProtocol());
+        host.setProperty("queue.transfer.pipeline.enable", String.valueOf(true));
+        final List<Path> transferred = new ArrayList<>();
+        final Transfer t = new UploadTransfer(host, root, local) {
+            @Override
+            public void transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus overall, final TransferStatus segment,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                transferred.add(file);
+            }
+        };
+        final NullSession session = new NullSession(host);
+        final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+            new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledNotificationService()) {
+            @Override
+            public Future<TransferStatus> prepare(final Path file, final Local l, final TransferStatus parent, final TransferAction action) throws BackgroundException {
+                if(file.equals(child)) {
+                    // Parent directory is transferred before child is prepared
+                    assertEquals(Collections.singletonList(root), transferred);
+                }
+                return super.prepare(file, l, parent, action);
+            }
+        };
+        worker.run(session);
+        assertEquals(Arrays.asList(root, child), transferred);
+        assertFalse(worker.getCache().isCached(new TransferItem(root, local)));
+    }
+
+    @Test
+    public void testUploadPipelinedDisabledForBulkFeature() throws Exception {
+        final Path child = new Path("/t/c", EnumSet.of(Path.Type.file));
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final NullLocal local = new NullLocal("l") {
+            @Override
+            public AttributedList<Local> list() {
+                AttributedList<Local> l = new AttributedList<>();
+                l.add(new NullLocal(this.getAbsolute(), "c") {
+                    @Override
+                    public boolean exists() {
+                        return true;
+                    }
+                });
+                return l;
+            }
+
+            @Override
+            public boolean exists() {
+                return true;
+            }
+        };
+        final Host host = new Host(new TestProtocol());
+        host.setProperty("queue.transfer.pipeline.enable", String.valueOf(true));
+        final List<Path> transferred = new ArrayList<>();
+        final Transfer t = new UploadTransfer(host, root, local) {
+            @Override
+            public void transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus overall, final TransferStatus segment,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                transferred.add(file);
+            }
+        };
+        final NullSession session = new NullSession(host) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Bulk.class) {
+                    return (T) new DisabledBulkFeature() {
+                        @Override
+                        public boolean isIncremental() {
+                            return false;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        final SingleTransferWorker worker = new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                return TransferAction.overwrite;
+            }
+        }, new DisabledTransferErrorCallback(),
+            new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledNotificationService()) {
+            @Override
+            public Future<TransferStatus> prepare(final Path file, final Local l, final TransferStatus parent, final TransferAction action) throws BackgroundException {
+                // All files are prepared before any file is transferred
+                assertTrue(transferred.isEmpty());
+                return super.prepare(file, l, parent, action);
+            }
+        };
+        worker.run(session);
+        assertEquals(Arrays.asList(root, child), transferred);
+    }
 }
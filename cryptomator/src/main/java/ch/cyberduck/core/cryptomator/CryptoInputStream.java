@@ -15,6 +15,9 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.BufferPool;
+import ch.cyberduck.core.threading.ThreadPool;
+
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.ProxyInputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -23,11 +26,22 @@ import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+/**
+ * Decrypts ciphertext chunks read from the proxy stream. With a thread pool given, up to the configured number of
+ * chunks are read ahead and decrypted concurrently while returned in order.
+ */
 public class CryptoInputStream extends ProxyInputStream {
 
-    private final InputStream proxy;
+    private final ReadableByteChannel channel;
     private final FileContentCryptor cryptor;
     private final FileHeader header;
 
@@ -39,21 +53,54 @@ public class CryptoInputStream extends ProxyInputStream {
     private long chunkIndexOffset;
     private final int chunkSize;
 
+    /**
+     * Null to decrypt on reading thread
+     */
+    private final ThreadPool pool;
+    private final int parallelism;
+    private final BufferPool buffers;
+
+    /**
+     * Pending decryption of chunks read ahead in order
+     */
+    private final Deque<Future<ByteBuffer>> chunks = new ArrayDeque<>();
+    /**
+     * Ciphertext of pending chunks in order returned to pool when decryption is complete
+     */
+    private final Deque<ByteBuffer> ciphertexts = new ArrayDeque<>();
+    private boolean eof;
+
     public CryptoInputStream(final InputStream proxy, final FileContentCryptor cryptor, final FileHeader header, final long chunkIndexOffset) {
+        this(proxy, cryptor, header, chunkIndexOffset, null, 1, BufferPool.get());
+    }
+
+    /**
+     * @param pool        Thread pool to decrypt chunks or null to decrypt on reading thread
+     * @param parallelism Maximum number of chunks read ahead
+     * @param buffers     Pool for buffers of ciphertext chunks
+     */
+    public CryptoInputStream(final InputStream proxy, final FileContentCryptor cryptor, final FileHeader header, final long chunkIndexOffset,
+                             final ThreadPool pool, final int parallelism, final BufferPool buffers) {
         super(proxy);
-        this.proxy = proxy;
+        this.channel = Channels.newChannel(proxy);
         this.cryptor = cryptor;
         this.header = header;
         this.chunkSize = cryptor.ciphertextChunkSize();
         this.chunkIndexOffset = chunkIndexOffset;
+        this.pool = pool;
+        this.parallelism = Math.max(1, parallelism);
+        this.buffers = buffers;
     }
 
     @Override
     public int read() throws IOException {
         if(!buffer.hasRemaining()) {
-            this.readNextChunk();
+            final int read = this.readNextChunk();
+            if(read == IOUtils.EOF) {
+                return IOUtils.EOF;
+            }
         }
-        return buffer.get();
+        return buffer.get() & 0xFF;
     }
 
     @Override
@@ -79,20 +126,119 @@ public class CryptoInputStream extends ProxyInputStream {
         return IOUtils.skip(this, len);
     }
 
+    @Override
+    public void close() throws IOException {
+        try {
+            this.discard();
+        }
+        finally {
+            super.close();
+        }
+    }
+
+    /**
+     * Await decryption of chunks read ahead to return ciphertext buffers to pool
+     */
+    private void discard() {
+        while(!chunks.isEmpty()) {
+            final Future<ByteBuffer> next = chunks.poll();
+            final ByteBuffer ciphertext = ciphertexts.poll();
+            try {
+                next.get();
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                chunks.clear();
+                ciphertexts.clear();
+                return;
+            }
+            catch(ExecutionException e) {
+                // Ignore
+            }
+            buffers.release(ciphertext);
+        }
+    }
+
     private int readNextChunk() throws IOException {
-        final ByteBuffer ciphertextBuf = ByteBuffer.allocate(chunkSize);
-        final int read = IOUtils.read(proxy, ciphertextBuf.array());
-        if(read == 0) {
+        if(null == pool) {
+            final ByteBuffer ciphertext = this.readCiphertextChunk();
+            if(null == ciphertext) {
+                return IOUtils.EOF;
+            }
+            try {
+                buffer = this.decrypt(ciphertext, chunkIndexOffset++);
+            }
+            finally {
+                buffers.release(ciphertext);
+            }
+            return buffer.remaining();
+        }
+        // Read ahead while previous chunks are decrypted
+        while(!eof && chunks.size() < parallelism) {
+            final ByteBuffer ciphertext = this.readCiphertextChunk();
+            if(null == ciphertext) {
+                break;
+            }
+            final long index = chunkIndexOffset++;
+            chunks.add(pool.execute(() -> this.decrypt(ciphertext, index)));
+            ciphertexts.add(ciphertext);
+        }
+        final Future<ByteBuffer> next = chunks.poll();
+        if(null == next) {
             return IOUtils.EOF;
         }
-        ciphertextBuf.position(read);
-        ciphertextBuf.flip();
+        final ByteBuffer ciphertext = ciphertexts.poll();
         try {
-            buffer = cryptor.decryptChunk(ciphertextBuf, chunkIndexOffset++, header, true);
+            buffer = next.get();
+        }
+        catch(InterruptedException e) {
+            // Ciphertext may still be in use
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            buffers.release(ciphertext);
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+        buffers.release(ciphertext);
+        return buffer.remaining();
+    }
+
+    /**
+     * @return Null when end of stream is reached
+     */
+    private ByteBuffer readCiphertextChunk() throws IOException {
+        if(eof) {
+            return null;
+        }
+        final ByteBuffer ciphertext = buffers.acquire(chunkSize);
+        final int read;
+        try {
+            read = IOUtils.read(channel, ciphertext);
+        }
+        catch(IOException e) {
+            buffers.release(ciphertext);
+            throw e;
+        }
+        if(read < chunkSize) {
+            eof = true;
+        }
+        if(read == 0) {
+            buffers.release(ciphertext);
+            return null;
+        }
+        ciphertext.flip();
+        return ciphertext;
+    }
+
+    private ByteBuffer decrypt(final ByteBuffer ciphertext, final long index) throws IOException {
+        try {
+            return cryptor.decryptChunk(ciphertext, index, header, true);
         }
         catch(CryptoException e) {
             throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
         }
-        return read;
     }
 }
@@ -15,8 +15,10 @@ package ch.cyberduck.core.cryptomator;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.io.MemorySegementingOutputStream;
 import ch.cyberduck.core.random.NonceGenerator;
+import ch.cyberduck.core.threading.ThreadPool;
 
 import org.apache.commons.io.output.ProxyOutputStream;
 import org.cryptomator.cryptolib.api.CryptoException;
@@ -24,16 +26,31 @@ import org.cryptomator.cryptolib.api.FileContentCryptor;
 import org.cryptomator.cryptolib.api.FileHeader;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class CryptoOutputStream extends ProxyOutputStream {
 
     public CryptoOutputStream(final OutputStream proxy, final FileContentCryptor cryptor, final FileHeader header,
                               final NonceGenerator nonces, final long chunkIndexOffset) {
-        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset),
-                cryptor.cleartextChunkSize()));
+        this(proxy, cryptor, header, nonces, chunkIndexOffset, null, 1, BufferPool.get());
+    }
+
+    /**
+     * @param pool        Thread pool to encrypt chunks or null to encrypt on writing thread
+     * @param parallelism Maximum number of chunks pending encryption
+     * @param buffers     Pool for buffers of cleartext chunks
+     */
+    public CryptoOutputStream(final OutputStream proxy, final FileContentCryptor cryptor, final FileHeader header,
+                              final NonceGenerator nonces, final long chunkIndexOffset,
+                              final ThreadPool pool, final int parallelism, final BufferPool buffers) {
+        super(new MemorySegementingOutputStream(new EncryptingOutputStream(proxy, cryptor, header, nonces, chunkIndexOffset,
+                pool, parallelism, buffers), cryptor.cleartextChunkSize()));
     }
 
     @Override
@@ -46,6 +63,9 @@ public class CryptoOutputStream extends ProxyOutputStream {
         write(b, 0, b.length);
     }
 
+    /**
+     * Encrypts chunks concurrently when a thread pool is given and writes the ciphertext in order
+     */
     private static final class EncryptingOutputStream extends ProxyOutputStream {
         private final FileContentCryptor cryptor;
         private final FileHeader header;
@@ -53,14 +73,34 @@ public class CryptoOutputStream extends ProxyOutputStream {
         private final NonceGenerator nonces;
         private long chunkIndexOffset;
 
+        /**
+         * Null to encrypt on writing thread
+         */
+        private final ThreadPool pool;
+        private final int parallelism;
+        private final BufferPool buffers;
+
+        /**
+         * Pending encryption of chunks in order
+         */
+        private final Deque<Future<ByteBuffer>> chunks = new ArrayDeque<>();
+        /**
+         * Cleartext of pending chunks in order returned to pool when encryption is complete
+         */
+        private final Deque<ByteBuffer> cleartexts = new ArrayDeque<>();
+
         public EncryptingOutputStream(final OutputStream proxy, final FileContentCryptor cryptor, final FileHeader header,
-                                      final NonceGenerator nonces, final long chunkIndexOffset) {
+                                      final NonceGenerator nonces, final long chunkIndexOffset,
+                                      final ThreadPool pool, final int parallelism, final BufferPool buffers) {
             super(proxy);
             this.cryptor = cryptor;
             this.header = header;
             this.chunksize = cryptor.cleartextChunkSize();
             this.nonces = nonces;
             this.chunkIndexOffset = chunkIndexOffset;
+            this.pool = pool;
+            this.parallelism = Math.max(1, parallelism);
+            this.buffers = buffers;
         }
 
         @Override
@@ -70,16 +110,118 @@ public class CryptoOutputStream extends ProxyOutputStream {
 
         @Override
         public void write(final byte[] b, final int off, final int len) throws IOException {
+            for(int chunkOffset = off; chunkOffset < off + len; chunkOffset += chunksize) {
+                final int chunkLen = Math.min(chunksize, off + len - chunkOffset);
+                final ByteBuffer cleartext = buffers.acquire(chunksize);
+                cleartext.put(b, chunkOffset, chunkLen);
+                cleartext.flip();
+                final long index = chunkIndexOffset++;
+                // Nonces are obtained in order of chunks
+                final byte[] nonce = nonces.next();
+                if(null == pool) {
+                    final ByteBuffer encrypted;
+                    try {
+                        encrypted = this.encrypt(cleartext, index, nonce);
+                    }
+                    finally {
+                        buffers.release(cleartext);
+                    }
+                    this.writeChunk(encrypted);
+                }
+                else {
+                    chunks.add(pool.execute(() -> this.encrypt(cleartext, index, nonce)));
+                    cleartexts.add(cleartext);
+                    while(chunks.size() >= parallelism) {
+                        this.writeNextChunk();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            while(!chunks.isEmpty()) {
+                this.writeNextChunk();
+            }
+            super.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                try {
+                    while(!chunks.isEmpty()) {
+                        this.writeNextChunk();
+                    }
+                }
+                finally {
+                    this.discard();
+                }
+            }
+            finally {
+                super.close();
+            }
+        }
+
+        private void writeNextChunk() throws IOException {
+            final Future<ByteBuffer> next = chunks.poll();
+            final ByteBuffer cleartext = cleartexts.poll();
+            final ByteBuffer encrypted;
             try {
-                for(int chunkOffset = off; chunkOffset < len; chunkOffset += chunksize) {
-                    int chunkLen = Math.min(chunksize, len - chunkOffset);
-                    final ByteBuffer encryptedChunk = cryptor.encryptChunk(
-                        ByteBuffer.wrap(Arrays.copyOfRange(b, chunkOffset, chunkOffset + chunkLen)),
-                        chunkIndexOffset++, header, nonces.next());
-                    final byte[] encrypted = new byte[encryptedChunk.remaining()];
-                    encryptedChunk.get(encrypted);
-                    super.write(encrypted);
+                encrypted = next.get();
+            }
+            catch(InterruptedException e) {
+                // Cleartext may still be in use
+                throw new InterruptedIOException(e.getMessage());
+            }
+            catch(ExecutionException e) {
+                buffers.release(cleartext);
+                if(e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+            buffers.release(cleartext);
+            this.writeChunk(encrypted);
+        }
+
+        /**
+         * Await encryption of chunks not written after failure to return cleartext buffers to pool
+         */
+        private void discard() {
+            while(!chunks.isEmpty()) {
+                final Future<ByteBuffer> next = chunks.poll();
+                final ByteBuffer cleartext = cleartexts.poll();
+                try {
+                    next.get();
+                }
+                catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    chunks.clear();
+                    cleartexts.clear();
+                    return;
                 }
+                catch(ExecutionException e) {
+                    // Ignore
+                }
+                buffers.release(cleartext);
+            }
+        }
+
+        private void writeChunk(final ByteBuffer encrypted) throws IOException {
+            if(encrypted.hasArray()) {
+                super.write(encrypted.array(), encrypted.arrayOffset() + encrypted.position(), encrypted.remaining());
+            }
+            else {
+                final byte[] bytes = new byte[encrypted.remaining()];
+                encrypted.get(bytes);
+                super.write(bytes);
+            }
+        }
+
+        private ByteBuffer encrypt(final ByteBuffer cleartext, final long index, final byte[] nonce) throws IOException {
+            try {
+                return cryptor.encryptChunk(cleartext, index, header, nonce);
             }
             catch(CryptoException e) {
                 throw new IOException(e.getMessage(), new CryptoAuthenticationException(e.getMessage(), e));
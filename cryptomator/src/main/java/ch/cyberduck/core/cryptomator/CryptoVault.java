@@ -27,10 +27,13 @@ import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.LoginCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.*;
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultTouchFeature;
 import ch.cyberduck.core.shared.DefaultUrlProvider;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
 import ch.cyberduck.core.vault.VaultCredentials;
@@ -58,6 +61,7 @@ import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.EnumSet;
 import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -111,6 +115,15 @@ public class CryptoVault implements Vault {
     private CryptoFilename filenameProvider;
     private CryptoDirectory directoryProvider;
 
+    /**
+     * Number of content chunks encrypted or decrypted concurrently per stream
+     */
+    private int parallelism;
+    /**
+     * Pool for content encryption or null to encrypt and decrypt on the thread of the stream
+     */
+    private ThreadPool contentPool;
+
     private final byte[] pepper;
 
     public CryptoVault(final Path home) {
@@ -322,7 +335,11 @@ public class CryptoVault implements Vault {
             if(filenameProvider != null) {
                 filenameProvider.destroy();
             }
+            if(contentPool != null) {
+                contentPool.shutdown(false);
+            }
         }
+        contentPool = null;
         cryptor = null;
         fileNameCryptor = null;
     }
@@ -354,6 +371,14 @@ public class CryptoVault implements Vault {
             this.filenameProvider = filenameProvider;
             this.directoryProvider = directoryProvider;
             this.nonceSize = vaultConfig.getNonceSize();
+            final int parallelism = preferences.getInteger("cryptomator.vault.content.parallelism");
+            this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Use parallelism %d for content cryptor", this.parallelism));
+            }
+            // Number of pending chunks is bounded by parallelism of each stream
+            this.contentPool = this.parallelism > 1 ? ThreadPoolFactory.get("cryptomator", this.parallelism,
+                    ThreadPool.Priority.norm, new LinkedBlockingQueue<>()) : null;
         }
         catch(IllegalArgumentException | IOException e) {
             throw new VaultException("Failure reading key file", e);
@@ -591,6 +616,24 @@ public class CryptoVault implements Vault {
         return cryptor.fileContentCryptor();
     }
 
+    /**
+     * @return Null if chunks are encrypted and decrypted sequentially
+     */
+    public ThreadPool getContentThreadPool() {
+        return contentPool;
+    }
+
+    public int getContentParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return Pool for buffers of content chunks
+     */
+    public BufferPool getBufferPool() {
+        return BufferPool.get();
+    }
+
     public CryptorCache getFileNameCryptor() {
         return fileNameCryptor;
     }
@@ -119,6 +119,11 @@ public class CryptoBulkFeature<R> implements Bulk<R> {
         delegate.post(type, encrypted, callback);
     }
 
+    @Override
+    public boolean isIncremental() {
+        return delegate.isIncremental();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("CryptoBulkFeature{");
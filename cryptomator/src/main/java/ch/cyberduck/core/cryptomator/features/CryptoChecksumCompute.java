@@ -88,7 +88,8 @@ public class CryptoChecksumCompute extends AbstractChecksumCompute {
         try {
             final PipedOutputStream source = new PipedOutputStream();
             final CryptoOutputStream out = new CryptoOutputStream(source, cryptomator.getFileContentCryptor(),
-                    cryptomator.getFileHeaderCryptor().decryptHeader(header), nonces, cryptomator.numberOfChunks(offset));
+                    cryptomator.getFileHeaderCryptor().decryptHeader(header), nonces, cryptomator.numberOfChunks(offset),
+                    cryptomator.getContentThreadPool(), cryptomator.getContentParallelism(), cryptomator.getBufferPool());
             final PipedInputStream sink = new PipedInputStream(source, PreferencesFactory.get().getInteger("connection.chunksize"));
             final ThreadPool pool = ThreadPoolFactory.get("checksum", 1);
             try {
@@ -60,12 +60,14 @@ public class CryptoReadFeature implements Read {
                 IOUtils.closeQuietly(in);
                 final TransferStatus s = new TransferStatus(status).withLength(-1L);
                 s.setOffset(this.align(status.getOffset()));
-                final CryptoInputStream crypto = new CryptoInputStream(proxy.read(vault.encrypt(session, file), s, callback), vault.getFileContentCryptor(), header, this.chunk(status.getOffset()));
+                final CryptoInputStream crypto = new CryptoInputStream(proxy.read(vault.encrypt(session, file), s, callback), vault.getFileContentCryptor(), header, this.chunk(status.getOffset()),
+                        vault.getContentThreadPool(), vault.getContentParallelism(), vault.getBufferPool());
                 crypto.skip(this.position(status.getOffset()));
                 return crypto;
             }
             else {
-                return new CryptoInputStream(in, vault.getFileContentCryptor(), header, vault.numberOfChunks(status.getOffset()));
+                return new CryptoInputStream(in, vault.getFileContentCryptor(), header, vault.numberOfChunks(status.getOffset()),
+                        vault.getContentThreadPool(), vault.getContentParallelism(), vault.getBufferPool());
             }
         }
         catch(IOException e) {
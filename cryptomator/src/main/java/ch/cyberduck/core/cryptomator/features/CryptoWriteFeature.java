@@ -68,7 +68,8 @@ public class CryptoWriteFeature<Reply> implements Write<Reply> {
             }
             return new StatusOutputStream<Reply>(new CryptoOutputStream(cleartext,
                     vault.getFileContentCryptor(), vault.getFileHeaderCryptor().decryptHeader(status.getHeader()),
-                    status.getNonces(), vault.numberOfChunks(status.getOffset()))) {
+                    status.getNonces(), vault.numberOfChunks(status.getOffset()),
+                    vault.getContentThreadPool(), vault.getContentParallelism(), vault.getBufferPool())) {
                 @Override
                 public Reply getStatus() throws BackgroundException {
                     return cleartext.getStatus();
@@ -22,6 +22,9 @@ import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.cryptomator.random.RandomNonceGenerator;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BufferPool;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.vault.VaultCredentials;
 
@@ -131,4 +134,39 @@ public class CryptoOutputStreamTest {
 
         assertArrayEquals(cleartext, read);
     }
+
+    @Test
+    public void testWriteReadParallel() throws Exception {
+        final CryptoVault vault = this.getVault();
+        final ThreadPool pool = ThreadPoolFactory.get("cryptomator", 4);
+        try {
+            final ByteArrayOutputStream cipherText = new ByteArrayOutputStream();
+            final FileHeader header = vault.getFileHeaderCryptor().create();
+            final CryptoOutputStream stream = new CryptoOutputStream(
+                    new ProxyOutputStream(cipherText), vault.getFileContentCryptor(), header, new RandomNonceGenerator(vault.getNonceSize()), 0,
+                    pool, 4, new BufferPool(8L * vault.getFileContentCryptor().cleartextChunkSize()));
+            // Partial last chunk
+            final byte[] cleartext = RandomUtils.nextBytes(vault.getFileContentCryptor().cleartextChunkSize() * 10 + 17);
+            stream.write(cleartext, 0, cleartext.length);
+            stream.close();
+            assertEquals(vault.toCiphertextSize(0L, cleartext.length) - vault.getFileHeaderCryptor().headerSize(), cipherText.size());
+            // Sequential decryption of output written in parallel
+            final byte[] sequential = new byte[cleartext.length];
+            final CryptoInputStream in = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getFileContentCryptor(), header, 0);
+            IOUtils.readFully(in, sequential);
+            assertEquals(-1, in.read());
+            in.close();
+            assertArrayEquals(cleartext, sequential);
+            final byte[] parallel = new byte[cleartext.length];
+            final CryptoInputStream parallelIn = new CryptoInputStream(new ByteArrayInputStream(cipherText.toByteArray()), vault.getFileContentCryptor(), header, 0,
+                    pool, 4, new BufferPool(8L * vault.getFileContentCryptor().ciphertextChunkSize()));
+            IOUtils.readFully(parallelIn, parallel);
+            assertEquals(-1, parallelIn.read());
+            parallelIn.close();
+            assertArrayEquals(cleartext, parallel);
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
 }
@@ -21,21 +21,20 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
-import ch.cyberduck.core.UUIDRandomStringService;
 import ch.cyberduck.core.concurrency.Interruptibles;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Buffer;
+import ch.cyberduck.core.io.BufferInputStream;
 import ch.cyberduck.core.io.BufferOutputStream;
+import ch.cyberduck.core.io.BufferPool;
 import ch.cyberduck.core.io.Checksum;
-import ch.cyberduck.core.io.FileBuffer;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.io.StreamProgress;
-import ch.cyberduck.core.local.TemporaryFileService;
-import ch.cyberduck.core.local.TemporaryFileServiceFactory;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
@@ -50,8 +49,8 @@ import ch.cyberduck.core.sds.io.swagger.client.model.S3FileUploadPart;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptExceptionMappingService;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.SegmentRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -63,7 +62,9 @@ import org.joda.time.DateTime;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -90,7 +91,7 @@ public class SDSDirectS3UploadFeature extends HttpUploadFeature<Node, MessageDig
 
     private final Long partsize;
     private final Integer concurrency;
-    private final TemporaryFileService temp = TemporaryFileServiceFactory.instance();
+    private final BufferPool buffers = BufferPool.get();
 
     private final PathContainerService containerService
             = new SDSPathContainerService();
@@ -111,7 +112,8 @@ public class SDSDirectS3UploadFeature extends HttpUploadFeature<Node, MessageDig
     @Override
     public Node upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                        final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
+        final List<Buffer> buffered = new ArrayList<>();
         try {
             final CreateFileUploadRequest createFileUploadRequest = new CreateFileUploadRequest()
                     .directS3Upload(true)
@@ -127,8 +129,9 @@ public class SDSDirectS3UploadFeature extends HttpUploadFeature<Node, MessageDig
             final Map<Integer, TransferStatus> etags = new HashMap<>();
             final List<PresignedUrl> presignedUrls = this.retrievePresignedUrls(createFileUploadResponse, status);
             final List<Future<TransferStatus>> parts = new ArrayList<>();
+            // Encrypted parts not yet uploaded
+            final Deque<Future<TransferStatus>> window = new ArrayDeque<>();
             final InputStream in;
-            final String random = new UUIDRandomStringService().random();
             if(new SDSTripleCryptEncryptorFeature(session, nodeid).isEncrypted(containerService.getContainer(file))) {
                 in = new SDSTripleCryptEncryptorFeature(session, nodeid).encrypt(file, local.getInputStream(), status);
             }
@@ -144,18 +147,24 @@ public class SDSDirectS3UploadFeature extends HttpUploadFeature<Node, MessageDig
                     final long length = Math.min(Math.max((size / (MAXIMUM_UPLOAD_PARTS - 1)), partsize), remaining);
                     final PresignedUrl presignedUrl = presignedUrls.get(partNumber - 1);
                     if(new SDSTripleCryptEncryptorFeature(session, nodeid).isEncrypted(containerService.getContainer(file))) {
-                        final Local temporary = temp.create(String.format("%s-%d", random, partNumber));
+                        // Limit number of encrypted parts held to number of parts uploaded concurrently
+                        while(window.size() >= concurrency) {
+                            Interruptibles.await(window.poll());
+                        }
+                        final Buffer buffer = buffers.create(length);
+                        buffered.add(buffer);
                         if(log.isDebugEnabled()) {
-                            log.debug(String.format("Encrypted contents for part %d to %s", partNumber, temporary));
+                            log.debug(String.format("Encrypted contents for part %d to %s", partNumber, buffer));
                         }
-                        final FileBuffer buffer = new FileBuffer(temporary);
                         new StreamCopier(status, StreamProgress.noop).withAutoclose(false).withLimit(length)
                                 .transfer(in, new BufferOutputStream(buffer));
-                        parts.add(this.submit(pool, file, temporary, buffer, throttle, listener, status,
-                                presignedUrl.getUrl(), presignedUrl.getPartNumber(), 0L, length, callback));
+                        final Future<TransferStatus> part = this.submit(pool, file, buffer, throttle, listener, status,
+                                presignedUrl.getUrl(), presignedUrl.getPartNumber(), length, callback);
+                        parts.add(part);
+                        window.add(part);
                     }
                     else {
-                        parts.add(this.submit(pool, file, local, Buffer.noop, throttle, listener, status,
+                        parts.add(this.submit(pool, file, local, throttle, listener, status,
                                 presignedUrl.getUrl(), presignedUrl.getPartNumber(), offset, length, callback));
                     }
                     remaining -= length;
@@ -201,9 +210,10 @@ public class SDSDirectS3UploadFeature extends HttpUploadFeature<Node, MessageDig
             throw new DefaultIOExceptionMappingService().map(e);
         }
         finally {
-            temp.shutdown();
             // Cancel future tasks
             pool.shutdown(false);
+            // Release memory of parts not uploaded
+            buffered.forEach(Buffer::close);
         }
     }
 
@@ -238,10 +248,10 @@ public class SDSDirectS3UploadFeature extends HttpUploadFeature<Node, MessageDig
         return presignedUrls;
     }
 
-    private Future<TransferStatus> submit(final ThreadPool pool, final Path file, final Local local,
-                                          final Buffer buffer, final BandwidthThrottle throttle, final StreamListener listener,
+    private Future<TransferStatus> submit(final PartThreadPool pool, final Path file, final Local local,
+                                          final BandwidthThrottle throttle, final StreamListener listener,
                                           final TransferStatus overall, final String url, final Integer partNumber,
-                                          final long offset, final long length, final ConnectionCallback callback) {
+                                          final long offset, final long length, final ConnectionCallback callback) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -263,10 +273,40 @@ public class SDSDirectS3UploadFeature extends HttpUploadFeature<Node, MessageDig
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Received response for part number %d", partNumber));
                 }
-                // Delete temporary file if any
+                return status.withChecksum(Checksum.parse(node.getHash()));
+            }
+        }, overall, counter), length);
+    }
+
+    private Future<TransferStatus> submit(final PartThreadPool pool, final Path file, final Buffer buffer,
+                                          final BandwidthThrottle throttle, final StreamListener listener,
+                                          final TransferStatus overall, final String url, final Integer partNumber,
+                                          final long length, final ConnectionCallback callback) throws ConnectionCanceledException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit part %d of %s in %s to queue with length %d", partNumber, file, buffer, length));
+        }
+        final BytecountStreamListener counter = new BytecountStreamListener(listener);
+        return pool.execute(new SegmentRetryCallable<>(session.getHost(), new BackgroundExceptionCallable<TransferStatus>() {
+            @Override
+            public TransferStatus call() throws BackgroundException {
+                overall.validate();
+                final TransferStatus status = new TransferStatus()
+                        .segment(true)
+                        .withLength(length)
+                        .withOffset(0L);
+                status.setUrl(url);
+                status.setPart(partNumber);
+                status.setHeader(overall.getHeader());
+                status.setFilekey(overall.getFilekey());
+                final Node node = SDSDirectS3UploadFeature.super.upload(
+                        file, new BufferInputStream(buffer), throttle, counter, status, overall, status, callback);
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Received response for part number %d", partNumber));
+                }
+                // Return memory to pool or delete temporary file
                 buffer.close();
                 return status.withChecksum(Checksum.parse(node.getHash()));
             }
-        }, overall, counter));
+        }, overall, counter), length);
     }
 }
@@ -118,4 +118,12 @@ public class SDSEncryptionBulkFeature implements Bulk<Void> {
     public Bulk<Void> withDelete(final Delete delete) {
         return this;
     }
+
+    /**
+     * @return False as missing file keys are determined for all uploaded files when complete
+     */
+    @Override
+    public boolean isIncremental() {
+        return false;
+    }
 }
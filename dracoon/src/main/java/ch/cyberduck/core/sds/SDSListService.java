@@ -71,6 +71,7 @@ public class SDSListService implements ListService {
                 listener.chunk(directory, children);
             }
             while(nodes.getItems().size() == chunksize);
+            nodeid.populate(directory, children);
         }
         catch(ApiException e) {
             throw new SDSExceptionMappingService(nodeid).map("Listing directory {0} failed", e, directory);
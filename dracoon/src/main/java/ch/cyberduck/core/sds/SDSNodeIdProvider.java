@@ -15,7 +15,9 @@ package ch.cyberduck.core.sds;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.CachingVersionIdProvider;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
@@ -33,6 +35,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class SDSNodeIdProvider extends CachingVersionIdProvider implements VersionIdProvider {
     private static final Logger log = LogManager.getLogger(SDSNodeIdProvider.class);
 
@@ -40,10 +47,29 @@ public class SDSNodeIdProvider extends CachingVersionIdProvider implements Versi
     private static final String ROOT_NODE_ID = "0";
 
     private final SDSSession session;
+    private final SDSNodeIdStore store;
+
+    /**
+     * Number of node IDs not found in cache by parent directory
+     */
+    private final Map<String, Integer> misses = new ConcurrentHashMap<>();
+    /**
+     * Directories listed or found in persistent store after cache miss
+     */
+    private final Set<String> prefetched = ConcurrentHashMap.newKeySet();
+    /**
+     * Directories looked up in persistent store
+     */
+    private final Set<String> validated = ConcurrentHashMap.newKeySet();
 
     public SDSNodeIdProvider(final SDSSession session) {
+        this(session, new SDSNodeIdStore(session.getHost()));
+    }
+
+    public SDSNodeIdProvider(final SDSSession session, final SDSNodeIdStore store) {
         super(session.getCaseSensitivity());
         this.session = session;
+        this.store = store;
     }
 
     @Override
@@ -68,6 +94,10 @@ public class SDSNodeIdProvider extends CachingVersionIdProvider implements Versi
         if(file.isRoot()) {
             return ROOT_NODE_ID;
         }
+        final String id = this.prefetch(file, chunksize);
+        if(id != null) {
+            return id;
+        }
         try {
             final String type;
             if(file.isDirectory()) {
@@ -104,4 +134,121 @@ public class SDSNodeIdProvider extends CachingVersionIdProvider implements Versi
             throw new SDSExceptionMappingService(this).map("Failure to read attributes of {0}", e, file);
         }
     }
+
+    /**
+     * Populate cache with node IDs of siblings from persistent store or by listing parent directory after repeated
+     * cache misses instead of searching for every file.
+     *
+     * @return Null if parent directory has not been listed
+     * @throws NotfoundException File not found in complete listing of parent directory
+     */
+    private String prefetch(final Path file, final int chunksize) throws BackgroundException {
+        final Path parent = file.getParent();
+        if(parent.isRoot()) {
+            return null;
+        }
+        if(prefetched.contains(parent.getAbsolute())) {
+            return null;
+        }
+        if(store.isEnabled() && validated.add(parent.getAbsolute())) {
+            final List<Path> children = store.get(parent, this.getRevision(parent));
+            if(children != null) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Cache %d node IDs from persistent store for %s", children.size(), parent));
+                }
+                for(Path child : children) {
+                    this.cache(child, child.attributes().getVersionId());
+                }
+                prefetched.add(parent.getAbsolute());
+                return this.lookup(file);
+            }
+        }
+        if(misses.merge(parent.getAbsolute(), 1, Integer::sum) < new HostPreferences(session.getHost()).getInteger("sds.nodeid.prefetch.threshold")) {
+            return null;
+        }
+        if(!prefetched.add(parent.getAbsolute())) {
+            return null;
+        }
+        misses.remove(parent.getAbsolute());
+        if(log.isInfoEnabled()) {
+            log.info(String.format("List %s to cache node IDs after repeated cache misses", parent));
+        }
+        new SDSListService(session, this).list(parent, new DisabledListProgressListener(), chunksize);
+        return this.lookup(file);
+    }
+
+    /**
+     * @return Node ID cached from complete listing of parent directory
+     * @throws NotfoundException File not found in listing
+     */
+    private String lookup(final Path file) throws BackgroundException {
+        final String id = super.getVersionId(file);
+        if(null == id) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Missing %s in listing of parent directory", file));
+            }
+            throw new NotfoundException(file.getAbsolute());
+        }
+        return id;
+    }
+
+    /**
+     * @return Branch version of directory incremented for any change in subtree
+     */
+    private long getRevision(final Path directory) throws BackgroundException {
+        if(directory.attributes().getRevision() != null) {
+            return directory.attributes().getRevision();
+        }
+        try {
+            return new NodesApi(session.getClient()).requestNode(
+                    Long.parseLong(this.getVersionId(directory)), StringUtils.EMPTY, null).getBranchVersion();
+        }
+        catch(ApiException e) {
+            throw new SDSExceptionMappingService(this).map("Failure to read attributes of {0}", e, directory);
+        }
+    }
+
+    /**
+     * Save node IDs of all children of directory to persistent store
+     *
+     * @param directory Directory with branch version set as revision
+     * @param children  Complete listing
+     */
+    public void populate(final Path directory, final AttributedList<Path> children) {
+        if(directory.isRoot()) {
+            return;
+        }
+        if(null == directory.attributes().getRevision()) {
+            return;
+        }
+        store.put(directory, directory.attributes().getRevision(), children.toList());
+    }
+
+    @Override
+    public String cache(final Path file, final String id) {
+        if(null == id) {
+            store.remove(file.getParent());
+            prefetched.remove(file.getParent().getAbsolute());
+            validated.remove(file.getParent().getAbsolute());
+            if(file.isDirectory()) {
+                store.remove(file);
+            }
+        }
+        return super.cache(file, id);
+    }
+
+    /**
+     * Persist node IDs saved
+     */
+    public void flush() {
+        store.flush();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        misses.clear();
+        prefetched.clear();
+        validated.clear();
+    }
 }
@@ -0,0 +1,279 @@
+package ch.cyberduck.core.sds;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent store of node IDs of children by directory for a single host. Entries are only valid as long as the
+ * branch version of the directory is unchanged, which is incremented for any change further down the tree.
+ */
+public class SDSNodeIdStore {
+    private static final Logger log = LogManager.getLogger(SDSNodeIdStore.class);
+
+    private static final int VERSION = 1;
+
+    private final Local file;
+    private final boolean enabled;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Guarded by entries
+     */
+    private boolean loaded;
+    private boolean dirty;
+
+    public SDSNodeIdStore(final Host host) {
+        this(LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Node IDs"),
+                        DigestUtils.sha256Hex(new HostUrlProvider().withUsername(true).withPath(false).get(host))),
+                new HostPreferences(host).getBoolean("sds.nodeid.cache.persistent.enable"),
+                new HostPreferences(host).getInteger("sds.nodeid.cache.persistent.size"));
+    }
+
+    /**
+     * @param size Maximum number of directories
+     */
+    public SDSNodeIdStore(final Local file, final boolean enabled, final int size) {
+        this.file = file;
+        this.enabled = enabled;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param directory Parent directory
+     * @param revision  Current branch version of directory
+     * @return Children with node ID set as version or null if missing or directory has been modified
+     */
+    public List<Path> get(final Path directory, final long revision) {
+        if(!enabled) {
+            return null;
+        }
+        synchronized(entries) {
+            this.load();
+            final Entry entry = entries.get(directory.getAbsolute());
+            if(null == entry) {
+                return null;
+            }
+            if(entry.revision != revision) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Invalidate node IDs for %s with revision %d changed to %d", directory, entry.revision, revision));
+                }
+                entries.remove(directory.getAbsolute());
+                dirty = true;
+                return null;
+            }
+            final List<Path> children = new ArrayList<>(entry.children.size());
+            for(Child child : entry.children) {
+                final Path file = new Path(directory, child.name, child.directory ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
+                file.attributes().setVersionId(child.id);
+                children.add(file);
+            }
+            return children;
+        }
+    }
+
+    /**
+     * @param directory Parent directory
+     * @param revision  Branch version of directory when listed
+     * @param children  All children with node ID set as version
+     */
+    public void put(final Path directory, final long revision, final List<Path> children) {
+        if(!enabled) {
+            return;
+        }
+        final List<Child> ids = new ArrayList<>(children.size());
+        for(Path file : children) {
+            ids.add(new Child(file.getName(), file.isDirectory(), file.attributes().getVersionId()));
+        }
+        synchronized(entries) {
+            this.load();
+            entries.put(directory.getAbsolute(), new Entry(revision, ids));
+            dirty = true;
+        }
+    }
+
+    /**
+     * Remove entries for directory and all descendants
+     */
+    public void remove(final Path directory) {
+        if(!enabled) {
+            return;
+        }
+        synchronized(entries) {
+            this.load();
+            for(Iterator<String> iter = entries.keySet().iterator(); iter.hasNext(); ) {
+                final String key = iter.next();
+                if(key.equals(directory.getAbsolute()) || key.startsWith(String.format("%s%s", directory.getAbsolute(), Path.DELIMITER))) {
+                    iter.remove();
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Persist pending changes
+     */
+    public void flush() {
+        if(!enabled) {
+            return;
+        }
+        try {
+            this.save();
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure %s saving node IDs to %s", e, file));
+        }
+    }
+
+    /**
+     * Guarded by entries
+     */
+    private void load() {
+        if(loaded) {
+            return;
+        }
+        loaded = true;
+        if(!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(file.getAbsolute()))))) {
+            if(in.readInt() != VERSION) {
+                log.warn(String.format("Ignore node IDs in %s with unknown version", file));
+                return;
+            }
+            final int count = in.readInt();
+            for(int i = 0; i < count; i++) {
+                final String directory = in.readUTF();
+                final long revision = in.readLong();
+                final int size = in.readInt();
+                final List<Child> children = new ArrayList<>(size);
+                for(int c = 0; c < size; c++) {
+                    children.add(new Child(in.readUTF(), in.readBoolean(), in.readUTF()));
+                }
+                entries.put(directory, new Entry(revision, children));
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Loaded node IDs for %d directories from %s", entries.size(), file));
+            }
+        }
+        catch(RuntimeException | IOException e) {
+            log.warn(String.format("Failure %s reading node IDs from %s", e, file));
+        }
+    }
+
+    private void save() throws AccessDeniedException {
+        synchronized(entries) {
+            if(!dirty) {
+                return;
+            }
+            if(!file.getParent().exists()) {
+                file.getParent().mkdir();
+            }
+            final Local temporary = LocalFactory.get(file.getParent(), String.format("%s.tmp", file.getName()));
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(Paths.get(temporary.getAbsolute()))))) {
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+                    for(Map.Entry<String, Entry> e : entries.entrySet()) {
+                        out.writeUTF(e.getKey());
+                        out.writeLong(e.getValue().revision);
+                        out.writeInt(e.getValue().children.size());
+                        for(Child child : e.getValue().children) {
+                            out.writeUTF(child.name);
+                            out.writeBoolean(child.directory);
+                            out.writeUTF(child.id);
+                        }
+                    }
+                }
+                Files.move(Paths.get(temporary.getAbsolute()), Paths.get(file.getAbsolute()), StandardCopyOption.REPLACE_EXISTING);
+                dirty = false;
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Saved node IDs for %d directories to %s", entries.size(), file));
+                }
+            }
+            catch(RuntimeException | IOException e) {
+                throw new LocalAccessDeniedException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long revision;
+        private final List<Child> children;
+
+        private Entry(final long revision, final List<Child> children) {
+            this.revision = revision;
+            this.children = children;
+        }
+    }
+
+    private static final class Child {
+        private final String name;
+        private final boolean directory;
+        private final String id;
+
+        private Child(final String name, final boolean directory, final String id) {
+            this.name = name;
+            this.directory = directory;
+            this.id = id;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SDSNodeIdStore{");
+        sb.append("file=").append(file);
+        sb.append('}');
+        return sb.toString();
+    }
+}
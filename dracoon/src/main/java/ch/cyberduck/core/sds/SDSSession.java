@@ -525,6 +525,7 @@ public class SDSSession extends HttpSession<SDSApiClient> {
     @Override
     protected void logout() {
         client.getHttpClient().close();
+        nodeid.flush();
         nodeid.clear();
     }
 
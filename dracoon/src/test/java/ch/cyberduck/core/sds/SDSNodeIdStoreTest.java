@@ -0,0 +1,82 @@
+package ch.cyberduck.core.sds;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.local.DefaultTemporaryFileService;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SDSNodeIdStoreTest {
+
+    @Test
+    public void testPersist() throws Exception {
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final SDSNodeIdStore store = new SDSNodeIdStore(file, true, Integer.MAX_VALUE);
+        final Path room = new Path("/room", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        store.put(room, 2L, Arrays.asList(
+                new Path(room, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("10")),
+                new Path(room, "d", EnumSet.of(Path.Type.directory), new PathAttributes().withVersionId("11"))));
+        store.flush();
+        assertTrue(file.exists());
+        final SDSNodeIdStore reloaded = new SDSNodeIdStore(file, true, Integer.MAX_VALUE);
+        final List<Path> children = reloaded.get(room, 2L);
+        assertNotNull(children);
+        assertEquals(2, children.size());
+        assertEquals("f", children.get(0).getName());
+        assertTrue(children.get(0).isFile());
+        assertEquals("10", children.get(0).attributes().getVersionId());
+        assertTrue(children.get(1).isDirectory());
+        assertEquals("11", children.get(1).attributes().getVersionId());
+        file.delete();
+    }
+
+    @Test
+    public void testInvalidateRevision() {
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final SDSNodeIdStore store = new SDSNodeIdStore(file, true, Integer.MAX_VALUE);
+        final Path room = new Path("/room", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        store.put(room, 2L, Arrays.asList(new Path(room, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("10"))));
+        assertNull(store.get(room, 3L));
+        // Removed after invalidation
+        assertNull(store.get(room, 2L));
+    }
+
+    @Test
+    public void testRemoveDescendants() {
+        final Local file = new DefaultTemporaryFileService().create(new AlphanumericRandomStringService().random());
+        final SDSNodeIdStore store = new SDSNodeIdStore(file, true, Integer.MAX_VALUE);
+        final Path room = new Path("/room", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path folder = new Path(room, "d", EnumSet.of(Path.Type.directory));
+        final Path sibling = new Path("/room2", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        store.put(room, 1L, Arrays.asList(new Path(room, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("10"))));
+        store.put(folder, 1L, Arrays.asList(new Path(folder, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("12"))));
+        store.put(sibling, 1L, Arrays.asList(new Path(sibling, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("13"))));
+        store.remove(room);
+        assertNull(store.get(room, 1L));
+        assertNull(store.get(folder, 1L));
+        assertNotNull(store.get(sibling, 1L));
+    }
+}
@@ -0,0 +1,328 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ConnectionTimeoutException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.preferences.HostPreferences;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
+import com.dropbox.core.v2.files.FileMetadata;
+import com.dropbox.core.v2.files.UploadSessionFinishArg;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchJobStatus;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchLaunch;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResult;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResultEntry;
+import com.dropbox.core.v2.files.UploadSessionFinishErrorException;
+
+/**
+ * Commit closed upload sessions of files uploaded concurrently with a single finish batch request to avoid
+ * contention on the namespace lock of separate commits. Shared by all connections to a host. A batch is committed
+ * by the caller waiting when the maximum number of entries is reached, no other upload is still transferring its
+ * content or the oldest entry waited longer than the linger timeout. Discarded when no upload is staged or pending.
+ */
+public final class DropboxBatchCommitService {
+    private static final Logger log = LogManager.getLogger(DropboxBatchCommitService.class);
+
+    private static final Map<Host, DropboxBatchCommitService> services = new ConcurrentHashMap<>();
+
+    /**
+     * Register upload of content before it is committed
+     *
+     * @return Service shared by all connections to host to commit upload with
+     */
+    public static DropboxBatchCommitService stage(final Host host) {
+        return services.compute(host, (key, service) -> {
+            final DropboxBatchCommitService s = null == service ? new DropboxBatchCommitService(key) : service;
+            s.stage();
+            return s;
+        });
+    }
+
+    /**
+     * Route name for failures of single entries
+     */
+    private static final String ROUTE = "2/files/upload_session/finish_batch";
+
+    private final Host host;
+    private final int size;
+    private final long linger;
+    private final long interval;
+    private final long timeout;
+
+    /**
+     * Entries waiting for commit in order of submission
+     */
+    private final Deque<Entry> pending = new ArrayDeque<>();
+    /**
+     * Number of uploads transferring content to be committed with this service
+     */
+    private int staging;
+
+    private DropboxBatchCommitService(final Host host) {
+        this(host, new HostPreferences(host).getInteger("dropbox.upload.batch.size"),
+                new HostPreferences(host).getLong("dropbox.upload.batch.linger.ms"),
+                new HostPreferences(host).getLong("dropbox.upload.batch.poll.interval.ms"),
+                new HostPreferences(host).getLong("dropbox.upload.batch.poll.timeout.ms"));
+    }
+
+    /**
+     * @param host     Connection service is shared for
+     * @param size     Maximum number of entries in batch
+     * @param linger   Maximum time in milliseconds to wait for additional entries
+     * @param interval Interval in milliseconds to poll status of asynchronous batch job
+     * @param timeout  Maximum time in milliseconds to wait for completion of asynchronous batch job
+     */
+    DropboxBatchCommitService(final Host host, final int size, final long linger, final long interval, final long timeout) {
+        this.host = host;
+        this.size = Math.max(1, Math.min(1000, size));
+        this.linger = linger;
+        this.interval = interval;
+        this.timeout = timeout;
+    }
+
+    private synchronized void stage() {
+        staging++;
+    }
+
+    /**
+     * Unregister upload failed before commit
+     */
+    public void abort() {
+        synchronized(this) {
+            staging--;
+            this.notifyAll();
+        }
+        this.release();
+    }
+
+    /**
+     * Remove from shared services when no upload is staged or pending. Must not hold lock.
+     */
+    private void release() {
+        services.computeIfPresent(host, (key, service) -> service == this && this.isIdle() ? null : service);
+    }
+
+    private synchronized boolean isIdle() {
+        return 0 == staging && pending.isEmpty();
+    }
+
+    /**
+     * Add closed upload session to next batch and wait for its commit. Must be preceded by call to {@link #stage(Host)}.
+     *
+     * @param files   Client to commit batch with if committed by this caller
+     * @param file    File uploaded
+     * @param session Cursor for closed upload session and commit information
+     * @return Metadata of committed file
+     * @throws ConnectionCanceledException Interrupted before added to batch
+     */
+    public FileMetadata commit(final DbxUserFilesRequests files, final Path file, final UploadSessionFinishArg session) throws BackgroundException {
+        final Entry entry = new Entry(file, session);
+        synchronized(this) {
+            staging--;
+            pending.add(entry);
+            this.notifyAll();
+        }
+        boolean interrupted = false;
+        InterruptedException canceled = null;
+        while(!entry.result.isDone()) {
+            final List<Entry> batch = new ArrayList<>();
+            synchronized(this) {
+                while(!entry.result.isDone() && !this.isReady()) {
+                    final long wait = pending.isEmpty() ? linger : pending.getFirst().timestamp + linger - System.currentTimeMillis();
+                    try {
+                        this.wait(Math.max(1L, wait));
+                    }
+                    catch(InterruptedException e) {
+                        if(pending.remove(entry)) {
+                            log.warn(String.format("Cancel commit of %s", file));
+                            Thread.currentThread().interrupt();
+                            this.notifyAll();
+                            canceled = e;
+                            break;
+                        }
+                        // Await commit of batch already flushing
+                        log.warn(String.format("Interrupted while waiting for commit of %s", file));
+                        interrupted = true;
+                    }
+                }
+                if(canceled != null || entry.result.isDone()) {
+                    break;
+                }
+                while(!pending.isEmpty() && batch.size() < size) {
+                    batch.add(pending.poll());
+                }
+            }
+            this.flush(files, batch);
+            synchronized(this) {
+                this.notifyAll();
+            }
+        }
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        this.release();
+        if(canceled != null) {
+            throw new ConnectionCanceledException(canceled);
+        }
+        try {
+            return entry.result.join();
+        }
+        catch(RuntimeException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return True if pending entries should be committed now. Must hold lock.
+     */
+    private boolean isReady() {
+        if(pending.isEmpty()) {
+            return false;
+        }
+        if(pending.size() >= size) {
+            return true;
+        }
+        if(0 == staging) {
+            // No other upload to wait for
+            return true;
+        }
+        return System.currentTimeMillis() - pending.getFirst().timestamp >= linger;
+    }
+
+    private void flush(final DbxUserFilesRequests files, final List<Entry> batch) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Commit batch of %d files", batch.size()));
+        }
+        try {
+            final UploadSessionFinishBatchLaunch launch = files.uploadSessionFinishBatch(
+                    batch.stream().map(e -> e.session).collect(Collectors.toList()));
+            final UploadSessionFinishBatchResult result;
+            if(launch.isComplete()) {
+                result = launch.getCompleteValue();
+            }
+            else if(launch.isAsyncJobId()) {
+                result = this.poll(files, launch.getAsyncJobIdValue());
+            }
+            else {
+                throw new InteroperabilityException(launch.toString());
+            }
+            final List<UploadSessionFinishBatchResultEntry> entries = result.getEntries();
+            for(int i = 0; i < batch.size(); i++) {
+                final Entry entry = batch.get(i);
+                if(i >= entries.size()) {
+                    break;
+                }
+                final UploadSessionFinishBatchResultEntry status = entries.get(i);
+                if(status.isSuccess()) {
+                    entry.result.complete(status.getSuccessValue());
+                }
+                else {
+                    entry.result.completeExceptionally(new DropboxExceptionMappingService().map("Upload {0} failed",
+                            new UploadSessionFinishErrorException(ROUTE, null, null, status.getFailureValue()), entry.file));
+                }
+            }
+        }
+        catch(DbxException e) {
+            for(Entry entry : batch) {
+                entry.result.completeExceptionally(new DropboxExceptionMappingService().map("Upload {0} failed", e, entry.file));
+            }
+        }
+        catch(BackgroundException e) {
+            for(Entry entry : batch) {
+                entry.result.completeExceptionally(e);
+            }
+        }
+        finally {
+            for(Entry entry : batch) {
+                // Never leave callers waiting for entries missing in result
+                entry.result.completeExceptionally(new InteroperabilityException());
+            }
+        }
+    }
+
+    /**
+     * Poll status of asynchronous batch job until complete
+     *
+     * @throws ConnectionTimeoutException  Job not complete within timeout
+     * @throws ConnectionCanceledException Interrupted while waiting
+     */
+    private UploadSessionFinishBatchResult poll(final DbxUserFilesRequests files, final String job) throws DbxException, BackgroundException {
+        final long deadline = System.currentTimeMillis() + timeout;
+        while(true) {
+            final UploadSessionFinishBatchJobStatus status = files.uploadSessionFinishBatchCheck(job);
+            if(status.isComplete()) {
+                return status.getCompleteValue();
+            }
+            if(System.currentTimeMillis() >= deadline) {
+                throw new ConnectionTimeoutException(String.format("Batch job %s not complete after %dms", job, timeout));
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Await completion of batch job %s", job));
+            }
+            try {
+                Thread.sleep(interval);
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConnectionCanceledException(e);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Path file;
+        private final UploadSessionFinishArg session;
+        private final long timestamp = System.currentTimeMillis();
+        private final CompletableFuture<FileMetadata> result = new CompletableFuture<>();
+
+        private Entry(final Path file, final UploadSessionFinishArg session) {
+            this.file = file;
+            this.session = session;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DropboxBatchCommitService{");
+        sb.append("size=").append(size);
+        sb.append(", linger=").append(linger);
+        sb.append(", pending=").append(pending.size());
+        sb.append(", staging=").append(staging);
+        sb.append('}');
+        return sb.toString();
+    }
+}
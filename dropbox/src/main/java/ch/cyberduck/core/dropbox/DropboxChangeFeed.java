@@ -0,0 +1,111 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChangeFeed;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumSet;
+
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
+import com.dropbox.core.v2.files.DeletedMetadata;
+import com.dropbox.core.v2.files.ListFolderContinueErrorException;
+import com.dropbox.core.v2.files.ListFolderResult;
+import com.dropbox.core.v2.files.Metadata;
+
+/**
+ * Changes in tree from recursive folder listing continued with saved cursor
+ */
+public class DropboxChangeFeed implements ChangeFeed {
+    private static final Logger log = LogManager.getLogger(DropboxChangeFeed.class);
+
+    private final DropboxSession session;
+    private final DropboxListService listService;
+    private final PathContainerService containerService;
+
+    public DropboxChangeFeed(final DropboxSession session) {
+        this.session = session;
+        this.listService = new DropboxListService(session);
+        this.containerService = new DropboxPathContainerService(session);
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        try {
+            return new DbxUserFilesRequests(session.getClient(directory)).listFolderGetLatestCursorBuilder(containerService.getKey(directory))
+                    .withRecursive(true).withIncludeDeleted(true).start().getCursor();
+        }
+        catch(DbxException e) {
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    @Override
+    public String changes(final Path directory, final String cursor, final Listener listener) throws BackgroundException {
+        try {
+            ListFolderResult result;
+            String next = cursor;
+            do {
+                result = new DbxUserFilesRequests(session.getClient(directory)).listFolderContinue(next);
+                for(Metadata metadata : result.getEntries()) {
+                    this.parse(directory, metadata, listener);
+                }
+                next = result.getCursor();
+            }
+            while(result.getHasMore());
+            return next;
+        }
+        catch(ListFolderContinueErrorException e) {
+            if(e.errorValue.isReset()) {
+                log.warn(String.format("Cursor reset for %s", directory));
+                return null;
+            }
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(DbxException e) {
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    private void parse(final Path directory, final Metadata metadata, final Listener listener) {
+        final String key = StringUtils.removeEnd(containerService.getKey(directory), String.valueOf(Path.DELIMITER));
+        if(!StringUtils.startsWithIgnoreCase(metadata.getPathLower(), key + Path.DELIMITER)) {
+            // Folder itself
+            return;
+        }
+        final String path = StringUtils.isNotBlank(metadata.getPathDisplay()) ? metadata.getPathDisplay() : metadata.getPathLower();
+        final String relative = PathNormalizer.normalize(path.substring(key.length()));
+        final Path parent = new Path(PathNormalizer.normalize(directory.getAbsolute() + PathNormalizer.parent(relative, Path.DELIMITER)),
+                EnumSet.of(Path.Type.directory));
+        if(metadata instanceof DeletedMetadata) {
+            listener.deleted(new Path(parent, PathNormalizer.name(metadata.getName()), EnumSet.of(Path.Type.file)));
+        }
+        else {
+            final Path file = listService.parse(parent, metadata);
+            if(file != null) {
+                listener.changed(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.BytecountStreamListener;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.concurrency.Interruptibles;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.DefaultStreamCloser;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
+import ch.cyberduck.core.transfer.SegmentRetryCallable;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
+import com.dropbox.core.v2.files.FileMetadata;
+import com.dropbox.core.v2.files.Metadata;
+import com.dropbox.core.v2.files.UploadSessionCursor;
+import com.dropbox.core.v2.files.UploadSessionFinishUploader;
+import com.dropbox.core.v2.files.UploadSessionStartUploader;
+import com.dropbox.core.v2.files.UploadSessionType;
+
+/**
+ * Upload file with chunks appended concurrently to an upload session of type concurrent. Chunks are a multiple of
+ * the block size of the content hash to verify the checksum from the block hashes computed for each chunk.
+ */
+public class DropboxConcurrentUploadService implements Upload<Metadata> {
+    private static final Logger log = LogManager.getLogger(DropboxConcurrentUploadService.class);
+
+    /**
+     * Maximum size of a single request
+     */
+    public static final long MAXIMUM_CHUNK_SIZE = 37L * DropboxContentHasher.BLOCK_SIZE;
+
+    private final DropboxSession session;
+    private final Long chunksize;
+    private final Integer concurrency;
+
+    public DropboxConcurrentUploadService(final DropboxSession session) {
+        this(session, new HostPreferences(session.getHost()).getLong("dropbox.upload.concurrent.chunksize"),
+                new HostPreferences(session.getHost()).getInteger("dropbox.upload.concurrency"));
+    }
+
+    public DropboxConcurrentUploadService(final DropboxSession session, final Long chunksize, final Integer concurrency) {
+        this.session = session;
+        this.chunksize = chunksize;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public Metadata upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                           final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
+        try {
+            final DbxUserFilesRequests files = new DbxUserFilesRequests(session.getClient(file));
+            final UploadSessionStartUploader start = files.uploadSessionStartBuilder()
+                    .withSessionType(UploadSessionType.CONCURRENT).start();
+            new DefaultStreamCloser().close(start.getOutputStream());
+            final String sessionId = start.finish().getSessionId();
+            final boolean checksum = new HostPreferences(session.getHost()).getBoolean("queue.upload.checksum.calculate");
+            final long size = status.getLength();
+            final long length = toChunkSize(chunksize);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Upload %s in chunks of %d bytes with session %s", file, length, sessionId));
+            }
+            final List<Future<List<byte[]>>> chunks = new ArrayList<>();
+            long offset = 0;
+            for(; offset + length < size; offset += length) {
+                chunks.add(this.submit(pool, file, files, local, throttle, listener, status, sessionId, offset, length, false, checksum));
+            }
+            final List<List<byte[]>> hashes = new ArrayList<>(Interruptibles.awaitAll(chunks));
+            // Close session with last chunk when all previous chunks are uploaded
+            hashes.add(Interruptibles.await(this.submit(pool, file, files, local, throttle, listener, status,
+                    sessionId, offset, size - offset, true, checksum)));
+            final UploadSessionFinishUploader finish = files.uploadSessionFinish(new UploadSessionCursor(sessionId, size),
+                    new DropboxWriteFeature(session).toCommitInfo(file, status));
+            finish.getOutputStream().close();
+            final FileMetadata metadata = finish.finish();
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Committed %d chunks for %s", hashes.size(), file));
+            }
+            if(checksum) {
+                this.verify(file, hashes, Checksum.parse(metadata.getContentHash()));
+            }
+            // Mark parent status as complete
+            status.setComplete();
+            return metadata;
+        }
+        catch(DbxException e) {
+            throw new DropboxExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
+        }
+    }
+
+    private Future<List<byte[]>> submit(final PartThreadPool pool, final Path file, final DbxUserFilesRequests files, final Local local,
+                                        final BandwidthThrottle throttle, final StreamListener listener, final TransferStatus overall,
+                                        final String sessionId, final long offset, final long length, final boolean close,
+                                        final boolean checksum) throws ConnectionCanceledException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit chunk of %s to queue with offset %d and length %d", file, offset, length));
+        }
+        final BytecountStreamListener counter = new BytecountStreamListener(listener);
+        return pool.execute(new SegmentRetryCallable<>(session.getHost(), new BackgroundExceptionCallable<List<byte[]>>() {
+            @Override
+            public List<byte[]> call() throws BackgroundException {
+                overall.validate();
+                final BlockDigestInputStream in;
+                try {
+                    in = new BlockDigestInputStream(new ThrottledInputStream(new BoundedInputStream(
+                            StreamCopier.skip(local.getInputStream(), offset), length), throttle),
+                            checksum ? MessageDigest.getInstance("SHA-256") : null);
+                }
+                catch(NoSuchAlgorithmException e) {
+                    throw new ChecksumException(e.getMessage(), e);
+                }
+                try {
+                    files.uploadSessionAppendV2Builder(new UploadSessionCursor(sessionId, offset))
+                            .withClose(close).start().uploadAndFinish(in, length);
+                }
+                catch(DbxException e) {
+                    throw new DropboxExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map(e);
+                }
+                finally {
+                    new DefaultStreamCloser().close(in);
+                }
+                counter.sent(length);
+                return in.getHashes();
+            }
+        }, overall, counter), length);
+    }
+
+    /**
+     * @param hashes Hashes of blocks for each chunk in order
+     */
+    private void verify(final Path file, final List<List<byte[]>> hashes, final Checksum checksum) throws ChecksumException {
+        final MessageDigest overall;
+        try {
+            overall = MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException e) {
+            throw new ChecksumException(e.getMessage(), e);
+        }
+        for(List<byte[]> chunk : hashes) {
+            for(byte[] block : chunk) {
+                overall.update(block);
+            }
+        }
+        final Checksum expected = Checksum.parse(Hex.encodeHexString(overall.digest()));
+        if(!checksum.equals(expected)) {
+            throw new ChecksumException(MessageFormat.format(LocaleFactory.localizedString("Upload {0} failed", "Error"), file.getName()),
+                    MessageFormat.format("Mismatch between content hash {0} of uploaded data and {1} returned by the server",
+                            expected, checksum.hash));
+        }
+    }
+
+    @Override
+    public Write.Append append(final Path file, final TransferStatus status) throws BackgroundException {
+        return Write.override;
+    }
+
+    @Override
+    public Upload<Metadata> withWriter(final Write<Metadata> writer) {
+        return this;
+    }
+
+    /**
+     * @param minimum Preferred chunk size
+     * @return Chunk size as a multiple of the content hash block size not exceeding the maximum request size
+     */
+    protected static long toChunkSize(final long minimum) {
+        final long blocks = Math.max(1L, minimum / DropboxContentHasher.BLOCK_SIZE);
+        return Math.min(MAXIMUM_CHUNK_SIZE, blocks * DropboxContentHasher.BLOCK_SIZE);
+    }
+
+    /**
+     * Compute SHA-256 hash for each block of the content hash read from a chunk starting at a block boundary
+     */
+    private static final class BlockDigestInputStream extends ProxyInputStream {
+        private final MessageDigest digest;
+        private final List<byte[]> hashes = new ArrayList<>();
+        /**
+         * Bytes read in current block
+         */
+        private int position;
+
+        public BlockDigestInputStream(final InputStream proxy, final MessageDigest digest) {
+            super(proxy);
+            this.digest = digest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if(b != -1 && digest != null) {
+                digest.update((byte) b);
+                this.advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if(null == digest) {
+                return super.read(b, off, len);
+            }
+            // Do not read across block boundary
+            final int n = super.read(b, off, Math.min(len, DropboxContentHasher.BLOCK_SIZE - position));
+            if(n > 0) {
+                digest.update(b, off, n);
+                this.advance(n);
+            }
+            return n;
+        }
+
+        @Override
+        public int read(final byte[] b) throws IOException {
+            return this.read(b, 0, b.length);
+        }
+
+        private void advance(final int n) {
+            position += n;
+            if(position == DropboxContentHasher.BLOCK_SIZE) {
+                hashes.add(digest.digest());
+                position = 0;
+            }
+        }
+
+        /**
+         * @return Hashes of all blocks read including trailing partial block
+         */
+        public List<byte[]> getHashes() {
+            if(null == digest) {
+                return Collections.emptyList();
+            }
+            if(position > 0) {
+                hashes.add(digest.digest());
+                position = 0;
+            }
+            return hashes;
+        }
+    }
+}
@@ -202,6 +202,11 @@ public class DropboxExceptionMappingService extends AbstractExceptionMappingServ
         }
         if(failure instanceof UploadSessionFinishErrorException) {
             final UploadSessionFinishError error = ((UploadSessionFinishErrorException) failure).errorValue;
+            if(error.isTooManyWriteOperations()) {
+                // Contention on namespace lock with concurrent commits
+                this.parse(buffer, error.toString());
+                return new RetriableAccessDeniedException(buffer.toString(), failure);
+            }
             if(error.isPath()) {
                 final WriteError lookup = error.getPathValue();
                 this.parse(buffer, lookup.toString());
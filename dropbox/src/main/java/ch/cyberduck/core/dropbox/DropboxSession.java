@@ -191,6 +191,9 @@ public class DropboxSession extends HttpSession<CustomDbxRawClientV2> {
         if(type == PathContainerService.class) {
             return (T) new DropboxPathContainerService(this);
         }
+        if(type == ChangeFeed.class) {
+            return (T) new DropboxChangeFeed(this);
+        }
         return super._getFeature(type);
     }
 
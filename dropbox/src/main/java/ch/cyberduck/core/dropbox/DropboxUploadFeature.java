@@ -16,11 +16,24 @@ package ch.cyberduck.core.dropbox;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
+import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.Checksum;
+import ch.cyberduck.core.io.StreamCancelation;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.io.ThrottledOutputStream;
 import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.transfer.AutoTransferConnectionLimiter;
+import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,17 +44,136 @@ import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
 import com.dropbox.core.v2.files.FileMetadata;
 import com.dropbox.core.v2.files.Metadata;
+import com.dropbox.core.v2.files.UploadSessionCursor;
+import com.dropbox.core.v2.files.UploadSessionFinishArg;
+import com.dropbox.core.v2.files.UploadSessionStartUploader;
 
+/**
+ * Upload files exceeding threshold with chunks appended concurrently. Smaller files are committed together with
+ * files uploaded on other connections in batches.
+ */
 public class DropboxUploadFeature extends HttpUploadFeature<Metadata, MessageDigest> {
     private static final Logger log = LogManager.getLogger(DropboxUploadFeature.class);
 
     final DropboxSession session;
 
+    private final Long threshold;
+    private final Long chunksize;
+    private final boolean batch;
+
+    private Write<Metadata> writer;
+
     public DropboxUploadFeature(final DropboxSession session, final DropboxWriteFeature writer) {
+        this(session, writer, new HostPreferences(session.getHost()).getLong("dropbox.upload.concurrent.threshold"),
+                new HostPreferences(session.getHost()).getBoolean("dropbox.upload.batch.enable"));
+    }
+
+    public DropboxUploadFeature(final DropboxSession session, final DropboxWriteFeature writer, final Long threshold, final boolean batch) {
         super(writer);
         this.session = session;
+        this.writer = writer;
+        this.threshold = threshold;
+        this.chunksize = new HostPreferences(session.getHost()).getLong("dropbox.upload.chunksize");
+        this.batch = batch;
+    }
+
+    @Override
+    public Metadata upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                           final TransferStatus status, final StreamCancelation cancel, final StreamProgress progress,
+                           final ConnectionCallback callback) throws BackgroundException {
+        if(this.isConcurrentUpload(status)) {
+            return new DropboxConcurrentUploadService(session).upload(file, local, throttle, listener, status, callback);
+        }
+        return super.upload(file, local, throttle, listener, status, cancel, progress, callback);
+    }
+
+    @Override
+    protected Metadata transfer(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                                final TransferStatus status, final StreamCancelation cancel, final StreamProgress progress,
+                                final ConnectionCallback callback, final MessageDigest digest) throws IOException, BackgroundException {
+        if(!this.isBatchUpload(status)) {
+            return super.transfer(file, local, throttle, listener, status, cancel, progress, callback, digest);
+        }
+        final DbxUserFilesRequests files = new DbxUserFilesRequests(session.getClient(file));
+        final String sessionId;
+        final DropboxBatchCommitService service = DropboxBatchCommitService.stage(session.getHost());
+        try {
+            // Upload content with request closing session
+            final UploadSessionStartUploader start = files.uploadSessionStartBuilder().withClose(true).start();
+            new StreamCopier(cancel, progress)
+                    .withOffset(status.getOffset())
+                    .withLimit(status.getLength())
+                    .withListener(listener)
+                    .transfer(this.decorate(local.getInputStream(), digest), new ThrottledOutputStream(start.getOutputStream(), throttle));
+            sessionId = start.finish().getSessionId();
+        }
+        catch(DbxException e) {
+            service.abort();
+            throw new DropboxExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(IOException | BackgroundException | RuntimeException e) {
+            service.abort();
+            throw e;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Add upload session %s for %s to batch", sessionId, file));
+        }
+        final FileMetadata metadata = service.commit(files, file, new UploadSessionFinishArg(
+                new UploadSessionCursor(sessionId, status.getLength()), new DropboxWriteFeature(session).toCommitInfo(file, status)));
+        status.setComplete();
+        return metadata;
+    }
+
+    /**
+     * @return False for files below threshold or when writing with other feature
+     */
+    private boolean isConcurrentUpload(final TransferStatus status) {
+        if(!(writer instanceof DropboxWriteFeature)) {
+            // Chunks must be written with write feature such as for encryption
+            return false;
+        }
+        return status.getLength() >= threshold;
+    }
+
+    /**
+     * @return True for files uploaded with a single request when writing with default feature on multiple connections
+     */
+    private boolean isBatchUpload(final TransferStatus status) {
+        if(!batch) {
+            return false;
+        }
+        if(!this.isConcurrentConnections()) {
+            // No other upload to commit with in the same batch
+            return false;
+        }
+        if(!(writer instanceof DropboxWriteFeature)) {
+            return false;
+        }
+        if(TransferStatus.UNKNOWN_LENGTH == status.getLength()) {
+            return false;
+        }
+        return status.getLength() < Math.min(threshold, chunksize);
+    }
+
+    /**
+     * @return True if files are transferred with more than a single connection
+     */
+    private boolean isConcurrentConnections() {
+        switch(Host.TransferType.getType(session.getHost())) {
+            case concurrent:
+                return new AutoTransferConnectionLimiter().getLimit(session.getHost()) > 1;
+        }
+        return false;
+    }
+
+    @Override
+    public Upload<Metadata> withWriter(final Write<Metadata> writer) {
+        this.writer = writer;
+        return super.withWriter(writer);
     }
 
     @Override
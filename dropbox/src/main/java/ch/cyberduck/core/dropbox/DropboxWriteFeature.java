@@ -155,11 +155,7 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<Metadata> {
             try {
                 DropboxWriteFeature.this.close(uploader);
                 final UploadSessionFinishUploader finish = client.uploadSessionFinish(new UploadSessionCursor(sessionId, written),
-                        CommitInfo.newBuilder(containerService.getKey(file))
-                                .withClientModified(status.getTimestamp() != null ? new Date(status.getTimestamp()) : null)
-                                .withMode(WriteMode.OVERWRITE)
-                                .build()
-                );
+                        DropboxWriteFeature.this.toCommitInfo(file, status));
                 finish.getOutputStream().close();
                 response.set(finish.finish());
             }
@@ -190,6 +186,16 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<Metadata> {
         uploader.finish();
     }
 
+    /**
+     * @return Commit to overwrite file with modification date from transfer status
+     */
+    protected CommitInfo toCommitInfo(final Path file, final TransferStatus status) {
+        return CommitInfo.newBuilder(containerService.getKey(file))
+                .withClientModified(status.getTimestamp() != null ? new Date(status.getTimestamp()) : null)
+                .withMode(WriteMode.OVERWRITE)
+                .build();
+    }
+
     @Override
     public ChecksumCompute checksum(final Path file, final TransferStatus status) {
         return new DropboxChecksumCompute();
@@ -0,0 +1,71 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AbstractDropboxTest;
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.ChangeFeed;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.shared.DefaultHomeFinderService;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class DropboxChangeFeedTest extends AbstractDropboxTest {
+
+    @Test
+    public void testChanges() throws Exception {
+        final Path home = new DefaultHomeFinderService(session).find();
+        final Path folder = new DropboxDirectoryFeature(session).mkdir(new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final DropboxChangeFeed feed = new DropboxChangeFeed(session);
+        final String cursor = feed.cursor(folder);
+        final Path file = new DropboxTouchFeature(session).touch(new Path(folder, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final List<Path> changed = new ArrayList<>();
+        final List<Path> deleted = new ArrayList<>();
+        final ChangeFeed.Listener listener = new ChangeFeed.Listener() {
+            @Override
+            public void changed(final Path file) {
+                changed.add(file);
+            }
+
+            @Override
+            public void deleted(final Path file) {
+                deleted.add(file);
+            }
+        };
+        final String next = feed.changes(folder, cursor, listener);
+        assertNotNull(next);
+        assertTrue(changed.contains(file));
+        assertTrue(deleted.isEmpty());
+        new DropboxDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        changed.clear();
+        assertNotNull(feed.changes(folder, next, listener));
+        assertEquals(file.getAbsolute(), deleted.get(0).getAbsolute());
+        new DropboxDeleteFeature(session).delete(Collections.singletonList(folder), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+}
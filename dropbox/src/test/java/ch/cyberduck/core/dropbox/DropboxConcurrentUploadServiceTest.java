@@ -0,0 +1,75 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AbstractDropboxTest;
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.BytecountStreamListener;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import com.dropbox.core.v2.files.FileMetadata;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class DropboxConcurrentUploadServiceTest extends AbstractDropboxTest {
+
+    @Test
+    public void testUpload() throws Exception {
+        final DropboxConcurrentUploadService service = new DropboxConcurrentUploadService(session, 4L * 1024L * 1024L, 3);
+        final Path root = new Path("/", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final String name = new AlphanumericRandomStringService().random();
+        final Path test = new Path(root, name, EnumSet.of(Path.Type.file));
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), name);
+        final byte[] content = RandomUtils.nextBytes(9 * 1024 * 1024 + 1);
+        IOUtils.write(content, local.getOutputStream(false));
+        final TransferStatus status = new TransferStatus();
+        status.setLength(content.length);
+        final BytecountStreamListener count = new BytecountStreamListener();
+        final FileMetadata metadata = (FileMetadata) service.upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED),
+                count, status, new DisabledConnectionCallback());
+        assertEquals(content.length, count.getSent());
+        assertTrue(status.isComplete());
+        final PathAttributes attributes = new DropboxAttributesFinderFeature(session).find(test);
+        assertEquals(content.length, attributes.getSize());
+        assertEquals(metadata.getContentHash(), attributes.getChecksum().hash);
+        new DropboxDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+    }
+
+    @Test
+    public void testToChunkSize() {
+        assertEquals(DropboxContentHasher.BLOCK_SIZE, DropboxConcurrentUploadService.toChunkSize(1024L));
+        assertEquals(8L * DropboxContentHasher.BLOCK_SIZE, DropboxConcurrentUploadService.toChunkSize(33554433L));
+        assertEquals(DropboxConcurrentUploadService.MAXIMUM_CHUNK_SIZE, DropboxConcurrentUploadService.toChunkSize(157286400L));
+    }
+}
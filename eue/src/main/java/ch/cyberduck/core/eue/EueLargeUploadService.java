@@ -25,6 +25,7 @@ import ch.cyberduck.core.eue.io.swagger.client.model.ResourceCreationResponseEnt
 import ch.cyberduck.core.eue.io.swagger.client.model.UploadType;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
@@ -33,8 +34,8 @@ import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.SegmentRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -82,7 +83,7 @@ public class EueLargeUploadService extends HttpUploadFeature<EueWriteFeature.Chu
     @Override
     public EueWriteFeature.Chunk upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                         final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
         try {
             final List<Future<EueWriteFeature.Chunk>> parts = new ArrayList<>();
             long offset = 0;
@@ -143,10 +144,10 @@ public class EueLargeUploadService extends HttpUploadFeature<EueWriteFeature.Chu
         }
     }
 
-    private Future<EueWriteFeature.Chunk> submit(final ThreadPool pool, final Path file, final Local local,
+    private Future<EueWriteFeature.Chunk> submit(final PartThreadPool pool, final Path file, final Local local,
                                                  final BandwidthThrottle throttle, final StreamListener listener,
                                                  final TransferStatus overall, final String url, final String resourceId,
-                                                 final int partNumber, final long offset, final long length, final ConnectionCallback callback) {
+                                                 final int partNumber, final long offset, final long length, final ConnectionCallback callback) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit %s to queue with offset %d and length %d", file, offset, length));
         }
@@ -173,7 +174,7 @@ public class EueLargeUploadService extends HttpUploadFeature<EueWriteFeature.Chu
                 }
                 return chunk;
             }
-        }, overall, counter));
+        }, overall, counter), length);
     }
 
     @Override
@@ -22,6 +22,7 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionTimeoutException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.ftp.list.FTPInvalidListException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.logging.log4j.LogManager;
@@ -78,6 +79,10 @@ public class DataConnectionActionExecutor {
             }
             throw failure;
         }
+        catch(FTPInvalidListException failure) {
+            // Listing parsed while reading from data connection that completed successfully
+            throw failure;
+        }
         catch(InteroperabilityException | NotfoundException | AccessDeniedException failure) {
             log.warn(String.format("Server denied data socket operation with %s", failure.getMessage()));
             // Fallback handling
@@ -20,6 +20,7 @@ package ch.cyberduck.core.ftp;
  */
 
 import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -42,15 +43,18 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class FTPClient extends FTPSClient {
@@ -204,6 +208,71 @@ public class FTPClient extends FTPSClient {
         return results;
     }
 
+    /**
+     * Read listing from data connection line by line without buffering the complete reply
+     *
+     * @param callback Invoked with lines as received from data connection
+     * @return Result of callback
+     */
+    public <T> T list(final FTPCmd command, final String pathname, final ListResponseCallback<T> callback) throws IOException, BackgroundException {
+        this.pret(command, null == pathname ? StringUtils.EMPTY : pathname);
+
+        Socket socket = _openDataConnection_(command, pathname);
+
+        final BufferedReader reader = new BufferedReader(
+            new InputStreamReader(socket.getInputStream(), getControlEncoding()));
+        final T result;
+        try {
+            result = callback.read(new Iterator<String>() {
+                private String line;
+
+                @Override
+                public boolean hasNext() {
+                    if(null == line) {
+                        try {
+                            line = reader.readLine();
+                        }
+                        catch(IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if(line != null) {
+                            _commandSupport_.fireReplyReceived(-1, line);
+                        }
+                    }
+                    return line != null;
+                }
+
+                @Override
+                public String next() {
+                    if(!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final String next = line;
+                    line = null;
+                    return next;
+                }
+            });
+        }
+        catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+        catch(BackgroundException e) {
+            reader.close();
+            socket.close();
+            // Read reply for aborted transfer on control connection
+            this.completePendingCommand();
+            throw e;
+        }
+        finally {
+            reader.close();
+            socket.close();
+        }
+        if(!this.completePendingCommand()) {
+            throw new FTPException(this.getReplyCode(), this.getReplyString());
+        }
+        return result;
+    }
+
     /**
      * Query the server for a supported feature, and returns its values (if any). Caches the parsed response to avoid
      * resending the command repeatedly.
@@ -380,4 +449,11 @@ public class FTPClient extends FTPSClient {
         }
         return StringUtils.chomp(status.substring(3).trim());
     }
+
+    public interface ListResponseCallback<T> {
+        /**
+         * @param lines Lines of listing read from data connection on demand
+         */
+        T read(Iterator<String> lines) throws BackgroundException;
+    }
 }
@@ -16,11 +16,34 @@ package ch.cyberduck.core.ftp.list;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 
+import java.util.Iterator;
 import java.util.List;
 
 public interface FTPDataResponseReader {
 
-    AttributedList<Path> read(Path parent, List<String> replies) throws FTPInvalidListException;
+    default AttributedList<Path> read(Path parent, List<String> replies) throws FTPInvalidListException {
+        try {
+            return this.read(parent, replies.iterator(), new DisabledListProgressListener());
+        }
+        catch(ConnectionCanceledException e) {
+            // Not thrown by disabled listener
+            throw new FTPInvalidListException(new AttributedList<>());
+        }
+    }
+
+    /**
+     * Parse lines as they are received and notify listener with chunks of parsed files
+     *
+     * @param parent   Directory
+     * @param replies  Lines read on demand from data connection
+     * @param listener Notified with files parsed so far
+     * @return All files parsed
+     * @throws ConnectionCanceledException Listing interrupted by listener
+     */
+    AttributedList<Path> read(Path parent, Iterator<String> replies, ListProgressListener listener) throws FTPInvalidListException, ConnectionCanceledException;
 }
@@ -16,19 +16,25 @@ package ch.cyberduck.core.ftp.list;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.ftp.parser.FTPExtendedFile;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 
+import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 
 public class FTPListResponseReader implements FTPDataResponseReader {
@@ -36,25 +42,46 @@ public class FTPListResponseReader implements FTPDataResponseReader {
 
     private final FTPFileEntryParser parser;
     private final boolean lenient;
+    /**
+     * Number of lines passed to parser for pre-processing and auto-detection
+     */
+    private final int preparse;
+    /**
+     * Number of files parsed before notifying listener
+     */
+    private final int chunksize;
 
     public FTPListResponseReader(final FTPFileEntryParser parser) {
         this(parser, false);
     }
 
     public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient) {
+        this(parser, lenient, PreferencesFactory.get().getInteger("ftp.parser.preparse.lines"),
+                PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPListResponseReader(final FTPFileEntryParser parser, final boolean lenient, final int preparse, final int chunksize) {
         this.parser = parser;
         this.lenient = lenient;
+        this.preparse = preparse;
+        this.chunksize = chunksize;
     }
 
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies) throws FTPInvalidListException {
+    public AttributedList<Path> read(final Path directory, final Iterator<String> replies, final ListProgressListener listener)
+            throws FTPInvalidListException, ConnectionCanceledException {
         final AttributedList<Path> children = new AttributedList<Path>();
         // At least one entry successfully parsed
         boolean success = false;
         // Call hook for those implementors which need to perform some action upon the list after it has been created
-        // from the server stream, but before any clients see the list
-        parser.preParse(replies);
-        for(String line : replies) {
+        // from the server stream, but before any clients see the list. Only applied to the first lines received.
+        final List<String> head = new ArrayList<>();
+        while(head.size() < preparse && replies.hasNext()) {
+            head.add(replies.next());
+        }
+        final Iterator<String> lines = IteratorUtils.chainedIterator(parser.preParse(head).iterator(), replies);
+        while(lines.hasNext()) {
+            final String line = lines.next();
             final FTPFile f = parser.parseFTPEntry(line);
             if(null == f) {
                 continue;
@@ -84,84 +111,92 @@ public class FTPListResponseReader implements FTPDataResponseReader {
                 }
                 continue;
             }
-            final Path parsed = new Path(directory, PathNormalizer.name(name), f.getType() == FTPFile.DIRECTORY_TYPE ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
-            switch(f.getType()) {
-                case FTPFile.SYMBOLIC_LINK_TYPE:
-                    parsed.setType(EnumSet.of(Path.Type.file, Path.Type.symboliclink));
-                    // Symbolic link target may be an absolute or relative path
-                    final String target = f.getLink();
-                    if(StringUtils.isBlank(target)) {
-                        log.warn(String.format("Missing symbolic link target for %s", parsed));
-                        final EnumSet<Path.Type> type = parsed.getType();
-                        type.remove(Path.Type.symboliclink);
-                    }
-                    else if(StringUtils.startsWith(target, String.valueOf(Path.DELIMITER))) {
-                        parsed.setSymlinkTarget(new Path(PathNormalizer.normalize(target), EnumSet.of(Path.Type.file)));
-                    }
-                    else if(StringUtils.equals("..", target)) {
-                        parsed.setSymlinkTarget(directory);
-                    }
-                    else if(StringUtils.equals(".", target)) {
-                        parsed.setSymlinkTarget(parsed);
-                    }
-                    else {
-                        parsed.setSymlinkTarget(new Path(directory, target, EnumSet.of(Path.Type.file)));
-                    }
-                    break;
-            }
-            if(parsed.isFile()) {
-                parsed.attributes().setSize(f.getSize());
-            }
-            parsed.attributes().setOwner(f.getUser());
-            parsed.attributes().setGroup(f.getGroup());
-            Permission.Action u = Permission.Action.none;
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.READ_PERMISSION)) {
-                u = u.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                u = u.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                u = u.or(Permission.Action.execute);
-            }
-            Permission.Action g = Permission.Action.none;
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.READ_PERMISSION)) {
-                g = g.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                g = g.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                g = g.or(Permission.Action.execute);
-            }
-            Permission.Action o = Permission.Action.none;
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.READ_PERMISSION)) {
-                o = o.or(Permission.Action.read);
-            }
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.WRITE_PERMISSION)) {
-                o = o.or(Permission.Action.write);
-            }
-            if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
-                o = o.or(Permission.Action.execute);
-            }
-            final Permission permission = new Permission(u, g, o);
-            if(f instanceof FTPExtendedFile) {
-                permission.setSetuid(((FTPExtendedFile) f).isSetuid());
-                permission.setSetgid(((FTPExtendedFile) f).isSetgid());
-                permission.setSticky(((FTPExtendedFile) f).isSticky());
-            }
-            if(!Permission.EMPTY.equals(permission)) {
-                parsed.attributes().setPermission(permission);
-            }
-            final Calendar timestamp = f.getTimestamp();
-            if(timestamp != null) {
-                parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
+            children.add(this.toPath(directory, f));
+            if(children.size() % chunksize == 0) {
+                listener.chunk(directory, children);
             }
-            children.add(parsed);
         }
         if(!success) {
             throw new FTPInvalidListException(children);
         }
         return children;
     }
+
+    private Path toPath(final Path directory, final FTPFile f) {
+        final String name = f.getName();
+        final Path parsed = new Path(directory, PathNormalizer.name(name), f.getType() == FTPFile.DIRECTORY_TYPE ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file));
+        switch(f.getType()) {
+            case FTPFile.SYMBOLIC_LINK_TYPE:
+                parsed.setType(EnumSet.of(Path.Type.file, Path.Type.symboliclink));
+                // Symbolic link target may be an absolute or relative path
+                final String target = f.getLink();
+                if(StringUtils.isBlank(target)) {
+                    log.warn(String.format("Missing symbolic link target for %s", parsed));
+                    final EnumSet<Path.Type> type = parsed.getType();
+                    type.remove(Path.Type.symboliclink);
+                }
+                else if(StringUtils.startsWith(target, String.valueOf(Path.DELIMITER))) {
+                    parsed.setSymlinkTarget(new Path(PathNormalizer.normalize(target), EnumSet.of(Path.Type.file)));
+                }
+                else if(StringUtils.equals("..", target)) {
+                    parsed.setSymlinkTarget(directory);
+                }
+                else if(StringUtils.equals(".", target)) {
+                    parsed.setSymlinkTarget(parsed);
+                }
+                else {
+                    parsed.setSymlinkTarget(new Path(directory, target, EnumSet.of(Path.Type.file)));
+                }
+                break;
+        }
+        if(parsed.isFile()) {
+            parsed.attributes().setSize(f.getSize());
+        }
+        parsed.attributes().setOwner(f.getUser());
+        parsed.attributes().setGroup(f.getGroup());
+        Permission.Action u = Permission.Action.none;
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.READ_PERMISSION)) {
+            u = u.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            u = u.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.USER_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            u = u.or(Permission.Action.execute);
+        }
+        Permission.Action g = Permission.Action.none;
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.READ_PERMISSION)) {
+            g = g.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            g = g.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.GROUP_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            g = g.or(Permission.Action.execute);
+        }
+        Permission.Action o = Permission.Action.none;
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.READ_PERMISSION)) {
+            o = o.or(Permission.Action.read);
+        }
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.WRITE_PERMISSION)) {
+            o = o.or(Permission.Action.write);
+        }
+        if(f.hasPermission(FTPFile.WORLD_ACCESS, FTPFile.EXECUTE_PERMISSION)) {
+            o = o.or(Permission.Action.execute);
+        }
+        final Permission permission = new Permission(u, g, o);
+        if(f instanceof FTPExtendedFile) {
+            permission.setSetuid(((FTPExtendedFile) f).isSetuid());
+            permission.setSetgid(((FTPExtendedFile) f).isSetgid());
+            permission.setSticky(((FTPExtendedFile) f).isSticky());
+        }
+        if(!Permission.EMPTY.equals(permission)) {
+            parsed.attributes().setPermission(permission);
+        }
+        final Calendar timestamp = f.getTimestamp();
+        if(timestamp != null) {
+            parsed.attributes().setModificationDate(timestamp.getTimeInMillis());
+        }
+        return parsed;
+    }
 }
@@ -16,12 +16,14 @@ package ch.cyberduck.core.ftp.list;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.date.InvalidDateException;
 import ch.cyberduck.core.date.MDTMMillisecondsDateFormatter;
 import ch.cyberduck.core.date.MDTMSecondsDateFormatter;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
@@ -31,7 +33,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -40,19 +42,30 @@ import java.util.regex.Pattern;
 public class FTPMlsdListResponseReader implements FTPDataResponseReader {
     private static final Logger log = LogManager.getLogger(FTPMlsdListResponseReader.class);
 
+    /**
+     * Number of files parsed before notifying listener
+     */
+    private final int chunksize;
+
     public FTPMlsdListResponseReader() {
-        //
+        this(PreferencesFactory.get().getInteger("ftp.listing.chunksize"));
+    }
+
+    public FTPMlsdListResponseReader(final int chunksize) {
+        this.chunksize = chunksize;
     }
 
     @Override
-    public AttributedList<Path> read(final Path directory, final List<String> replies) throws FTPInvalidListException {
+    public AttributedList<Path> read(final Path directory, final Iterator<String> replies, final ListProgressListener listener)
+            throws FTPInvalidListException, ConnectionCanceledException {
         final AttributedList<Path> children = new AttributedList<>();
-        if(replies.isEmpty()) {
+        if(!replies.hasNext()) {
             return children;
         }
         // At least one entry successfully parsed
         boolean success = false;
-        for(String line : replies) {
+        while(replies.hasNext()) {
+            final String line = replies.next();
             final Map<String, Map<String, String>> file = this.parseFacts(line);
             if(null == file) {
                 log.error(String.format("Error parsing line %s", line));
@@ -167,6 +180,9 @@ public class FTPMlsdListResponseReader implements FTPDataResponseReader {
                     parsed.attributes().setCreationDate(this.parseTimestamp(facts.get("create")));
                 }
                 children.add(parsed);
+                if(children.size() % chunksize == 0) {
+                    listener.chunk(directory, children);
+                }
             }
         }
         if(!success) {
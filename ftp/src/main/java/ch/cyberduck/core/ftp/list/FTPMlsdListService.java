@@ -30,7 +30,6 @@ import ch.cyberduck.core.ftp.FTPSession;
 import org.apache.commons.net.ftp.FTPCmd;
 
 import java.io.IOException;
-import java.util.List;
 
 public class FTPMlsdListService implements ListService {
 
@@ -53,18 +52,18 @@ public class FTPMlsdListService implements ListService {
                 // data connection in type ASCII or type EBCDIC.
                 throw new FTPException(session.getClient().getReplyCode(), session.getClient().getReplyString());
             }
-            final List<String> list = new DataConnectionActionExecutor(session).data(new DataConnectionAction<List<String>>() {
+            return new DataConnectionActionExecutor(session).data(new DataConnectionAction<AttributedList<Path>>() {
                 @Override
-                public List<String> execute() throws BackgroundException {
+                public AttributedList<Path> execute() throws BackgroundException {
                     try {
-                        return session.getClient().list(FTPCmd.MLSD);
+                        // Parse lines as received from data connection
+                        return session.getClient().list(FTPCmd.MLSD, null, lines -> reader.read(directory, lines, listener));
                     }
                     catch(IOException e) {
                         throw new FTPExceptionMappingService().map(e);
                     }
                 }
             });
-            return reader.read(directory, list);
         }
         catch(IOException e) {
             throw new FTPExceptionMappingService().map("Listing directory {0} failed", e, directory);
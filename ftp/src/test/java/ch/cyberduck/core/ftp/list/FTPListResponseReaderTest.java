@@ -16,6 +16,7 @@ package ch.cyberduck.core.ftp.list;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Permission;
 import ch.cyberduck.core.exception.ListCanceledException;
@@ -31,6 +32,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -232,4 +234,27 @@ public class FTPListResponseReaderTest {
         assertNull(list.get(2).getSymlinkTarget());
         assertFalse(list.get(2).isSymbolicLink());
     }
+    @Test
+    public void testReadChunks() throws Exception {
+        final Path directory = new Path("/", EnumSet.of(Path.Type.directory));
+        final List<String> replies = Arrays.asList(
+                "total 5",
+                "-rw-r--r--    1 mk basicgrp       27 Sep 23  2004 a",
+                "-rw-r--r--    1 mk basicgrp       27 Sep 23  2004 b",
+                "-rw-r--r--    1 mk basicgrp       27 Sep 23  2004 c",
+                "-rw-r--r--    1 mk basicgrp       27 Sep 23  2004 d",
+                "-rw-r--r--    1 mk basicgrp       27 Sep 23  2004 e"
+        );
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> list = new FTPListResponseReader(new FTPParserSelector().getParser("UNIX"), false, 2, 2)
+                .read(directory, replies.iterator(), new DisabledListProgressListener() {
+                    @Override
+                    public void chunk(final Path folder, final AttributedList<Path> list) {
+                        assertEquals(directory, folder);
+                        assertEquals(chunks.incrementAndGet() * 2, list.size());
+                    }
+                });
+        assertEquals(2, chunks.get());
+        assertEquals(5, list.size());
+    }
 }
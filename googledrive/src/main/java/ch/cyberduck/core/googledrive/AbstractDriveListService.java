@@ -95,13 +95,7 @@ public abstract class AbstractDriveListService implements ListService {
                         log.warn(String.format("Ignore file %s with unknown attributes", f));
                         continue;
                     }
-                    final String filename;
-                    if(!DRIVE_FOLDER.equals(f.getMimeType()) && !DRIVE_SHORTCUT.equals(f.getMimeType()) && StringUtils.startsWith(f.getMimeType(), GOOGLE_APPS_PREFIX)) {
-                        filename = String.format("%s.%s", f.getName(), urlFileWriter.getExtension());
-                    }
-                    else {
-                        filename = f.getName();
-                    }
+                    final String filename = this.toFilename(f);
                     if(StringUtils.equals(filename, String.valueOf(Path.DELIMITER))) {
                         continue;
                     }
@@ -129,6 +123,13 @@ public abstract class AbstractDriveListService implements ListService {
         return Collections.singleton(directory);
     }
 
+    protected String toFilename(final File f) {
+        if(!DRIVE_FOLDER.equals(f.getMimeType()) && !DRIVE_SHORTCUT.equals(f.getMimeType()) && StringUtils.startsWith(f.getMimeType(), GOOGLE_APPS_PREFIX)) {
+            return String.format("%s.%s", f.getName(), urlFileWriter.getExtension());
+        }
+        return f.getName();
+    }
+
     protected EnumSet<Path.Type> toType(final File f) {
         final EnumSet<Path.Type> type;
         if(DRIVE_SHORTCUT.equals(f.getMimeType())) {
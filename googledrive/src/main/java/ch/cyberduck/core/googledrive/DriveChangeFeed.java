@@ -0,0 +1,254 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChangeFeed;
+import ch.cyberduck.core.preferences.HostPreferences;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.EnumSet;
+
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+
+/**
+ * Changes from start page token. Parent folders of changed files are resolved from the file ID cache or by
+ * walking up the folder hierarchy. Changes to files not found in My Drive or a shared drive are ignored. Removed
+ * files not found in the file ID cache require the tree to be listed again.
+ */
+public class DriveChangeFeed implements ChangeFeed {
+    private static final Logger log = LogManager.getLogger(DriveChangeFeed.class);
+
+    private final DriveSession session;
+    private final DriveFileIdProvider fileid;
+    private final DriveAttributesFinderFeature attributes;
+    private final DriveDefaultListService listService;
+    private final boolean teamdrive;
+    private final int pagesize;
+
+    /**
+     * Identifier of My Drive folder
+     */
+    private String root;
+
+    public DriveChangeFeed(final DriveSession session, final DriveFileIdProvider fileid) {
+        this.session = session;
+        this.fileid = fileid;
+        this.attributes = new DriveAttributesFinderFeature(session, fileid);
+        this.listService = new DriveDefaultListService(session, fileid);
+        this.teamdrive = new HostPreferences(session.getHost()).getBoolean("googledrive.teamdrive.enable");
+        this.pagesize = new HostPreferences(session.getHost()).getInteger("googledrive.list.limit");
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        try {
+            final Drive.Changes.GetStartPageToken request = session.getClient().changes().getStartPageToken()
+                    .setSupportsAllDrives(teamdrive);
+            final String drive = this.toDriveId(directory);
+            if(drive != null) {
+                request.setDriveId(drive);
+            }
+            return request.execute().getStartPageToken();
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    @Override
+    public String changes(final Path directory, final String cursor, final Listener listener) throws BackgroundException {
+        if(!this.isSupported(directory)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("No changes tracked for %s", directory));
+            }
+            return null;
+        }
+        try {
+            final String drive = this.toDriveId(directory);
+            String page = cursor;
+            while(true) {
+                final Drive.Changes.List request = session.getClient().changes().list(page)
+                        .setIncludeItemsFromAllDrives(teamdrive)
+                        .setSupportsAllDrives(teamdrive)
+                        .setIncludeRemoved(true)
+                        .setPageSize(pagesize)
+                        .setFields(String.format("nextPageToken,newStartPageToken,changes(fileId,removed,file(%s,parents,driveId))",
+                                DriveAttributesFinderFeature.DEFAULT_FIELDS));
+                if(drive != null) {
+                    request.setDriveId(drive);
+                }
+                final ChangeList list = request.execute();
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Chunk of %d changes retrieved", list.getChanges().size()));
+                }
+                for(Change change : list.getChanges()) {
+                    if(!this.parse(directory, change, listener)) {
+                        log.warn(String.format("Failure resolving removed file %s for %s", change.getFileId(), directory));
+                        return null;
+                    }
+                }
+                if(list.getNewStartPageToken() != null) {
+                    return list.getNewStartPageToken();
+                }
+                page = list.getNextPageToken();
+            }
+        }
+        catch(HttpResponseException e) {
+            switch(e.getStatusCode()) {
+                case HttpStatus.SC_NOT_FOUND:
+                case HttpStatus.SC_GONE:
+                    log.warn(String.format("Invalid page token %s for %s", cursor, directory));
+                    return null;
+            }
+            throw new DriveExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    /**
+     * @return False if removed or moved file cannot be resolved to a path
+     */
+    private boolean parse(final Path directory, final Change change, final Listener listener) throws IOException {
+        final Path previous = fileid.getFile(change.getFileId());
+        final File f = change.getFile();
+        if(Boolean.TRUE.equals(change.getRemoved()) || null == f) {
+            return this.remove(directory, previous, listener);
+        }
+        final Path parent = null == f.getParents() || f.getParents().isEmpty() ? null : this.resolve(f.getParents().get(0));
+        if(null == parent) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip change for file %s outside of My Drive and shared drives", f.getId()));
+            }
+            if(previous != null) {
+                // Moved out
+                this.remove(directory, previous, listener);
+            }
+            return true;
+        }
+        if(Boolean.TRUE.equals(f.getTrashed())) {
+            return this.remove(directory, null == previous ?
+                    new Path(parent, listService.toFilename(f), listService.toType(f)) : previous, listener);
+        }
+        final PathAttributes properties = attributes.toAttributes(f);
+        if(PathAttributes.EMPTY == properties) {
+            log.warn(String.format("Ignore file %s with unknown attributes", f));
+            return true;
+        }
+        final Path file = new Path(parent, listService.toFilename(f), listService.toType(f), properties);
+        if(previous != null && !new SimplePathPredicate(previous).test(file)) {
+            // Moved or renamed
+            this.remove(directory, previous, listener);
+        }
+        fileid.cache(file, f.getId());
+        if(file.isChild(directory)) {
+            // Previous location is removed with lookup by file ID in cached listings when not known
+            listener.changed(file);
+        }
+        return true;
+    }
+
+    /**
+     * @return False if previous path is unknown
+     */
+    private boolean remove(final Path directory, final Path previous, final Listener listener) {
+        if(null == previous) {
+            return false;
+        }
+        if(previous.isChild(directory)) {
+            listener.deleted(previous);
+        }
+        fileid.cache(previous, null);
+        return true;
+    }
+
+    /**
+     * @param id Folder identifier
+     * @return Path of folder or null if not located in My Drive or a shared drive
+     */
+    private Path resolve(final String id) throws IOException {
+        final Path cached = fileid.getFile(id);
+        if(cached != null) {
+            return cached;
+        }
+        if(StringUtils.equals(id, this.getRoot())) {
+            return DriveHomeFinderService.MYDRIVE_FOLDER;
+        }
+        final File folder = session.getClient().files().get(id)
+                .setSupportsAllDrives(teamdrive)
+                .setFields("id,name,parents,driveId").execute();
+        if(null == folder.getParents() || folder.getParents().isEmpty()) {
+            if(StringUtils.equals(folder.getId(), folder.getDriveId())) {
+                // Root folder of shared drive
+                final Path drive = new Path(DriveHomeFinderService.SHARED_DRIVES_NAME, folder.getName(),
+                        EnumSet.of(Path.Type.directory, Path.Type.volume), new PathAttributes().withFileId(id));
+                fileid.cache(drive, id);
+                return drive;
+            }
+            // Shared with me
+            return null;
+        }
+        final Path parent = this.resolve(folder.getParents().get(0));
+        if(null == parent) {
+            return null;
+        }
+        final Path resolved = new Path(parent, folder.getName(), EnumSet.of(Path.Type.directory), new PathAttributes().withFileId(id));
+        fileid.cache(resolved, id);
+        return resolved;
+    }
+
+    private String getRoot() throws IOException {
+        if(null == root) {
+            root = session.getClient().files().get(DriveHomeFinderService.ROOT_FOLDER_ID).setFields("id").execute().getId();
+        }
+        return root;
+    }
+
+    /**
+     * @return False for files shared with me that cannot be resolved to a path from changes
+     */
+    private boolean isSupported(final Path directory) {
+        final SimplePathPredicate mydrive = new SimplePathPredicate(DriveHomeFinderService.MYDRIVE_FOLDER);
+        return mydrive.test(directory) || new SimplePathPredicate(directory).isChild(mydrive)
+                || new SimplePathPredicate(directory).isChild(new SimplePathPredicate(DriveHomeFinderService.SHARED_DRIVES_NAME));
+    }
+
+    /**
+     * @return Identifier of shared drive containing directory or null for My Drive
+     */
+    private String toDriveId(final Path directory) throws BackgroundException {
+        for(Path f = directory; !f.isRoot(); f = f.getParent()) {
+            if(new SimplePathPredicate(DriveHomeFinderService.SHARED_DRIVES_NAME).test(f.getParent())) {
+                return fileid.getFileId(f);
+            }
+        }
+        return null;
+    }
+}
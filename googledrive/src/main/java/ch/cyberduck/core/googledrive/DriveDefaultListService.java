@@ -15,10 +15,13 @@ package ch.cyberduck.core.googledrive;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 
+import org.apache.commons.lang3.StringUtils;
+
 public class DriveDefaultListService extends AbstractDriveListService {
 
     private final DriveFileIdProvider fileid;
@@ -33,6 +36,18 @@ public class DriveDefaultListService extends AbstractDriveListService {
         this.fileid = fileid;
     }
 
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final AttributedList<Path> children = super.list(directory, listener);
+        for(Path child : children) {
+            if(!child.attributes().isHidden() && StringUtils.isNotBlank(child.attributes().getFileId())) {
+                // Allow reverse lookup of path for changes
+                fileid.cache(child, child.attributes().getFileId());
+            }
+        }
+        return children;
+    }
+
     protected String query(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return String.format("'%s' in parents", fileid.getFileId(directory));
     }
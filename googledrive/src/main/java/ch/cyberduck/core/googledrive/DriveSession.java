@@ -199,6 +199,9 @@ public class DriveSession extends HttpSession<Drive> {
         if(type == Versioning.class) {
             return (T) new DriveVersioningFeature(this, fileid);
         }
+        if(type == ChangeFeed.class) {
+            return (T) new DriveChangeFeed(this, fileid);
+        }
         return super._getFeature(type);
     }
 
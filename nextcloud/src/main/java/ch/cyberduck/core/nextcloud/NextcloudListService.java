@@ -17,18 +17,17 @@ package ch.cyberduck.core.nextcloud;
 
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.dav.DAVAttributesFinderFeature;
+import ch.cyberduck.core.dav.DAVClient;
 import ch.cyberduck.core.dav.DAVListService;
 import ch.cyberduck.core.dav.DAVPathEncoder;
 import ch.cyberduck.core.dav.DAVSession;
 import ch.cyberduck.core.dav.DAVTimestampFeature;
+import ch.cyberduck.core.exception.BackgroundException;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import com.github.sardine.DavResource;
-
 public class NextcloudListService extends DAVListService {
 
     private final DAVSession session;
@@ -43,12 +42,12 @@ public class NextcloudListService extends DAVListService {
     }
 
     @Override
-    protected List<DavResource> list(final Path directory) throws IOException {
-        return session.getClient().list(new DAVPathEncoder().encode(directory), 1,
+    protected void list(final Path directory, final int depth, final DAVClient.ResourceCallback callback) throws IOException, BackgroundException {
+        session.getClient().list(new DAVPathEncoder().encode(directory), depth,
                 Stream.of(
                                 NextcloudAttributesFinderFeature.FILEID_CUSTOM_NAMESPACE,
                                 DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE,
                                 DAVTimestampFeature.LAST_MODIFIED_SERVER_CUSTOM_NAMESPACE).
-                        collect(Collectors.toSet()));
+                        collect(Collectors.toSet()), callback);
     }
 }
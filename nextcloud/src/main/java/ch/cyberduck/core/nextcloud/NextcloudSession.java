@@ -35,6 +35,8 @@ import ch.cyberduck.core.ssl.X509TrustManager;
 
 public class NextcloudSession extends DAVSession {
 
+    private final ListService list = new NextcloudListService(this);
+
     public NextcloudSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, trust, key);
     }
@@ -46,7 +48,7 @@ public class NextcloudSession extends DAVSession {
             return (T) new NextcloudHomeFeature(host);
         }
         if(type == ListService.class) {
-            return (T) new NextcloudListService(this);
+            return (T) list;
         }
         if(type == AttributesFinder.class) {
             return (T) new NextcloudAttributesFinderFeature(this);
@@ -0,0 +1,231 @@
+package ch.cyberduck.core.onedrive;
+
+/*
+ * Copyright (c) 2002-2022 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.ChangeFeed;
+import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
+import ch.cyberduck.core.onedrive.features.GraphFileIdProvider;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.onedrive.client.OneDriveAPIException;
+import org.nuxeo.onedrive.client.types.Drive;
+import org.nuxeo.onedrive.client.types.DriveItem;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Changes in My Files from delta query of drive root. The delta link is used as cursor. Changed items are
+ * resolved to a path from the file ID cache or by walking up parent references. Deleted items not found in the file
+ * ID cache require the tree to be listed again.
+ */
+public class GraphChangeFeed implements ChangeFeed {
+    private static final Logger log = LogManager.getLogger(GraphChangeFeed.class);
+
+    private final GraphSession session;
+    private final GraphFileIdProvider fileid;
+    private final GraphItemListService listService;
+
+    /**
+     * Identifier of drive root item
+     */
+    private String root;
+
+    public GraphChangeFeed(final GraphSession session, final GraphFileIdProvider fileid) {
+        this.session = session;
+        this.fileid = fileid;
+        this.listService = new GraphItemListService(session, fileid);
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        final JsonObject json = this.get(directory, String.format("%s/me/drive/root/delta?token=latest", session.getClient().getBaseURL()));
+        return json.get("@odata.deltaLink").getAsString();
+    }
+
+    @Override
+    public String changes(final Path directory, final String cursor, final Listener listener) throws BackgroundException {
+        if(!this.isSupported(directory)) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("No changes tracked for %s", directory));
+            }
+            return null;
+        }
+        String link = cursor;
+        while(true) {
+            final JsonObject json = this.get(directory, link);
+            if(null == json) {
+                log.warn(String.format("Expired delta link for %s", directory));
+                return null;
+            }
+            for(JsonElement element : json.getAsJsonArray("value")) {
+                if(!this.parse(directory, element.getAsJsonObject(), listener)) {
+                    log.warn(String.format("Failure resolving removed item %s for %s", element.getAsJsonObject().get("id"), directory));
+                    return null;
+                }
+            }
+            if(json.has("@odata.deltaLink")) {
+                return json.get("@odata.deltaLink").getAsString();
+            }
+            link = json.get("@odata.nextLink").getAsString();
+        }
+    }
+
+    /**
+     * @return False if removed item cannot be resolved to a path
+     */
+    private boolean parse(final Path directory, final JsonObject item, final Listener listener) throws BackgroundException {
+        if(item.has("root") || !item.has("parentReference")) {
+            return true;
+        }
+        final String id = item.get("id").getAsString();
+        final String drive = item.getAsJsonObject("parentReference").get("driveId").getAsString();
+        final Path previous = fileid.getFile(String.join(String.valueOf(Path.DELIMITER), drive, id));
+        if(item.has("deleted")) {
+            return this.remove(directory, previous, listener);
+        }
+        try {
+            final DriveItem.Metadata metadata = session.getMetadata(new DriveItem(new Drive(session.getClient(), drive), id), null);
+            final Path parent = this.resolve(drive, metadata.getParentReference().getId());
+            if(null == parent) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Skip change for item %s outside of My Files", id));
+                }
+                if(previous != null) {
+                    // Moved out
+                    this.remove(directory, previous, listener);
+                }
+                return true;
+            }
+            final Path file = listService.toPath(metadata, parent);
+            if(previous != null && !new SimplePathPredicate(previous).test(file)) {
+                // Moved or renamed
+                this.remove(directory, previous, listener);
+            }
+            fileid.cache(file, session.getFileId(metadata));
+            if(file.isChild(directory)) {
+                // Previous location is removed with lookup by file ID in cached listings when not known
+                listener.changed(file);
+            }
+            return true;
+        }
+        catch(OneDriveAPIException e) {
+            if(e.getResponseCode() == HttpStatus.SC_NOT_FOUND) {
+                // Deleted since
+                return this.remove(directory, previous, listener);
+            }
+            throw new GraphExceptionMappingService(fileid).map("Listing directory {0} failed", e, directory);
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    /**
+     * @return False if previous path is unknown
+     */
+    private boolean remove(final Path directory, final Path previous, final Listener listener) {
+        if(null == previous) {
+            return false;
+        }
+        if(previous.isChild(directory)) {
+            listener.deleted(previous);
+        }
+        fileid.cache(previous, null);
+        return true;
+    }
+
+    /**
+     * @return Path of folder or null if not located in My Files
+     */
+    private Path resolve(final String drive, final String id) throws IOException, BackgroundException {
+        final Path cached = fileid.getFile(String.join(String.valueOf(Path.DELIMITER), drive, id));
+        if(cached != null) {
+            return cached;
+        }
+        if(StringUtils.equals(id, this.getRoot())) {
+            return OneDriveListService.MYFILES_NAME;
+        }
+        final DriveItem.Metadata metadata = session.getMetadata(new DriveItem(new Drive(session.getClient(), drive), id), null);
+        if(null == metadata.getParentReference() || null == metadata.getParentReference().getId()) {
+            return null;
+        }
+        final Path parent = this.resolve(drive, metadata.getParentReference().getId());
+        if(null == parent) {
+            return null;
+        }
+        final Path folder = listService.toPath(metadata, parent);
+        fileid.cache(folder, session.getFileId(metadata));
+        return folder;
+    }
+
+    private String getRoot() throws IOException, BackgroundException {
+        if(null == root) {
+            root = session.getMetadata(session.getItem(OneDriveListService.MYFILES_NAME), null).getId();
+        }
+        return root;
+    }
+
+    /**
+     * @return Parsed response or null if delta link has expired
+     */
+    private JsonObject get(final Path directory, final String url) throws BackgroundException {
+        final HttpGet request = new HttpGet(url);
+        // Placeholder replaced by authorization interceptor
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer");
+        try {
+            final HttpResponse response = ((GraphCommonsHttpRequestExecutor) session.getClient().getExecutor()).getClient().execute(request);
+            try {
+                switch(response.getStatusLine().getStatusCode()) {
+                    case HttpStatus.SC_OK:
+                        return JsonParser.parseReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8)).getAsJsonObject();
+                    case HttpStatus.SC_GONE:
+                        return null;
+                    default:
+                        throw new DefaultHttpResponseExceptionMappingService().map("Listing directory {0} failed", new HttpResponseException(
+                                response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase()), directory);
+                }
+            }
+            finally {
+                EntityUtils.consume(response.getEntity());
+            }
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    private boolean isSupported(final Path directory) {
+        return new SimplePathPredicate(OneDriveListService.MYFILES_NAME).test(directory) || directory.isChild(OneDriveListService.MYFILES_NAME);
+    }
+}
@@ -15,12 +15,14 @@ package ch.cyberduck.core.onedrive;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.onedrive.features.GraphAttributesFinderFeature;
 import ch.cyberduck.core.onedrive.features.GraphFileIdProvider;
 import ch.cyberduck.core.preferences.HostPreferences;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.nuxeo.onedrive.client.Files;
@@ -33,10 +35,12 @@ public class GraphItemListService extends AbstractItemListService {
     private static final Logger log = LogManager.getLogger(GraphItemListService.class);
 
     private final GraphSession session;
+    private final GraphFileIdProvider fileid;
 
     public GraphItemListService(final GraphSession session, final GraphFileIdProvider fileid) {
         super(new GraphAttributesFinderFeature(session, fileid), fileid);
         this.session = session;
+        this.fileid = fileid;
     }
 
     @Override
@@ -49,4 +53,14 @@ public class GraphItemListService extends AbstractItemListService {
         // require listing Publication/VersionId
         return Files.getFiles(folder, session.getQuery(null).top(new HostPreferences(session.getHost()).getInteger("onedrive.listing.chunksize")));
     }
+
+    @Override
+    protected void postList(final AttributedList<Path> list) {
+        for(Path file : list) {
+            if(StringUtils.isNotBlank(file.attributes().getFileId())) {
+                // Allow reverse lookup of path for changes
+                fileid.cache(file, file.attributes().getFileId());
+            }
+        }
+    }
 }
@@ -21,6 +21,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.SimplePathPredicate;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.ChangeFeed;
 import ch.cyberduck.core.features.Lock;
 import ch.cyberduck.core.onedrive.features.GraphLockFeature;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -204,6 +205,9 @@ public class OneDriveSession extends GraphSession {
                 return (T) new GraphLockFeature(this, fileid);
             }
         }
+        if(type == ChangeFeed.class) {
+            return (T) new GraphChangeFeed(this, fileid);
+        }
         return super._getFeature(type);
     }
 }
@@ -41,6 +41,8 @@ import ch.cyberduck.core.ssl.X509TrustManager;
 
 public class OwncloudSession extends DAVSession {
 
+    private final ListService list = new NextcloudListService(this);
+
     public OwncloudSession(final Host host, final X509TrustManager trust, final X509KeyManager key) {
         super(host, trust, key);
     }
@@ -52,7 +54,7 @@ public class OwncloudSession extends DAVSession {
             return (T) new NextcloudHomeFeature(host);
         }
         if(type == ListService.class) {
-            return (T) new NextcloudListService(this);
+            return (T) list;
         }
         if(type == AttributesFinder.class) {
             return (T) new OwncloudAttributesFinderFeature(this);
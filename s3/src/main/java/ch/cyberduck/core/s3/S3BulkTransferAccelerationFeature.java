@@ -70,6 +70,14 @@ public class S3BulkTransferAccelerationFeature implements Bulk<Void> {
         return this;
     }
 
+    /**
+     * @return False as acceleration is configured per bucket once for all files in the transfer
+     */
+    @Override
+    public boolean isIncremental() {
+        return false;
+    }
+
     private void configure(final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback, final boolean enabled) throws BackgroundException {
         final Set<Path> buckets = new HashSet<>();
         for(TransferItem file : files.keySet()) {
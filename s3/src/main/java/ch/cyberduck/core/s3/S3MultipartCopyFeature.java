@@ -21,11 +21,12 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.concurrency.Interruptibles;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.http.HttpRange;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.HostPreferences;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.lang3.StringUtils;
@@ -50,8 +51,6 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
     private final S3Session session;
     private final PathContainerService containerService;
 
-    private final ThreadPool pool;
-
     /**
      * A split smaller than 5M is not allowed
      */
@@ -61,12 +60,13 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
         super(session, acl);
         this.session = session;
         this.containerService = session.getFeature(PathContainerService.class);
-        this.pool = ThreadPoolFactory.get("multipart", new HostPreferences(session.getHost()).getInteger("s3.upload.multipart.concurrency"));
         this.partsize = new HostPreferences(session.getHost()).getLong("s3.copy.multipart.size");
     }
 
     @Override
     protected String copy(final Path source, final S3Object destination, final TransferStatus status, final StreamListener listener) throws BackgroundException {
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(),
+                new HostPreferences(session.getHost()).getInteger("s3.upload.multipart.concurrency"), status.getLength());
         try {
             final List<MultipartPart> completed = new ArrayList<>();
             // ID for the initiated multipart upload.
@@ -84,7 +84,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
                 // Last part can be less than 5 MB. Adjust part size.
                 final long length = Math.min(Math.max((size / S3DefaultMultipartService.MAXIMUM_UPLOAD_PARTS), partsize), remaining);
                 // Submit to queue
-                parts.add(this.submit(source, multipart, partNumber, offset, length));
+                parts.add(this.submit(pool, source, multipart, partNumber, offset, length));
                 remaining -= length;
                 offset += length;
             }
@@ -111,9 +111,9 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
         }
     }
 
-    private Future<MultipartPart> submit(final Path source,
+    private Future<MultipartPart> submit(final PartThreadPool pool, final Path source,
                                          final MultipartUpload multipart,
-                                         final int partNumber, final long offset, final long length) {
+                                         final int partNumber, final long offset, final long length) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, source, offset, length));
         }
@@ -139,6 +139,6 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
                     throw new S3ExceptionMappingService().map("Cannot copy {0}", e, source);
                 }
             }
-        });
+        }, length);
     }
 }
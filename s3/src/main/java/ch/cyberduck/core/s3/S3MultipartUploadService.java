@@ -27,18 +27,20 @@ import ch.cyberduck.core.concurrency.Interruptibles;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.http.HttpUploadFeature;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
 import ch.cyberduck.core.io.HashAlgorithm;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.HostPreferences;
 import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.ThreadPool;
-import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.PartThreadPool;
+import ch.cyberduck.core.threading.PartTransferScheduler;
 import ch.cyberduck.core.transfer.SegmentRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
@@ -52,7 +54,11 @@ import org.jets3t.service.model.MultipartUpload;
 import org.jets3t.service.model.S3Object;
 import org.jets3t.service.model.StorageObject;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -95,7 +101,7 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
     @Override
     public StorageObject upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
                                 final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        final ThreadPool pool = ThreadPoolFactory.get("multipart", concurrency);
+        final PartThreadPool pool = PartTransferScheduler.get().pool(session.getHost(), concurrency, status.getLength());
         try {
             MultipartUpload multipart = null;
             try {
@@ -209,10 +215,10 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
         }
     }
 
-    private Future<MultipartPart> submit(final ThreadPool pool, final Path file, final Local local,
+    private Future<MultipartPart> submit(final PartThreadPool pool, final Path file, final Local local,
                                          final BandwidthThrottle throttle, final StreamListener listener,
                                          final TransferStatus overall, final MultipartUpload multipart,
-                                         final int partNumber, final long offset, final long length, final ConnectionCallback callback) {
+                                         final int partNumber, final long offset, final long length, final ConnectionCallback callback) throws ConnectionCanceledException {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit part %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
         }
@@ -232,6 +238,10 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                 status.setHeader(overall.getHeader());
                 switch(session.getSignatureVersion()) {
                     case AWS4HMACSHA256:
+                        if(session.isUnsignedPayload(file, overall)) {
+                            // Part is read once while uploading and verified with MD5 returned in ETag
+                            break;
+                        }
                         status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
                         break;
                 }
@@ -248,7 +258,41 @@ public class S3MultipartUploadService extends HttpUploadFeature<StorageObject, M
                         part.getContentLength());
 
             }
-        }, overall, counter));
+        }, overall, counter), length);
+    }
+
+    @Override
+    protected InputStream decorate(final InputStream in, final MessageDigest digest) throws IOException {
+        if(null == digest) {
+            return super.decorate(in, null);
+        }
+        else {
+            return new DigestInputStream(in, digest);
+        }
+    }
+
+    @Override
+    protected MessageDigest digest() throws IOException {
+        MessageDigest digest = null;
+        // Part not included in signature must be verified with MD5 returned in ETag
+        if(session.isUnsignedPayload() || new HostPreferences(session.getHost()).getBoolean("queue.upload.checksum.calculate")) {
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            }
+            catch(NoSuchAlgorithmException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        return digest;
+    }
+
+    @Override
+    protected void post(final Path file, final MessageDigest digest, final StorageObject response) throws BackgroundException {
+        if(null != response.getServerSideEncryptionAlgorithm()) {
+            log.warn(String.format("Skip checksum verification for part of %s with server side encryption enabled", file));
+            return;
+        }
+        this.verify(file, digest, Checksum.parse(response.getETag()));
     }
 
     @Override
@@ -23,10 +23,14 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.collections.Partition;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -41,6 +45,10 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class S3MultipleDeleteFeature implements Delete {
     private static final Logger log = LogManager.getLogger(S3MultipleDeleteFeature.class);
@@ -50,6 +58,14 @@ public class S3MultipleDeleteFeature implements Delete {
     private final S3MultipartService multipartService;
     private final S3VersioningFeature versioningService;
 
+    /**
+     * Error code when request rate is exceeded
+     */
+    private static final String SLOW_DOWN = "SlowDown";
+    private static final int SLOW_DOWN_RETRY = 10;
+
+    private final AdaptiveBackoff backoff = new AdaptiveBackoff(200L, 20000L);
+
     public S3MultipleDeleteFeature(final S3Session session, final S3AccessControlListFeature acl) {
         this(session, new S3DefaultMultipartService(session), new S3VersioningFeature(session, acl));
     }
@@ -146,31 +162,144 @@ public class S3MultipleDeleteFeature implements Delete {
                 }
             }
             else {
-                // Request contains a list of up to 1000 keys that you want to delete
-                for(List<ObjectKeyAndVersion> partition : new Partition<>(keys,
-                    new HostPreferences(session.getHost()).getInteger("s3.delete.multiple.partition"))) {
-                    final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(),
-                            partition.toArray(new ObjectKeyAndVersion[partition.size()]),
-                            // Only include errors in response
-                            true);
-                    if(result.hasErrors()) {
-                        for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
-                            if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
-                                // Ignore failure deleting placeholder
-                                continue;
-                            }
-                            final ServiceException failure = new ServiceException();
-                            failure.setErrorCode(error.getErrorCode());
-                            failure.setErrorMessage(error.getMessage());
-                            throw new S3ExceptionMappingService().map("Cannot delete {0}", failure,
-                                    new Path(bucket, error.getKey(), EnumSet.of(Path.Type.file)));
+                final HostPreferences preferences = new HostPreferences(session.getHost());
+                final ThreadPool pool = ThreadPoolFactory.get("delete", preferences.getInteger("s3.delete.multiple.concurrency"),
+                        ThreadPool.Priority.norm, new LinkedBlockingQueue<>());
+                try {
+                    final List<Future<List<BackgroundException>>> batches = new ArrayList<>();
+                    // Request contains a list of up to 1000 keys that you want to delete
+                    for(List<ObjectKeyAndVersion> partition : new Partition<>(keys, preferences.getInteger("s3.delete.multiple.partition"))) {
+                        batches.add(pool.execute(() -> this.delete(bucket, partition)));
+                    }
+                    // Aggregate failures of all batches
+                    final List<BackgroundException> failures = new ArrayList<>();
+                    for(Future<List<BackgroundException>> batch : batches) {
+                        failures.addAll(this.await(batch));
+                    }
+                    if(!failures.isEmpty()) {
+                        for(BackgroundException failure : failures) {
+                            log.warn(String.format("Failure %s deleting key in %s", failure, bucket));
                         }
+                        throw failures.get(0);
                     }
                 }
+                finally {
+                    pool.shutdown(false);
+                }
             }
         }
         catch(ServiceException e) {
             throw new S3ExceptionMappingService().map("Cannot delete {0}", e, bucket);
         }
     }
+
+    /**
+     * Delete batch of keys and retry with backoff when request rate is exceeded
+     *
+     * @return Failures for keys in batch
+     */
+    private List<BackgroundException> delete(final Path bucket, final List<ObjectKeyAndVersion> partition) throws BackgroundException {
+        final List<BackgroundException> failures = new ArrayList<>();
+        List<ObjectKeyAndVersion> pending = partition;
+        for(int attempt = 0; !pending.isEmpty(); attempt++) {
+            backoff.await();
+            final List<ObjectKeyAndVersion> throttled = new ArrayList<>();
+            try {
+                final MultipleDeleteResult result = session.getClient().deleteMultipleObjects(bucket.isRoot() ? StringUtils.EMPTY : bucket.getName(),
+                        pending.toArray(new ObjectKeyAndVersion[pending.size()]),
+                        // Only include errors in response
+                        true);
+                if(result.hasErrors()) {
+                    for(MultipleDeleteResult.ErrorResult error : result.getErrorResults()) {
+                        if(StringUtils.equals("ObjectNotFound", error.getErrorCode())) {
+                            // Ignore failure deleting placeholder
+                            continue;
+                        }
+                        if(StringUtils.equals(SLOW_DOWN, error.getErrorCode()) && attempt < SLOW_DOWN_RETRY) {
+                            throttled.add(new ObjectKeyAndVersion(error.getKey(), error.getVersion()));
+                            continue;
+                        }
+                        final ServiceException failure = new ServiceException();
+                        failure.setErrorCode(error.getErrorCode());
+                        failure.setErrorMessage(error.getMessage());
+                        failures.add(new S3ExceptionMappingService().map("Cannot delete {0}", failure,
+                                new Path(bucket, error.getKey(), EnumSet.of(Path.Type.file))));
+                    }
+                }
+            }
+            catch(ServiceException e) {
+                if(!StringUtils.equals(SLOW_DOWN, e.getErrorCode()) || attempt >= SLOW_DOWN_RETRY) {
+                    throw new S3ExceptionMappingService().map("Cannot delete {0}", e, bucket);
+                }
+                throttled.addAll(pending);
+            }
+            if(throttled.isEmpty()) {
+                backoff.success();
+            }
+            else {
+                log.warn(String.format("Retry deleting %d keys in %s after request rate exceeded", throttled.size(), bucket));
+                backoff.slowdown();
+            }
+            pending = throttled;
+        }
+        return failures;
+    }
+
+    private List<BackgroundException> await(final Future<List<BackgroundException>> batch) throws BackgroundException {
+        try {
+            return batch.get();
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionCanceledException(e);
+        }
+    }
+
+    /**
+     * Delay shared by concurrent requests doubled when the request rate is exceeded and halved on success
+     */
+    static final class AdaptiveBackoff {
+        private final long initial;
+        private final long max;
+        private final AtomicLong delay = new AtomicLong();
+
+        AdaptiveBackoff(final long initial, final long max) {
+            this.initial = initial;
+            this.max = max;
+        }
+
+        void slowdown() {
+            delay.updateAndGet(current -> Math.min(max, Math.max(initial, current * 2)));
+        }
+
+        void success() {
+            delay.updateAndGet(current -> current / 2 < initial ? 0L : current / 2);
+        }
+
+        long getDelay() {
+            return delay.get();
+        }
+
+        void await() throws ConnectionCanceledException {
+            final long millis = delay.get();
+            if(millis > 0) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Wait %dms before request", millis));
+                }
+                try {
+                    Thread.sleep(millis);
+                }
+                catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ConnectionCanceledException(e);
+                }
+            }
+        }
+    }
 }
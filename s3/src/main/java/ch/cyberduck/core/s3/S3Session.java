@@ -158,6 +158,37 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
         this.authenticationHeaderSignatureVersion = authenticationHeaderSignatureVersion;
     }
 
+    /**
+     * Payload is not included in signature with AWS4 and TLS allowing uploads without reading the file twice
+     *
+     * @return True if uploads are sent with x-amz-content-sha256 set to UNSIGNED-PAYLOAD
+     */
+    public boolean isUnsignedPayload() {
+        switch(authenticationHeaderSignatureVersion) {
+            case AWS4HMACSHA256:
+                return host.getProtocol().isSecure()
+                        && preferences.getBoolean("s3.upload.payload.unsigned");
+        }
+        return false;
+    }
+
+    /**
+     * @param file   File to upload
+     * @param status Transfer status with server side encryption
+     * @return True if payload can be sent unsigned and verified with MD5 hash returned in ETag
+     */
+    public boolean isUnsignedPayload(final Path file, final TransferStatus status) {
+        if(file.getType().contains(Path.Type.encrypted)) {
+            // No checksum verification for client side encrypted content
+            return false;
+        }
+        if(Encryption.Algorithm.NONE != status.getEncryption()) {
+            // ETag is not MD5 hash of content with server side encryption
+            return false;
+        }
+        return this.isUnsignedPayload();
+    }
+
     /**
      * @return header prefix for general Google Storage headers: x-goog-.
      */
@@ -60,6 +60,10 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
         final S3Protocol.AuthenticationHeaderSignatureVersion signatureVersion = session.getSignatureVersion();
         switch(signatureVersion) {
             case AWS4HMACSHA256:
+                if(session.isUnsignedPayload(file, status)) {
+                    // Skip reading file to calculate checksum prior upload
+                    break;
+                }
                 if(!HashAlgorithm.sha256.equals(status.getChecksum().algorithm)) {
                     // Checksum not set in upload filter
                     status.setChecksum(writer.checksum(file, status).compute(local.getInputStream(), status));
@@ -93,7 +97,8 @@ public class S3SingleUploadService extends HttpUploadFeature<StorageObject, Mess
     @Override
     protected MessageDigest digest() throws IOException {
         MessageDigest digest = null;
-        if(new HostPreferences(session.getHost()).getBoolean("queue.upload.checksum.calculate")) {
+        // Payload not included in signature must be verified with MD5 returned in ETag
+        if(session.isUnsignedPayload() || new HostPreferences(session.getHost()).getBoolean("queue.upload.checksum.calculate")) {
             try {
                 digest = MessageDigest.getInstance("MD5");
             }
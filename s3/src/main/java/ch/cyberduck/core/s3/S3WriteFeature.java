@@ -54,6 +54,8 @@ import java.util.Map;
 public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> implements Write<StorageObject> {
     private static final Logger log = LogManager.getLogger(S3WriteFeature.class);
 
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
     private final PathContainerService containerService;
     private final S3AccessControlListFeature acl;
     private final S3Session session;
@@ -68,6 +70,10 @@ public class S3WriteFeature extends AbstractHttpWriteFeature<StorageObject> impl
     @Override
     public HttpResponseOutputStream<StorageObject> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         final S3Object object = this.getDetails(file, status);
+        if(Checksum.NONE == status.getChecksum() && session.isUnsignedPayload(file, status)) {
+            // Checksum is not calculated in advance for payload read once while uploading
+            object.addMetadata("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        }
         final DelayedHttpEntityCallable<StorageObject> command = new DelayedHttpEntityCallable<StorageObject>(file) {
             @Override
             public StorageObject call(final AbstractHttpEntity entity) throws BackgroundException {
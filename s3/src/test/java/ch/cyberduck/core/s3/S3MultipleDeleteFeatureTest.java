@@ -54,6 +54,23 @@ public class S3MultipleDeleteFeatureTest extends AbstractS3Test {
         assertFalse(new S3FindFeature(session, new S3AccessControlListFeature(session)).find(test));
     }
 
+    @Test
+    public void testDeleteConcurrentPartitions() throws Exception {
+        final Path container = new Path("test-eu-central-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final S3AccessControlListFeature acl = new S3AccessControlListFeature(session);
+        final Path test = new Path(container, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new S3TouchFeature(session, acl).touch(test, new TransferStatus());
+        assertTrue(new S3FindFeature(session, acl).find(test));
+        final List<ObjectKeyAndVersion> keys = new ArrayList<>();
+        // Missing keys are reported as deleted
+        for(int i = 0; i < 2500; i++) {
+            keys.add(new ObjectKeyAndVersion(new AlphanumericRandomStringService().random()));
+        }
+        keys.add(new ObjectKeyAndVersion(test.getName()));
+        new S3MultipleDeleteFeature(session, acl).delete(container, keys, new DisabledLoginCallback());
+        assertFalse(new S3FindFeature(session, acl).find(test));
+    }
+
     @Test
     public void testDeleteFileBackslash() throws Exception {
         final Path container = new Path("test-eu-central-1-cyberduck", EnumSet.of(Path.Type.volume, Path.Type.directory));
@@ -0,0 +1,66 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2026 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.jets3t.service.model.S3Object;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class S3UnsignedPayloadTest {
+
+    @Test
+    public void testDisabledDefault() {
+        final S3Session session = new S3Session(new Host(new S3Protocol()));
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        assertFalse(session.isUnsignedPayload());
+    }
+
+    @Test
+    public void testUnsignedPayload() {
+        final Host host = new Host(new S3Protocol());
+        host.setProperty("s3.upload.payload.unsigned", String.valueOf(true));
+        final S3Session session = new S3Session(host);
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        assertTrue(session.isUnsignedPayload());
+        final Path file = new Path("/b/f", EnumSet.of(Path.Type.file));
+        assertTrue(session.isUnsignedPayload(file, new TransferStatus()));
+        assertFalse(session.isUnsignedPayload(new Path("/b/f", EnumSet.of(Path.Type.file, Path.Type.encrypted)), new TransferStatus()));
+        final TransferStatus encrypted = new TransferStatus();
+        encrypted.setEncryption(S3EncryptionFeature.SSE_AES256);
+        assertFalse(session.isUnsignedPayload(file, encrypted));
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS2);
+        assertFalse(session.isUnsignedPayload());
+    }
+
+    @Test
+    public void testNoUnsignedPayloadHeaderInDetails() {
+        final Host host = new Host(new S3Protocol());
+        host.setProperty("s3.upload.payload.unsigned", String.valueOf(true));
+        final S3Session session = new S3Session(host);
+        session.setSignatureVersion(S3Protocol.AuthenticationHeaderSignatureVersion.AWS4HMACSHA256);
+        // Details are also used for copy and initiating multipart uploads
+        final S3Object object = new S3WriteFeature(session, new S3AccessControlListFeature(session))
+                .getDetails(new Path("/b/f", EnumSet.of(Path.Type.file)), new TransferStatus());
+        assertNull(object.getMetadata("x-amz-content-sha256"));
+    }
+}
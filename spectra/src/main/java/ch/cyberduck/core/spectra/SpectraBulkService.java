@@ -94,6 +94,14 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
         return this;
     }
 
+    /**
+     * @return False as a single bulk job is created for all files in the transfer
+     */
+    @Override
+    public boolean isIncremental() {
+        return false;
+    }
+
     @Override
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
         //
@@ -28,20 +28,30 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.preferences.PreferencesReader;
 
 import org.apache.commons.collections4.ListUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import net.schmizz.concurrent.Promise;
 import net.schmizz.sshj.sftp.FileAttributes;
 import net.schmizz.sshj.sftp.FileMode;
+import net.schmizz.sshj.sftp.PacketType;
 import net.schmizz.sshj.sftp.RemoteDirectory;
-import net.schmizz.sshj.sftp.RemoteResourceFilter;
-import net.schmizz.sshj.sftp.RemoteResourceInfo;
+import net.schmizz.sshj.sftp.Response;
+import net.schmizz.sshj.sftp.SFTPEngine;
 import net.schmizz.sshj.sftp.SFTPException;
 
 public class SFTPListService implements ListService {
@@ -58,38 +68,66 @@ public class SFTPListService implements ListService {
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         final AttributedList<Path> children = new AttributedList<Path>();
-        try (RemoteDirectory handle = session.sftp().openDir(directory.getAbsolute())) {
-            for(List<RemoteResourceInfo> list : ListUtils.partition(handle.scan(new RemoteResourceFilter() {
-                        @Override
-                        public boolean accept(RemoteResourceInfo remoteResourceInfo) {
-                            return true;
-                        }
-                    }),
-                    new HostPreferences(session.getHost()).getInteger("sftp.listing.chunksize"))) {
-                for(RemoteResourceInfo f : list) {
-                    final PathAttributes attr = attributes.toAttributes(f.getAttributes());
-                    final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
-                    switch(f.getAttributes().getType()) {
-                        case DIRECTORY:
-                            type.add(Path.Type.directory);
+        final PreferencesReader preferences = new HostPreferences(session.getHost());
+        final int maxUnconfirmed = preferences.getInteger("sftp.listing.maxunconfirmed");
+        final int chunksize = preferences.getInteger("sftp.listing.chunksize");
+        try {
+            final SFTPEngine sftp = session.sftp();
+            final Charset charset = sftp.getSubsystem().getRemoteCharset();
+            final byte[] handle = sftp.request(sftp.newRequest(PacketType.OPENDIR).putString(directory.getAbsolute(), charset))
+                    .retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS).ensurePacketTypeIs(PacketType.HANDLE).readBytes();
+            try (RemoteDirectory ignored = new RemoteDirectory(sftp, directory.getAbsolute(), handle)) {
+                // Keep multiple READDIR requests outstanding. Servers answer requests for the same handle in order
+                // and reply with EOF status to all requests following the last batch of entries
+                final Deque<Promise<Response, SFTPException>> outstanding = new ArrayDeque<>();
+                for(int i = 0; i < maxUnconfirmed; i++) {
+                    outstanding.add(sftp.request(sftp.newRequest(PacketType.READDIR).putBytes(handle)));
+                }
+                boolean eof = false;
+                int notified = 0;
+                while(!outstanding.isEmpty()) {
+                    final Response response = outstanding.remove().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS);
+                    switch(response.getType()) {
+                        case NAME:
+                            if(!eof) {
+                                outstanding.add(sftp.request(sftp.newRequest(PacketType.READDIR).putBytes(handle)));
+                            }
+                            final List<Path> links = new ArrayList<>();
+                            final int count = response.readUInt32AsInt();
+                            for(int i = 0; i < count; i++) {
+                                final String name = response.readString(charset);
+                                // Long name not used
+                                response.readString();
+                                final FileAttributes f = response.readFileAttributes();
+                                if(".".equals(name) || "..".equals(name)) {
+                                    continue;
+                                }
+                                final Path file = this.toPath(directory, name, f);
+                                if(file.isSymbolicLink()) {
+                                    links.add(file);
+                                }
+                                else {
+                                    children.add(file);
+                                }
+                            }
+                            for(List<Path> partition : ListUtils.partition(links, maxUnconfirmed)) {
+                                children.addAll(this.post(sftp, partition));
+                            }
+                            if(children.size() - notified >= chunksize) {
+                                listener.chunk(directory, children);
+                                notified = children.size();
+                            }
                             break;
-                        case SYMLINK:
-                            type.add(Path.Type.symboliclink);
+                        case STATUS:
+                            response.ensureStatusIs(Response.StatusCode.EOF);
+                            eof = true;
                             break;
                         default:
-                            type.add(Path.Type.file);
-                            break;
-                    }
-                    final Path file = new Path(directory, f.getName(), type, attr);
-                    if(this.post(file)) {
-                        children.add(file);
-                        listener.chunk(directory, children);
+                            throw new SFTPException(String.format("Unexpected packet %s", response.getType()));
                     }
                 }
             }
-            if(children.isEmpty()) {
-                listener.chunk(directory, children);
-            }
+            listener.chunk(directory, children);
             return children;
         }
         catch(IOException e) {
@@ -97,57 +135,102 @@ public class SFTPListService implements ListService {
         }
     }
 
-    protected boolean post(final Path file) throws BackgroundException {
-        if(file.isSymbolicLink()) {
-            final Path target;
-            Path.Type type;
-            PathAttributes attr;
+    private Path toPath(final Path directory, final String name, final FileAttributes f) {
+        final PathAttributes attr = attributes.toAttributes(f);
+        final EnumSet<Path.Type> type = EnumSet.noneOf(Path.Type.class);
+        switch(f.getType()) {
+            case DIRECTORY:
+                type.add(Path.Type.directory);
+                break;
+            case SYMLINK:
+                type.add(Path.Type.symboliclink);
+                break;
+            default:
+                type.add(Path.Type.file);
+                break;
+        }
+        return new Path(directory, name, type, attr);
+    }
+
+    /**
+     * Resolve targets of symbolic links with READLINK and STAT requests sent without awaiting previous replies
+     *
+     * @param sftp  Engine
+     * @param links Symbolic links
+     * @return Symbolic links with target set omitting links that cannot be read
+     */
+    protected List<Path> post(final SFTPEngine sftp, final List<Path> links) throws BackgroundException, IOException {
+        final Charset charset = sftp.getSubsystem().getRemoteCharset();
+        final Map<Path, Promise<Response, SFTPException>> readlink = new LinkedHashMap<>();
+        for(Path file : links) {
+            readlink.put(file, sftp.request(sftp.newRequest(PacketType.READLINK).putString(file.getAbsolute(), charset)));
+        }
+        final Map<Path, Path> targets = new LinkedHashMap<>();
+        for(Map.Entry<Path, Promise<Response, SFTPException>> entry : readlink.entrySet()) {
+            final Path file = entry.getKey();
             try {
-                final String link = session.sftp().readLink(file.getAbsolute());
+                final Response response = entry.getValue().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .ensurePacketTypeIs(PacketType.NAME);
+                if(response.readUInt32AsInt() != 1) {
+                    throw new SFTPException(String.format("Unexpected data in response for %s", file));
+                }
+                final String link = response.readString(charset);
                 if(link.startsWith(String.valueOf(Path.DELIMITER))) {
-                    target = new Path(PathNormalizer.normalize(link), EnumSet.of(Path.Type.file));
+                    targets.put(file, new Path(PathNormalizer.normalize(link), EnumSet.of(Path.Type.file)));
                 }
                 else {
-                    target = new Path(PathNormalizer.normalize(String.format("%s/%s", file.getParent().getAbsolute(), link)), EnumSet.of(Path.Type.file));
+                    targets.put(file, new Path(PathNormalizer.normalize(String.format("%s/%s", file.getParent().getAbsolute(), link)), EnumSet.of(Path.Type.file)));
                 }
-                try {
-                    final FileAttributes stat = session.sftp().stat(target.getAbsolute());
-                    if(stat.getType().equals(FileMode.Type.DIRECTORY)) {
-                        type = Path.Type.directory;
-                    }
-                    else {
-                        type = Path.Type.file;
-                    }
-                    attr = attributes.toAttributes(stat);
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
+            }
+        }
+        final Map<Path, Promise<Response, SFTPException>> stat = new LinkedHashMap<>();
+        for(Map.Entry<Path, Path> entry : targets.entrySet()) {
+            stat.put(entry.getKey(), sftp.request(sftp.newRequest(PacketType.STAT).putString(entry.getValue().getAbsolute(), charset)));
+        }
+        final List<Path> resolved = new ArrayList<>();
+        for(Map.Entry<Path, Promise<Response, SFTPException>> entry : stat.entrySet()) {
+            final Path file = entry.getKey();
+            final Path target = targets.get(file);
+            Path.Type type;
+            PathAttributes attr;
+            try {
+                final FileAttributes f = entry.getValue().retrieve(sftp.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                        .ensurePacketTypeIs(PacketType.ATTRS).readFileAttributes();
+                if(f.getType().equals(FileMode.Type.DIRECTORY)) {
+                    type = Path.Type.directory;
                 }
-                catch(SFTPException e) {
-                    final BackgroundException reason = new SFTPExceptionMappingService().map(e);
-                    if(reason instanceof NotfoundException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof AccessDeniedException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else if(reason instanceof InteroperabilityException) {
-                        log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
-                    }
-                    else {
-                        log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
-                        throw reason;
-                    }
+                else {
                     type = Path.Type.file;
-                    attr = PathAttributes.EMPTY;
                 }
-                file.setType(EnumSet.of(Path.Type.symboliclink, type));
-                target.setType(EnumSet.of(type));
-                target.setAttributes(attr);
-                file.setSymlinkTarget(target);
+                attr = attributes.toAttributes(f);
             }
-            catch(IOException e) {
-                log.warn(String.format("Failure to read symbolic link of %s. %s", file, e.getMessage()));
-                return false;
+            catch(SFTPException e) {
+                final BackgroundException reason = new SFTPExceptionMappingService().map(e);
+                if(reason instanceof NotfoundException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof AccessDeniedException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else if(reason instanceof InteroperabilityException) {
+                    log.warn(String.format("Cannot find symbolic link target of %s. %s", file, reason.toString()));
+                }
+                else {
+                    log.warn(String.format("Unknown failure reading symbolic link target of %s. %s", file, reason.toString()));
+                    throw reason;
+                }
+                type = Path.Type.file;
+                attr = PathAttributes.EMPTY;
             }
+            file.setType(EnumSet.of(Path.Type.symboliclink, type));
+            target.setType(EnumSet.of(type));
+            target.setAttributes(attr);
+            file.setSymlinkTarget(target);
+            resolved.add(file);
         }
-        return true;
+        return resolved;
     }
 }
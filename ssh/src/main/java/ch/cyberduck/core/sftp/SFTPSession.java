@@ -46,6 +46,7 @@ import ch.cyberduck.core.sftp.openssh.OpenSSHJumpHostConfigurator;
 import ch.cyberduck.core.sftp.openssh.OpenSSHPreferredAuthenticationsConfigurator;
 import ch.cyberduck.core.sftp.openssh.WindowsOpenSSHAgentAuthenticator;
 import ch.cyberduck.core.sftp.putty.PageantAuthenticator;
+import ch.cyberduck.core.socket.RacingSocketConnector;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.threading.CancelCallback;
@@ -184,7 +185,8 @@ public class SFTPSession extends Session<SSHClient> {
         final int timeout = ConnectionTimeoutFactory.get(preferences).getTimeout() * 1000;
         connection.getTransport().setTimeoutMs(timeout);
         connection.setTimeout(timeout);
-        connection.setSocketFactory(new ProxySocketFactory(host));
+        // Race connection attempts for hosts with multiple addresses
+        connection.setSocketFactory(new ProxySocketFactory(host).withRacing(new RacingSocketConnector()));
         connection.addHostKeyVerifier(new HostKeyVerifier() {
             @Override
             public boolean verify(String hostname, int port, PublicKey publicKey) {
@@ -34,11 +34,14 @@ import ch.cyberduck.test.IntegrationTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -84,6 +87,34 @@ public class SFTPListServiceTest extends AbstractSFTPTest {
         new SFTPDeleteFeature(session).delete(Collections.<Path>singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testListSymlinksPipelined() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path folder = new SFTPDirectoryFeature(session).mkdir(new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final List<Path> files = new ArrayList<>();
+        for(int i = 0; i < 50; i++) {
+            final Path file = new SFTPTouchFeature(session).touch(new Path(folder, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+            final Path symlink = new Path(folder, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file, AbstractPath.Type.symboliclink));
+            new SFTPSymlinkFeature(session).symlink(symlink, file.getName());
+            files.add(file);
+            files.add(symlink);
+        }
+        final AtomicInteger chunks = new AtomicInteger();
+        final AttributedList<Path> list = new SFTPListService(session).list(folder, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path parent, final AttributedList<Path> list) {
+                chunks.incrementAndGet();
+            }
+        });
+        assertEquals(files.size(), list.size());
+        for(int i = 0; i < files.size(); i += 2) {
+            assertEquals(files.get(i), list.get(files.get(i + 1)).getSymlinkTarget());
+        }
+        assertTrue(chunks.get() > 0);
+        files.add(folder);
+        new SFTPDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
     @Test(expected = NotfoundException.class)
     public void testListNotfound() throws Exception {
         final Path f = new Path(UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory));
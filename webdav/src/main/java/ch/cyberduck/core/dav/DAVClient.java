@@ -18,6 +18,7 @@ package ch.cyberduck.core.dav;
  * feedback@cyberduck.ch
  */
 
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.commons.lang3.StringUtils;
@@ -30,18 +31,24 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.xml.namespace.QName;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import com.github.sardine.DavResource;
 import com.github.sardine.impl.SardineImpl;
 import com.github.sardine.impl.handler.MultiStatusResponseHandler;
 import com.github.sardine.impl.methods.HttpPropFind;
+import com.github.sardine.model.Allprop;
 import com.github.sardine.model.Multistatus;
+import com.github.sardine.model.ObjectFactory;
+import com.github.sardine.model.Prop;
 import com.github.sardine.model.Propfind;
 import com.github.sardine.model.Response;
 import com.github.sardine.util.SardineUtil;
@@ -97,6 +104,105 @@ public class DAVClient extends SardineImpl {
         return resources;
     }
 
+    /**
+     * List with properties requested and notify callback for every resource while the response is parsed
+     *
+     * @param depth Depth header value or -1 for infinity
+     * @param props Custom properties to request in addition to defaults
+     */
+    public void list(final String url, final int depth, final Set<QName> props, final ResourceCallback callback) throws IOException, BackgroundException {
+        final Propfind body = new Propfind();
+        final Prop prop = new Prop();
+        final ObjectFactory factory = new ObjectFactory();
+        prop.setGetcontentlength(factory.createGetcontentlength());
+        prop.setGetlastmodified(factory.createGetlastmodified());
+        prop.setCreationdate(factory.createCreationdate());
+        prop.setDisplayname(factory.createDisplayname());
+        prop.setGetcontenttype(factory.createGetcontenttype());
+        prop.setResourcetype(factory.createResourcetype());
+        prop.setGetetag(factory.createGetetag());
+        prop.setLockdiscovery(factory.createLockdiscovery());
+        for(QName property : props) {
+            prop.getAny().add(SardineUtil.createElement(property));
+        }
+        body.setProp(prop);
+        this.propfind(url, depth, body, callback);
+    }
+
+    /**
+     * List with all properties and notify callback for every resource while the response is parsed
+     *
+     * @param depth Depth header value or -1 for infinity
+     */
+    public void list(final String url, final int depth, final boolean allProp, final ResourceCallback callback) throws IOException, BackgroundException {
+        if(allProp) {
+            final Propfind body = new Propfind();
+            body.setAllprop(new Allprop());
+            this.propfind(url, depth, body, callback);
+        }
+        else {
+            this.list(url, depth, Collections.emptySet(), callback);
+        }
+    }
+
+    public void propfind(final String url, final int depth, final Propfind body, final ResourceCallback callback) throws IOException, BackgroundException {
+        final HttpPropFind entity = new HttpPropFind(url);
+        entity.setDepth(depth < 0 ? "infinity" : Integer.toString(depth));
+        entity.setEntity(new StringEntity(SardineUtil.toXml(body), StandardCharsets.UTF_8));
+        if(PreferencesFactory.get().getBoolean("webdav.list.handler.sax")) {
+            try {
+                this.execute(entity, new SaxPropFindResponseHandler(response -> {
+                    try {
+                        this.resource(response, callback);
+                    }
+                    catch(BackgroundException e) {
+                        throw new CallbackException(e);
+                    }
+                }));
+            }
+            catch(CallbackException e) {
+                throw e.getReason();
+            }
+        }
+        else {
+            for(Response response : this.execute(entity, new MultiStatusResponseHandler()).getResponse()) {
+                this.resource(response, callback);
+            }
+        }
+    }
+
+    private void resource(final Response response, final ResourceCallback callback) throws BackgroundException {
+        final DavResource resource;
+        try {
+            resource = new DavResource(response);
+        }
+        catch(URISyntaxException e) {
+            log.warn(String.format("Ignore resource with invalid URI %s", response.getHref().get(0)));
+            return;
+        }
+        callback.resource(resource);
+    }
+
+    public interface ResourceCallback {
+        void resource(DavResource resource) throws BackgroundException;
+    }
+
+    /**
+     * Failure in callback passed through response handler
+     */
+    private static final class CallbackException extends IOException {
+        private final BackgroundException reason;
+
+        public CallbackException(final BackgroundException reason) {
+            super(reason);
+            this.reason = reason;
+        }
+
+        public BackgroundException getReason() {
+            return reason;
+        }
+    }
+
     public HttpClientContext context() {
         return context;
     }
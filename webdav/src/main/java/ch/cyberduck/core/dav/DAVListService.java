@@ -23,19 +23,29 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.RecursiveListProgressListener;
 import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.cache.LRUCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.http.HttpExceptionMappingService;
 import ch.cyberduck.core.preferences.HostPreferences;
+import ch.cyberduck.core.preferences.PreferencesReader;
 
-import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -47,6 +57,17 @@ public class DAVListService implements ListService {
 
     private final DAVSession session;
     private final DAVAttributesFinderFeature attributes;
+    private final PreferencesReader preferences;
+
+    /**
+     * Listings of subdirectories retrieved with Depth: infinity not yet returned. Bounded in size and expired after
+     * write to not serve outdated listings.
+     */
+    private final LRUCache<Path, AttributedList<Path>> prefetched;
+    /**
+     * False when server refused Depth: infinity
+     */
+    private final AtomicBoolean infinity = new AtomicBoolean(true);
 
     public DAVListService(final DAVSession session) {
         this(session, new DAVAttributesFinderFeature(session));
@@ -55,33 +76,60 @@ public class DAVListService implements ListService {
     public DAVListService(final DAVSession session, final DAVAttributesFinderFeature attributes) {
         this.session = session;
         this.attributes = attributes;
+        this.preferences = new HostPreferences(session.getHost());
+        this.prefetched = LRUCache.build(null, preferences.getLong("webdav.listing.recursive.cache.size"),
+                preferences.getLong("webdav.listing.recursive.cache.ttl"), false);
     }
 
     @Override
     public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
         try {
-            final AttributedList<Path> children = new AttributedList<>();
-            for(List<DavResource> list : ListUtils.partition(this.list(directory),
-                    new HostPreferences(session.getHost()).getInteger("webdav.listing.chunksize"))) {
-                for(final DavResource resource : list) {
-                    if(new SimplePathPredicate(new Path(resource.getHref().getPath(), EnumSet.of(Path.Type.directory))).test(directory)) {
-                        log.warn(String.format("Ignore resource %s", resource));
-                        // Do not include self
-                        if(resource.isDirectory()) {
-                            continue;
-                        }
-                        throw new NotfoundException(directory.getAbsolute());
+            // Only prefetch when all subdirectories are about to be listed
+            if(listener instanceof RecursiveListProgressListener
+                    && preferences.getBoolean("webdav.listing.recursive.enable") && infinity.get()) {
+                final AttributedList<Path> cached;
+                synchronized(prefetched) {
+                    // Only return once to not serve outdated listings
+                    cached = prefetched.get(directory);
+                    prefetched.remove(directory);
+                }
+                if(cached != null) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Return prefetched listing for %s", directory));
+                    }
+                    listener.chunk(directory, cached);
+                    return cached;
+                }
+                try {
+                    return this.prefetch(directory, listener);
+                }
+                catch(SardineException e) {
+                    switch(e.getStatusCode()) {
+                        case HttpStatus.SC_FORBIDDEN:
+                        case HttpStatus.SC_BAD_REQUEST:
+                        case HttpStatus.SC_NOT_IMPLEMENTED:
+                            // DAV:propfind-finite-depth
+                            log.warn(String.format("Disable recursive listing after failure %s", e));
+                            infinity.set(false);
+                            break;
+                        default:
+                            throw e;
                     }
-                    final PathAttributes attr = attributes.toAttributes(resource);
-                    final Path file = new Path(directory, PathNormalizer.name(resource.getHref().getPath()),
-                            resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
-                    children.add(file);
-                    listener.chunk(directory, children);
                 }
             }
-            if(children.isEmpty()) {
-                listener.chunk(directory, children);
-            }
+            final AttributedList<Path> children = new AttributedList<>();
+            final int chunksize = preferences.getInteger("webdav.listing.chunksize");
+            this.list(directory, 1, resource -> {
+                final Path file = this.toPath(directory, resource);
+                if(null == file) {
+                    return;
+                }
+                children.add(file);
+                if(children.size() % chunksize == 0) {
+                    listener.chunk(directory, children);
+                }
+            });
+            listener.chunk(directory, children);
             return children;
         }
         catch(SardineException e) {
@@ -92,11 +140,80 @@ public class DAVListService implements ListService {
         }
     }
 
-    protected List<DavResource> list(final Path directory) throws IOException {
-        return session.getClient().list(new DAVPathEncoder().encode(directory), 1,
+    /**
+     * List all descendants with a single PROPFIND request and keep listings of subdirectories for later lookup
+     *
+     * @return Children of directory
+     */
+    protected AttributedList<Path> prefetch(final Path directory, final ListProgressListener listener) throws IOException, BackgroundException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("List %s with depth infinity", directory));
+        }
+        final List<DavResource> resources = new ArrayList<>();
+        this.list(directory, -1, resources::add);
+        // Parents before children regardless of order in response
+        resources.sort(Comparator.comparingInt(resource -> StringUtils.countMatches(
+                PathNormalizer.normalize(resource.getHref().getPath()), Path.DELIMITER)));
+        final Map<String, Path> directories = new HashMap<>();
+        directories.put(directory.getAbsolute(), directory);
+        final Map<Path, AttributedList<Path>> listings = new LinkedHashMap<>();
+        listings.put(directory, new AttributedList<>());
+        for(DavResource resource : resources) {
+            final Path parent = directories.get(PathNormalizer.parent(PathNormalizer.normalize(resource.getHref().getPath()), Path.DELIMITER));
+            if(null == parent) {
+                // Fails if directory is a file
+                this.toPath(directory, resource);
+                continue;
+            }
+            final Path file = this.toPath(parent, resource);
+            if(null == file) {
+                continue;
+            }
+            listings.get(parent).add(file);
+            if(file.isDirectory()) {
+                directories.put(file.getAbsolute(), file);
+                listings.put(file, new AttributedList<>());
+            }
+        }
+        final AttributedList<Path> children = listings.remove(directory);
+        synchronized(prefetched) {
+            for(Map.Entry<Path, AttributedList<Path>> entry : listings.entrySet()) {
+                prefetched.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Prefetched listings for %d directories in %s", listings.size(), directory));
+        }
+        listener.chunk(directory, children);
+        return children;
+    }
+
+    /**
+     * @return Null for directory itself
+     * @throws NotfoundException Directory is a file
+     */
+    protected Path toPath(final Path directory, final DavResource resource) throws NotfoundException {
+        if(new SimplePathPredicate(new Path(resource.getHref().getPath(), EnumSet.of(Path.Type.directory))).test(directory)) {
+            log.warn(String.format("Ignore resource %s", resource));
+            // Do not include self
+            if(resource.isDirectory()) {
+                return null;
+            }
+            throw new NotfoundException(directory.getAbsolute());
+        }
+        final PathAttributes attr = attributes.toAttributes(resource);
+        return new Path(directory, PathNormalizer.name(resource.getHref().getPath()),
+                resource.isDirectory() ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attr);
+    }
+
+    /**
+     * @param depth Depth of PROPFIND request or -1 for infinity
+     */
+    protected void list(final Path directory, final int depth, final DAVClient.ResourceCallback callback) throws IOException, BackgroundException {
+        session.getClient().list(new DAVPathEncoder().encode(directory), depth,
                 Stream.of(
                                 DAVTimestampFeature.LAST_MODIFIED_CUSTOM_NAMESPACE,
                                 DAVTimestampFeature.LAST_MODIFIED_SERVER_CUSTOM_NAMESPACE).
-                        collect(Collectors.toSet()));
+                        collect(Collectors.toSet()), callback);
     }
 }
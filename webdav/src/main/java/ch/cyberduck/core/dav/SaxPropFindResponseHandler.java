@@ -41,6 +41,20 @@ import com.github.sardine.util.SardineUtil;
 public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
     private static final Logger log = LogManager.getLogger(SaxPropFindResponseHandler.class);
 
+    private final ResponseCallback callback;
+
+    public SaxPropFindResponseHandler() {
+        this(null);
+    }
+
+    /**
+     * @param callback Notified for every response element when parsed. Responses are not added to multistatus
+     *                 returned.
+     */
+    public SaxPropFindResponseHandler(final ResponseCallback callback) {
+        this.callback = callback;
+    }
+
     @Override
     protected Multistatus getMultistatus(final InputStream stream) throws IOException {
         final SAXParserFactory spf = SAXParserFactory.newInstance();
@@ -48,18 +62,30 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         try {
             final SAXParser saxParser = spf.newSAXParser();
             final XMLReader xmlReader = saxParser.getXMLReader();
-            final SaxHandler handler = new SaxHandler();
+            final SaxHandler handler = new SaxHandler(callback);
             xmlReader.setContentHandler(handler);
             xmlReader.setErrorHandler(new LoggingErrorHandler());
             xmlReader.parse(new InputSource(stream));
             return handler.getMultistatus();
         }
-        catch(IOException | SAXException | ParserConfigurationException e) {
+        catch(SAXException e) {
+            if(e.getException() instanceof IOException) {
+                // Failure in callback
+                throw (IOException) e.getException();
+            }
+            throw new IOException("Not a valid DAV response", e);
+        }
+        catch(IOException | ParserConfigurationException e) {
             throw new IOException("Not a valid DAV response", e);
         }
     }
 
+    public interface ResponseCallback {
+        void response(Response response) throws IOException;
+    }
+
     private static final class SaxHandler extends DefaultHandler {
+        private final ResponseCallback callback;
 
         private Multistatus multistatus;
         private Response response;
@@ -73,6 +99,10 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         private final StringBuilder text = new StringBuilder();
         private final Element root = SardineUtil.createElement(SardineUtil.createQNameWithCustomNamespace("root"));
 
+        public SaxHandler(final ResponseCallback callback) {
+            this.callback = callback;
+        }
+
         @Override
         public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
             switch(localName) {
@@ -81,7 +111,7 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
                     break;
                 case "response":
                     response = new Response();
-                    if(multistatus != null) {
+                    if(multistatus != null && null == callback) {
                         multistatus.getResponse().add(response);
                     }
                     break;
@@ -135,7 +165,15 @@ public class SaxPropFindResponseHandler extends MultiStatusResponseHandler {
         }
 
         @Override
-        public void endElement(final String uri, final String localName, final String qName) {
+        public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+            if("response".equals(localName) && response != null && callback != null) {
+                try {
+                    callback.response(response);
+                }
+                catch(IOException e) {
+                    throw new SAXException(e);
+                }
+            }
             if(StringUtils.isBlank(text.toString())) {
                 return;
             }
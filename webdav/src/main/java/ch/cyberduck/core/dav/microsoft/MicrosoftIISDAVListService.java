@@ -17,14 +17,13 @@ package ch.cyberduck.core.dav.microsoft;
 
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.dav.DAVAttributesFinderFeature;
+import ch.cyberduck.core.dav.DAVClient;
 import ch.cyberduck.core.dav.DAVListService;
 import ch.cyberduck.core.dav.DAVPathEncoder;
 import ch.cyberduck.core.dav.DAVSession;
+import ch.cyberduck.core.exception.BackgroundException;
 
 import java.io.IOException;
-import java.util.List;
-
-import com.github.sardine.DavResource;
 
 public class MicrosoftIISDAVListService extends DAVListService {
 
@@ -36,7 +35,7 @@ public class MicrosoftIISDAVListService extends DAVListService {
     }
 
     @Override
-    protected List<DavResource> list(final Path directory) throws IOException {
-        return session.getClient().list(new DAVPathEncoder().encode(directory), 1, true);
+    protected void list(final Path directory, final int depth, final DAVClient.ResourceCallback callback) throws IOException, BackgroundException {
+        session.getClient().list(new DAVPathEncoder().encode(directory), depth, true, callback);
     }
 }
@@ -22,6 +22,7 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.RecursiveListProgressListener;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.shared.DefaultHomeFinderService;
@@ -70,4 +71,26 @@ public class DAVListServiceTest extends AbstractDAVTest {
                 new DisabledListProgressListener()));
         new DAVDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
+
+    @Test
+    public void testListRecursivePrefetch() throws Exception {
+        final Path folder = new DAVDirectoryFeature(session).mkdir(new Path(
+                new DefaultHomeFinderService(session).find(), new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final Path sub = new DAVDirectoryFeature(session).mkdir(new Path(folder, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), new TransferStatus());
+        final Path file = new DAVTouchFeature(session).touch(new Path(sub, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        session.getHost().setProperty("webdav.listing.recursive.enable", String.valueOf(true));
+        try {
+            final DAVListService service = new DAVListService(session);
+            final AttributedList<Path> children = service.list(folder, new RecursiveListProgressListener(new DisabledListProgressListener()));
+            assertEquals(1, children.size());
+            assertTrue(children.contains(sub));
+            final AttributedList<Path> descendants = service.list(children.get(sub), new RecursiveListProgressListener(new DisabledListProgressListener()));
+            assertEquals(1, descendants.size());
+            assertTrue(descendants.contains(file));
+        }
+        finally {
+            session.getHost().setProperty("webdav.listing.recursive.enable", null);
+        }
+        new DAVDeleteFeature(session).delete(Collections.singletonList(folder), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }